@@ -0,0 +1,44 @@
+package com.example.hmcts.benchmarks;
+
+import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.model.Task;
+import com.example.hmcts.model.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic task data shared by the benchmarks.
+ */
+final class TaskFixtures {
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private TaskFixtures() {
+    }
+
+    static List<Task> tasks(int count) {
+        LocalDateTime due = LocalDateTime.now().plusDays(30);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            tasks.add(new Task(i, "Task " + i, "Description of task " + i,
+                    STATUSES[i % STATUSES.length], due.plusMinutes(i)));
+        }
+        return tasks;
+    }
+
+    static List<TaskRequestDto> requests(int count) {
+        LocalDateTime due = LocalDateTime.now().plusDays(30);
+        List<TaskRequestDto> requests = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            TaskRequestDto request = new TaskRequestDto();
+            request.setTaskTitle("Task " + i);
+            request.setTaskDescription("Description of task " + i);
+            request.setTaskStatus(STATUSES[i % STATUSES.length]);
+            request.setDueDateTime(due.plusMinutes(i));
+            requests.add(request);
+        }
+        return requests;
+    }
+}
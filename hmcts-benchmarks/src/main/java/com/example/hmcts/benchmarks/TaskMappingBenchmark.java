@@ -0,0 +1,61 @@
+package com.example.hmcts.benchmarks;
+
+import com.example.hmcts.dto.TaskResponseDto;
+import com.example.hmcts.model.Task;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity to DTO mapping and Jackson serialisation of task lists, as done by every list and export response.
+ * The accessors parameter compares serialising through reflection, Jackson's default, with the
+ * generated accessors of the Blackbird module the application registers.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskMappingBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    private int size;
+
+    @Param({"reflection", "blackbird"})
+    private String accessors;
+
+    private List<Task> tasks;
+    private List<TaskResponseDto> responseDtos;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        tasks = TaskFixtures.tasks(size);
+        responseDtos = tasks.stream().map(TaskResponseDto::fromTask).collect(Collectors.toList());
+        // Same settings as the ObjectMapper Spring Boot configures for the controllers
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (accessors.equals("blackbird")) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+    }
+
+    @Benchmark
+    public List<TaskResponseDto> convertToResponseDtos() {
+        return tasks.stream().map(TaskResponseDto::fromTask).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializeResponseDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responseDtos);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.hmcts.benchmarks;
+
+import com.example.hmcts.HmctsApplication;
+import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.dto.TaskResponseDto;
+import com.example.hmcts.model.Task;
+import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.repository.TaskRepository;
+import com.example.hmcts.service.TaskBatchResult;
+import com.example.hmcts.service.TaskBatchService;
+import com.example.hmcts.service.TaskPage;
+import com.example.hmcts.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service and repository round-trips against an embedded H2 database seeded with the given number of tasks.
+ * The application context is started once per trial without the web layer.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskRepositoryBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private TaskService taskService;
+    private int[] taskIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(HmctsApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run();
+        taskRepository = context.getBean(TaskRepository.class);
+        taskService = context.getBean(TaskService.class);
+        TaskBatchService taskBatchService = context.getBean(TaskBatchService.class);
+
+        List<TaskRequestDto> requests = TaskFixtures.requests(size);
+        taskIds = new int[size];
+        int seeded = 0;
+        for (int from = 0; from < size; from += TaskBatchService.MAX_BATCH_SIZE) {
+            List<TaskRequestDto> chunk = requests.subList(from, Math.min(from + TaskBatchService.MAX_BATCH_SIZE, size));
+            for (TaskBatchResult result : taskBatchService.createTasks(chunk)) {
+                taskIds[seeded++] = result.taskId();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private int randomTaskId() {
+        return taskIds[ThreadLocalRandom.current().nextInt(taskIds.length)];
+    }
+
+    @Benchmark
+    public Optional<Task> findById() {
+        return taskRepository.findById(randomTaskId());
+    }
+
+    @Benchmark
+    public Optional<TaskResponseDto> findResponseById() {
+        return taskRepository.findResponseById(randomTaskId());
+    }
+
+    @Benchmark
+    public TaskResponseDto getTaskResponseByIdCached() {
+        return taskService.getTaskResponseById(randomTaskId());
+    }
+
+    @Benchmark
+    public TaskPage getFirstPage() {
+        return taskService.getTasks(null, null, null, null, TaskService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Task updateTaskStatus() {
+        TaskStatus status = ThreadLocalRandom.current().nextBoolean() ? TaskStatus.IN_PROGRESS : TaskStatus.TODO;
+        return taskService.updateTaskStatus(randomTaskId(), status, null);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.hmcts.benchmarks;
+
+import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.service.CoarseClock;
+import com.example.hmcts.service.TaskDataCheck;
+import com.example.hmcts.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-level validation of a task request, for a valid request and for one rejected on its last check.
+ * checkTaskData reports the result as a shared constant, as the task controller uses it; throwing
+ * turns a rejection into an exception, as the service still does for callers that have not checked.
+ * Compare their gc.alloc.rate.norm: checkTaskData allocates nothing for either request, while each
+ * thrown rejection costs an exception and its stack trace.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskValidationBenchmark {
+
+    @Param({"valid", "pastDueDate"})
+    private String request;
+
+    private TaskRequestDto taskRequestDto;
+
+    @Setup
+    public void setUp() {
+        taskRequestDto = new TaskRequestDto();
+        taskRequestDto.setTaskTitle("Benchmark Task");
+        taskRequestDto.setTaskDescription("Validated on every create and update");
+        taskRequestDto.setTaskStatus(TaskStatus.TODO);
+        taskRequestDto.setDueDateTime(request.equals("valid")
+                ? LocalDateTime.now().plusYears(1)
+                : LocalDateTime.now().minusDays(1));
+    }
+
+    @Benchmark
+    public void throwingCheck(Blackhole blackhole) {
+        try {
+            TaskDataCheck check = TaskService.checkTaskData(taskRequestDto);
+            if (!check.isValid()) {
+                throw new IllegalArgumentException(check.message());
+            }
+            blackhole.consume(true);
+        } catch (IllegalArgumentException ex) {
+            blackhole.consume(ex);
+        }
+    }
+
+    @Benchmark
+    public TaskDataCheck checkTaskData() {
+        return TaskService.checkTaskData(taskRequestDto);
+    }
+
+    /**
+     * The clock read the due date check made before it used CoarseClock, for comparison.
+     */
+    @Benchmark
+    public LocalDateTime systemClockNow() {
+        return LocalDateTime.now();
+    }
+
+    @Benchmark
+    public LocalDateTime coarseClockNow() {
+        return CoarseClock.now();
+    }
+}
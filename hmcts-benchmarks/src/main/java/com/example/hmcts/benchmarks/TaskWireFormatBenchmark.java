@@ -0,0 +1,75 @@
+package com.example.hmcts.benchmarks;
+
+import com.example.hmcts.config.WireFormatConfig;
+import com.example.hmcts.dto.TaskResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding and decoding of task list responses in each wire format the task API offers: JSON, JSON as
+ * gzipped by the server for Accept-Encoding: gzip, and CBOR. The encoded size of each is printed at the
+ * start of each trial.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskWireFormatBenchmark {
+
+    @Param({"json", "json-gzip", "cbor"})
+    private String format;
+
+    @Param({"1", "1000", "100000"})
+    private int size;
+
+    private List<TaskResponseDto> responseDtos;
+    private ObjectMapper objectMapper;
+    private ObjectReader listReader;
+    private boolean gzip;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        responseDtos = TaskFixtures.tasks(size).stream().map(TaskResponseDto::fromTask).toList();
+        // As the controllers' message converters: Spring Boot writes JSON dates as ISO-8601 strings
+        objectMapper = format.equals("cbor")
+                ? WireFormatConfig.cborObjectMapper(Jackson2ObjectMapperBuilder.json())
+                : Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        listReader = objectMapper.readerForListOf(TaskResponseDto.class);
+        gzip = format.equals("json-gzip");
+        encoded = encodeResponseDtos();
+        System.out.printf("%n%s, %d tasks: %d bytes%n", format, size, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encodeResponseDtos() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            objectMapper.writeValue(out, responseDtos);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<TaskResponseDto> decodeResponseDtos() throws IOException {
+        InputStream bytes = new ByteArrayInputStream(encoded);
+        try (InputStream in = gzip ? new GZIPInputStream(bytes) : bytes) {
+            return listReader.readValue(in);
+        }
+    }
+}
@@ -12,16 +12,34 @@ const TaskManager = () => {
   // API base URL
   const API_URL = 'http://localhost:8080/task';
 
-  // Fetch all tasks
+  // Replace the task with the same id, or append it if it is new
+  const upsertTask = (currentTasks, changedTask) => {
+    const index = currentTasks.findIndex(task => task.taskId === changedTask.taskId);
+    if (index === -1) {
+      return [...currentTasks, changedTask];
+    }
+    const nextTasks = [...currentTasks];
+    nextTasks[index] = changedTask;
+    return nextTasks;
+  };
+
+  // Fetch all tasks, following the next-page cursor until the last page
   const fetchTasks = async () => {
     setIsLoading(true);
     try {
-      const response = await fetch(API_URL);
-      if (!response.ok) {
-        throw new Error('Failed to fetch tasks');
-      }
-      const data = await response.json();
-      setTasks(data);
+      const allTasks = [];
+      let cursor = null;
+      do {
+        const url = cursor ? `${API_URL}?cursor=${encodeURIComponent(cursor)}` : API_URL;
+        const response = await fetch(url);
+        if (!response.ok) {
+          throw new Error('Failed to fetch tasks');
+        }
+        const page = await response.json();
+        allTasks.push(...page.tasks);
+        cursor = page.nextCursor;
+      } while (cursor);
+      setTasks(allTasks);
       setError(null);
     } catch (error) {
       setError('Error fetching tasks: ' + error.message);
@@ -47,7 +65,7 @@ const TaskManager = () => {
       }
       
       const newTask = await response.json();
-      setTasks([...tasks, newTask]);
+      setTasks(currentTasks => upsertTask(currentTasks, newTask));
       return true;
     } catch (error) {
       setError('Error creating task: ' + error.message);
@@ -72,9 +90,7 @@ const TaskManager = () => {
       }
       
       const updatedTask = await response.json();
-      setTasks(tasks.map(task => 
-        task.taskId === taskId ? updatedTask : task
-      ));
+      setTasks(currentTasks => upsertTask(currentTasks, updatedTask));
       return true;
     } catch (error) {
       setError('Error updating task: ' + error.message);
@@ -99,9 +115,7 @@ const TaskManager = () => {
       }
       
       const updatedTask = await response.json();
-      setTasks(tasks.map(task => 
-        task.taskId === taskId ? updatedTask : task
-      ));
+      setTasks(currentTasks => upsertTask(currentTasks, updatedTask));
       return true;
     } catch (error) {
       setError('Error updating task status: ' + error.message);
@@ -121,7 +135,7 @@ const TaskManager = () => {
         throw new Error('Failed to delete task');
       }
       
-      setTasks(tasks.filter(task => task.taskId !== taskId));
+      setTasks(currentTasks => currentTasks.filter(task => task.taskId !== taskId));
       return true;
     } catch (error) {
       setError('Error deleting task: ' + error.message);
@@ -142,9 +156,32 @@ const TaskManager = () => {
     setIsEditing(false);
   };
 
-  // Effect to load tasks on component mount
+  // Effect to load tasks on component mount, then keep them current from the change feed.
+  // Our own changes arrive on the feed too, so every update is applied as an idempotent upsert.
   useEffect(() => {
     fetchTasks();
+
+    const events = new EventSource(`${API_URL}/stream`);
+    events.onmessage = (message) => {
+      const event = JSON.parse(message.data);
+      switch (event.type) {
+        case 'CREATED':
+        case 'UPDATED':
+        case 'STATUS_CHANGED':
+          setTasks(currentTasks => upsertTask(currentTasks, event.task));
+          break;
+        case 'DELETED':
+          setTasks(currentTasks => currentTasks.filter(task => task.taskId !== event.taskId));
+          break;
+        case 'RESET':
+          // Too many changes were missed while disconnected, reload the whole list
+          fetchTasks();
+          break;
+        default:
+          break;
+      }
+    };
+    return () => events.close();
   }, []);
 
   return (
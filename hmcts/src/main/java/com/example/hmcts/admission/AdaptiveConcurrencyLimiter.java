@@ -0,0 +1,97 @@
+package com.example.hmcts.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the requests running at once, adjusting the limit from their latency.
+ * <p>
+ * Two moving averages of request latency are kept: a fast one for current conditions and a slow one
+ * as the baseline. When the fast average exceeds the baseline by more than the tolerance, requests are
+ * queueing behind the database and the limit is cut by a tenth; otherwise it grows by one whenever at
+ * least half of it is in use. After a cut, only requests admitted since then can cut it again: those
+ * already running were slowed by the old limit, and counting them would cut once per sample instead of
+ * once per round trip. Requests above the limit are refused straight away, so a slow database
+ * sheds load instead of piling up waiting threads and connections.
+ * <p>
+ * Admission is a single atomic increment. Latency samples update the averages under a lock that is
+ * only tried, so a sample that would have to wait is dropped rather than delaying the request.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double FAST_WEIGHT = 0.1;
+    private static final double BASELINE_WEIGHT = 0.01;
+    private static final double DECREASE_FACTOR = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile int limit;
+    private double fastLatency;
+    private double baselineLatency;
+    private long lastDecreaseNanos;
+    private boolean decreased;
+
+    public AdaptiveConcurrencyLimiter(AdmissionProperties.Concurrency concurrency) {
+        this.minLimit = concurrency.minLimit();
+        this.maxLimit = concurrency.maxLimit();
+        this.latencyTolerance = concurrency.latencyTolerance();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, concurrency.initialLimit()));
+    }
+
+    /**
+     * Admits a request if fewer than the limit are running. Every admitted request must be followed by
+     * {@link #release(long)}.
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Ends an admitted request and records how long it took.
+     */
+    public void release(long latencyNanos) {
+        release(latencyNanos, System.nanoTime());
+    }
+
+    void release(long latencyNanos, long now) {
+        int running = inFlight.getAndDecrement();
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            if (baselineLatency == 0) {
+                fastLatency = latencyNanos;
+                baselineLatency = latencyNanos;
+                return;
+            }
+            fastLatency += FAST_WEIGHT * (latencyNanos - fastLatency);
+            baselineLatency += BASELINE_WEIGHT * (latencyNanos - baselineLatency);
+            if (fastLatency > baselineLatency * latencyTolerance) {
+                if (!decreased || now - latencyNanos - lastDecreaseNanos >= 0) {
+                    limit = Math.max(minLimit, (int) (limit * DECREASE_FACTOR));
+                    lastDecreaseNanos = now;
+                    decreased = true;
+                }
+            } else if (running * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
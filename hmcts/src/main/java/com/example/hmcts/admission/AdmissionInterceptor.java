@@ -0,0 +1,96 @@
+package com.example.hmcts.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the task API. A request is first charged to its client's rate limit and
+ * refused with 429 (Too Many Requests) when the client is over it; it then needs a slot under the
+ * adaptive concurrency limit and is refused with 503 (Service Unavailable) when the service is
+ * saturated. Both carry Retry-After. Refusals are counted in tasks.admission.rejected by reason and
+ * endpoint.
+ */
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String STARTED_AT = AdmissionInterceptor.class.getName() + ".startedAt";
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final AdmissionProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionInterceptor(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        String endpoint = endpoint(request);
+        long now = System.nanoTime();
+        long waitNanos = rateLimiter.tryAcquire(clientId(request), endpoint, now);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds, "Rate limit exceeded", "rate_limit", endpoint);
+            return false;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, Math.max(1, properties.concurrency().retryAfter().toSeconds()),
+                    "Service is overloaded", "concurrency", endpoint);
+            return false;
+        }
+        request.setAttribute(STARTED_AT, now);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(STARTED_AT) instanceof Long startedAt) {
+            request.removeAttribute(STARTED_AT);
+            concurrencyLimiter.release(System.nanoTime() - startedAt);
+        }
+    }
+
+    /**
+     * Identifies the client a request is charged to. The header is only trusted when it carries an issued
+     * key: taken as given, rotating made-up keys would reset a client's limit and flood the bucket cache.
+     */
+    private String clientId(HttpServletRequest request) {
+        String apiKey = request.getHeader(properties.clientHeader());
+        return apiKey != null && properties.apiKeys().contains(apiKey) ? "key:" + apiKey : request.getRemoteAddr();
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + ' ' + (pattern == null ? request.getRequestURI() : pattern);
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message,
+                        String reason, String endpoint) throws IOException {
+        Counter.builder("tasks.admission.rejected")
+                .description("Task API requests refused by admission control")
+                .tag("reason", reason)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(message);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.hmcts.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings under hmcts.admission. Endpoint limits are keyed by method and mapping pattern, such as
+ * "GET /task" or "GET /task/{taskId}"; endpoints without their own limit share the default one.
+ *
+ * @param clientHeader the header carrying a client's API key
+ * @param apiKeys the API keys issued to clients; a request presenting one is limited as that client, any other
+ *                request by its remote address, so a client cannot escape its limit by making up keys
+ * @param maxClients the number of client buckets kept, least recently used dropped first
+ * @param defaultLimit the rate limit for endpoints not listed in endpoints
+ * @param endpoints rate limits for individual endpoints
+ * @param concurrency the adaptive limit on requests running at once
+ */
+@ConfigurationProperties("hmcts.admission")
+public record AdmissionProperties(@DefaultValue("X-Api-Key") String clientHeader,
+                                  Set<String> apiKeys,
+                                  @DefaultValue("10000") int maxClients,
+                                  @DefaultValue RateLimit defaultLimit,
+                                  Map<String, RateLimit> endpoints,
+                                  @DefaultValue Concurrency concurrency) {
+
+    public AdmissionProperties {
+        apiKeys = apiKeys == null ? Set.of() : Set.copyOf(apiKeys);
+        endpoints = endpoints == null ? Map.of() : Map.copyOf(endpoints);
+    }
+
+    /**
+     * A token bucket: bursts of up to capacity requests, refilled at refillPerSecond.
+     */
+    public record RateLimit(@DefaultValue("200") long capacity,
+                            @DefaultValue("100") double refillPerSecond) {
+    }
+
+    /**
+     * @param initialLimit the limit before any latency has been measured
+     * @param minLimit the limit is never lowered below this
+     * @param maxLimit the limit is never raised above this
+     * @param latencyTolerance how many times the baseline latency recent requests may take before the limit is lowered
+     * @param retryAfter the Retry-After sent with a 503
+     */
+    public record Concurrency(@DefaultValue("20") int initialLimit,
+                              @DefaultValue("5") int minLimit,
+                              @DefaultValue("200") int maxLimit,
+                              @DefaultValue("2.0") double latencyTolerance,
+                              @DefaultValue("1s") Duration retryAfter) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.hmcts.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * One {@link TokenBucket} per client and rate-limited endpoint. Buckets live in a size-bounded cache,
+ * so a flood of distinct clients evicts idle buckets rather than growing memory; an evicted client
+ * starts again with a full bucket.
+ */
+public class ClientRateLimiter {
+
+    private final AdmissionProperties properties;
+    private final Cache<String, TokenBucket> buckets;
+
+    public ClientRateLimiter(AdmissionProperties properties) {
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    /**
+     * Takes a token from the client's bucket for the endpoint.
+     *
+     * @param clientId the client making the request
+     * @param endpoint the method and mapping pattern of the request
+     * @return 0 if the request is admitted, otherwise the nanoseconds until it would be
+     */
+    public long tryAcquire(String clientId, String endpoint, long nowNanos) {
+        AdmissionProperties.RateLimit endpointLimit = properties.endpoints().get(endpoint);
+        AdmissionProperties.RateLimit limit = endpointLimit == null ? properties.defaultLimit() : endpointLimit;
+        // Endpoints without their own limit share one bucket per client
+        String key = endpointLimit == null ? clientId : clientId + ' ' + endpoint;
+        return buckets.get(key, ignored -> new TokenBucket(limit.capacity(), limit.refillPerSecond(), nowNanos))
+                .tryConsume(nowNanos);
+    }
+}
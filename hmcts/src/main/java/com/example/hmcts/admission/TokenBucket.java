@@ -0,0 +1,46 @@
+package com.example.hmcts.admission;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token bucket updated with compare-and-set, so concurrent requests from one client never block on
+ * each other. Tokens are refilled lazily from the time elapsed since the last update.
+ */
+final class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final double capacity;
+    private final double refillPerSecond;
+    private final AtomicReference<State> state;
+
+    private record State(double tokens, long updatedAtNanos) {
+    }
+
+    TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be
+     */
+    long tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            // Another thread may have updated the bucket with a slightly later clock reading
+            long elapsed = Math.max(0, nowNanos - current.updatedAtNanos());
+            double tokens = Math.min(capacity, current.tokens() + elapsed * refillPerSecond / NANOS_PER_SECOND);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) * NANOS_PER_SECOND / refillPerSecond);
+            }
+            State next = new State(tokens - 1, Math.max(nowNanos, current.updatedAtNanos()));
+            if (state.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.hmcts.config;
+
+import com.example.hmcts.admission.AdaptiveConcurrencyLimiter;
+import com.example.hmcts.admission.AdmissionInterceptor;
+import com.example.hmcts.admission.AdmissionProperties;
+import com.example.hmcts.admission.ClientRateLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Applies rate limiting and adaptive concurrency limiting to the task API when hmcts.admission.enabled is set.
+ * The event stream and export are left out: they hold their request open for as long as the client
+ * reads, which says nothing about database latency.
+ */
+@Configuration
+@ConditionalOnProperty(name = "hmcts.admission.enabled", havingValue = "true")
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private final AdmissionInterceptor admissionInterceptor;
+
+    public AdmissionConfig(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(properties.concurrency());
+        Gauge.builder("tasks.admission.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Requests the task API currently admits at once")
+                .register(meterRegistry);
+        Gauge.builder("tasks.admission.concurrency.in.flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Task API requests currently running")
+                .register(meterRegistry);
+        this.admissionInterceptor = new AdmissionInterceptor(new ClientRateLimiter(properties), concurrencyLimiter,
+                properties, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor)
+                .addPathPatterns("/task", "/task/**")
+                .excludePathPatterns("/task/stream", "/task/export");
+    }
+}
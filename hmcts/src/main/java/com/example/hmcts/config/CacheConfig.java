@@ -0,0 +1,31 @@
+package com.example.hmcts.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process cache of task responses keyed by task id.
+ * Entries are bounded by size and expire after a TTL; puts and evictions issued inside a transaction
+ * are deferred until it commits so readers never cache uncommitted state.
+ * Hit, miss and eviction counts are published as the cache.gets and cache.evictions actuator metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String TASKS_CACHE = "tasks";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${hmcts.cache.tasks.spec:maximumSize=10000,expireAfterWrite=10m}") String spec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(TASKS_CACHE);
+        cacheManager.setCaffeine(Caffeine.from(spec).recordStats());
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
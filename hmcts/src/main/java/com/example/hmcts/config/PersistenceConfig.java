@@ -0,0 +1,25 @@
+package com.example.hmcts.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate settings for JDBC statement batching.
+ * On MySQL, also add rewriteBatchedStatements=true to the JDBC URL so batches go out as multi-row statements.
+ */
+@Configuration
+public class PersistenceConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer(
+            @Value("${hmcts.jdbc.batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.hmcts.config;
+
+import com.example.hmcts.datasource.ReadReplicaProperties;
+import com.example.hmcts.datasource.ReplicaRoutingDataSource;
+import com.example.hmcts.datasource.ReplicaRoutingDataSource.Replica;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends read-only transactions to read replicas when hmcts.read-replicas.enabled is set; everything
+ * else stays on the primary configured under spring.datasource.
+ * <p>
+ * The data source handed to JPA defers taking a connection until the first statement, by which time
+ * the transaction has marked it read-only or not, and takes read-only connections from the
+ * {@link ReplicaRoutingDataSource}.
+ * <p>
+ * Under open-in-view a request keeps the first connection it takes for its whole length. Each task
+ * endpoint makes a single service call, so that connection always matches the call's transaction.
+ */
+@Configuration
+@ConditionalOnProperty(name = "hmcts.read-replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             ReadReplicaProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        List<Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.urls().size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(properties.urls().get(i));
+            pool.setUsername(properties.username() != null
+                    ? properties.username() : dataSourceProperties.determineUsername());
+            pool.setPassword(properties.password() != null
+                    ? properties.password() : dataSourceProperties.determinePassword());
+            pool.setMaximumPoolSize(properties.maximumPoolSize());
+            pool.setConnectionTimeout(properties.connectionTimeout().toMillis());
+            pool.setReadOnly(true);
+            // Start even with a replica down; it is put in turn once a check reaches it
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new Replica(pool.getPoolName(), pool));
+        }
+
+        for (Replica replica : replicas) {
+            TimeGauge.builder("tasks.replica.lag", replica, TimeUnit.MILLISECONDS,
+                            measured -> measured.getLagMillis() < 0 ? Double.NaN : measured.getLagMillis())
+                    .description("How far the replica was behind the primary at its last check")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+            Gauge.builder("tasks.replica.healthy", replica, measured -> measured.isHealthy() ? 1 : 0)
+                    .description("Whether the replica is serving read-only transactions")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.maxLag(), Clock.systemUTC());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.hmcts.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as the overdue task sweeper.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
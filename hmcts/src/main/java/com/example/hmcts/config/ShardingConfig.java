@@ -0,0 +1,132 @@
+package com.example.hmcts.config;
+
+import com.example.hmcts.repository.TaskCurrentStatusRepository;
+import com.example.hmcts.repository.TaskOutboxRepository;
+import com.example.hmcts.repository.TaskRepository;
+import com.example.hmcts.repository.TaskShardBucketRepository;
+import com.example.hmcts.repository.TaskStatusTransitionRepository;
+import com.example.hmcts.shard.ShardRoutingDataSource;
+import com.example.hmcts.shard.ShardSchemaIntegrator;
+import com.example.hmcts.shard.ShardingProperties;
+import com.example.hmcts.shard.TaskShardMap;
+import com.example.hmcts.shard.TaskShardRebalancer;
+import com.example.hmcts.shard.TaskShardsEndpoint;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spreads tasks, with their status history and outbox messages, over several databases when
+ * hmcts.sharding.enabled is set. The home shard, shard 0, is the database under spring.datasource and
+ * also keeps everything not split by task; the databases under hmcts.sharding.shards are shards 1 onwards.
+ * <p>
+ * The data source handed to JPA defers taking a connection until the first statement, by which time
+ * the service has chosen the transaction's shard. Open-in-view would keep one connection for a whole
+ * request across the transactions of several shards, so it must be turned off.
+ */
+@Configuration
+@ConditionalOnProperty(name = "hmcts.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    public ShardingConfig(Environment environment) {
+        if (environment.getProperty("hmcts.read-replicas.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("hmcts.sharding and hmcts.read-replicas cannot both be enabled");
+        }
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("hmcts.sharding needs spring.jpa.open-in-view=false");
+        }
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource homeDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource homeDataSource,
+                                                         DataSourceProperties dataSourceProperties,
+                                                         ShardingProperties properties,
+                                                         MeterRegistry meterRegistry) {
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(homeDataSource);
+        for (int i = 0; i < properties.shards().size(); i++) {
+            ShardingProperties.Shard shard = properties.shards().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("shard-" + (i + 1));
+            pool.setJdbcUrl(shard.url());
+            pool.setUsername(shard.username() != null ? shard.username() : dataSourceProperties.determineUsername());
+            pool.setPassword(shard.password() != null ? shard.password() : dataSourceProperties.determinePassword());
+            pool.setMaximumPoolSize(properties.maximumPoolSize());
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            shards.add(pool);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaCustomizer(ShardingProperties properties) {
+        int shardCount = properties.shards().size() + 1;
+        return hibernateProperties -> hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(new ShardSchemaIntegrator(shardCount)));
+    }
+
+    @Bean
+    public TaskShardMap taskShardMap(TaskShardBucketRepository bucketRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     ShardingProperties properties,
+                                     MeterRegistry meterRegistry) {
+        TaskShardMap shardMap = new TaskShardMap(bucketRepository, transactionManager,
+                properties.shards().size() + 1, properties.buckets());
+        for (int shard = 0; shard <= properties.shards().size(); shard++) {
+            int measured = shard;
+            Gauge.builder("tasks.shard.buckets", shardMap, map -> map.bucketCounts()[measured])
+                    .description("Task id buckets owned by the shard")
+                    .tag("shard", String.valueOf(shard))
+                    .register(meterRegistry);
+        }
+        return shardMap;
+    }
+
+    @Bean
+    public TaskShardRebalancer taskShardRebalancer(TaskShardMap taskShardMap,
+                                                   TaskShardBucketRepository bucketRepository,
+                                                   TaskRepository taskRepository,
+                                                   TaskStatusTransitionRepository transitionRepository,
+                                                   TaskCurrentStatusRepository currentStatusRepository,
+                                                   TaskOutboxRepository outboxRepository,
+                                                   PlatformTransactionManager transactionManager) {
+        return new TaskShardRebalancer(taskShardMap, bucketRepository, taskRepository, transitionRepository,
+                currentStatusRepository, outboxRepository, transactionManager);
+    }
+
+    @Bean
+    public TaskShardsEndpoint taskShardsEndpoint(TaskShardMap taskShardMap, TaskShardRebalancer taskShardRebalancer) {
+        return new TaskShardsEndpoint(taskShardMap, taskShardRebalancer);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.hmcts.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * CBOR as a binary alternative to JSON on the task API, for server-to-server clients pulling large task
+ * lists. Requests sent with Content-Type application/cbor and responses asked for with Accept
+ * application/cbor carry the same fields as the JSON, except that dates and times are written as numbers
+ * rather than ISO-8601 strings: LocalDateTime as [year, month, day, hour, minute, second, nanos] with
+ * trailing zeros left off, Instant as epoch seconds with a fraction.
+ * <p>
+ * Both formats read and write DTO properties through accessors generated at startup rather than
+ * reflection, which also keeps primitive fields such as taskId from being boxed on every write.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    public static final String APPLICATION_CBOR_SEQ_VALUE = "application/cbor-seq";
+    public static final MediaType APPLICATION_CBOR_SEQ = MediaType.parseMediaType(APPLICATION_CBOR_SEQ_VALUE);
+
+    /**
+     * Picked up by Spring Boot for the JSON ObjectMapper, and by the CBOR one through the shared builder.
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Replaces the CBOR converter Spring MVC adds by default, which does not pick up the spring.jackson
+     * settings and modules applied to the JSON ObjectMapper.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(cborObjectMapper(builder));
+    }
+
+    public static ObjectMapper cborObjectMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
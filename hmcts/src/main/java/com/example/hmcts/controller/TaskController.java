@@ -1,48 +1,154 @@
 package com.example.hmcts.controller;
 
+import com.example.hmcts.config.WireFormatConfig;
+import com.example.hmcts.dto.TaskBatchResultDto;
+import com.example.hmcts.dto.TaskHistoryPageDto;
+import com.example.hmcts.dto.TaskPageDto;
 import com.example.hmcts.dto.TaskRequestDto;
 import com.example.hmcts.dto.TaskResponseDto;
+import com.example.hmcts.dto.TaskStatsDto;
+import com.example.hmcts.dto.TaskStatusUpdateDto;
+import com.example.hmcts.event.TaskEventBroadcaster;
+import com.example.hmcts.exception.IdempotencyKeyReusedException;
 import com.example.hmcts.exception.TaskNotFoundException;
+import com.example.hmcts.exception.TaskShardMovedException;
+import com.example.hmcts.exception.TaskVersionMismatchException;
+import com.example.hmcts.idempotency.IdempotencyStore;
 import com.example.hmcts.model.Task;
 import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.service.TaskBatchResult;
+import com.example.hmcts.service.TaskBatchService;
+import com.example.hmcts.service.TaskDataCheck;
+import com.example.hmcts.service.TaskHistoryPage;
+import com.example.hmcts.service.TaskHistoryService;
+import com.example.hmcts.service.TaskPage;
 import com.example.hmcts.service.TaskService;
-import jakarta.validation.Valid;
+import com.example.hmcts.service.TaskStatistics;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * REST Controller for managing tasks.
  * Provides endpoints for creating, retrieving, updating, and deleting tasks.
+ * Bodies are JSON, or CBOR for requests and responses of type application/cbor (see {@link WireFormatConfig}).
  */
 @RestController
 @RequestMapping("/task")
 public class TaskController {
 
+    private static final TypeReference<TaskResponseDto> TASK_RESPONSE_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<TaskBatchResultDto>> BATCH_RESULTS_TYPE = new TypeReference<>() {
+    };
+
     private final TaskService taskService;
+    private final TaskBatchService taskBatchService;
+    private final TaskEventBroadcaster taskEventBroadcaster;
+    private final TaskStatistics taskStatistics;
+    private final TaskHistoryService taskHistoryService;
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborObjectMapper;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskBatchService taskBatchService,
+                          TaskEventBroadcaster taskEventBroadcaster, TaskStatistics taskStatistics,
+                          TaskHistoryService taskHistoryService, IdempotencyStore idempotencyStore,
+                          ObjectMapper objectMapper, MappingJackson2CborHttpMessageConverter cborConverter) {
         this.taskService = taskService;
+        this.taskBatchService = taskBatchService;
+        this.taskEventBroadcaster = taskEventBroadcaster;
+        this.taskStatistics = taskStatistics;
+        this.taskHistoryService = taskHistoryService;
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.cborObjectMapper = cborConverter.getObjectMapper();
     }
 
     /**
-     * Creates a new task.
+     * Creates a new task. A retry sent with the same Idempotency-Key gets the original response,
+     * marked with Idempotent-Replayed, instead of creating the task again.
      *
      * @param taskRequest the task information
+     * @param idempotencyKey a client-chosen key identifying this request across retries
      * @return the created task with status 201 (Created)
      */
     @PostMapping
-    public ResponseEntity<TaskResponseDto> createTask(@Valid @RequestBody TaskRequestDto taskRequest) {
-        Task task = taskService.createTask(taskRequest);
-        TaskResponseDto responseDto = convertToResponseDto(task);
-        return new ResponseEntity<>(responseDto, HttpStatus.CREATED);
+    public ResponseEntity<?> createTask(
+            @RequestBody TaskRequestDto taskRequest,
+            @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        TaskDataCheck check = TaskService.checkTaskData(taskRequest);
+        if (!check.isValid()) {
+            return ResponseEntity.badRequest().body(check.message());
+        }
+        return idempotencyStore.execute(idempotencyKey, "create", taskRequest, TASK_RESPONSE_TYPE, () -> {
+            Task task = taskService.createTask(taskRequest, check);
+            TaskResponseDto responseDto = TaskResponseDto.fromTask(task);
+            return withValidators(ResponseEntity.status(HttpStatus.CREATED), responseDto).body(responseDto);
+        });
+    }
+
+    /**
+     * Creates many tasks in one request. Each item is validated on its own and reported
+     * with the status it would have received as a single request.
+     *
+     * A retry sent with the same Idempotency-Key gets the original results.
+     *
+     * @param taskRequests the tasks to create
+     * @param idempotencyKey a client-chosen key identifying this request across retries
+     * @return one result per item, in request order, with status 200 (OK)
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskBatchResultDto>> createTasks(
+            @RequestBody List<TaskRequestDto> taskRequests,
+            @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "create-batch", taskRequests, BATCH_RESULTS_TYPE,
+                () -> ResponseEntity.ok(convertToBatchResultDtos(taskBatchService.createTasks(taskRequests))));
+    }
+
+    /**
+     * Updates the status of many tasks in one request.
+     *
+     * @param updates the task ids and their new statuses
+     * @return one result per item, in request order, with status 200 (OK)
+     */
+    @PatchMapping("/batch/status")
+    public ResponseEntity<List<TaskBatchResultDto>> updateTaskStatuses(@RequestBody List<TaskStatusUpdateDto> updates) {
+        return ResponseEntity.ok(convertToBatchResultDtos(taskBatchService.updateTaskStatuses(updates)));
     }
 
     /**
-     * Retrieves a task by its ID.
+     * Deletes many tasks in one request.
+     *
+     * @param taskIds the IDs of the tasks to delete
+     * @return one result per item, in request order, with status 200 (OK)
+     */
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<TaskBatchResultDto>> deleteTasks(@RequestBody List<Integer> taskIds) {
+        return ResponseEntity.ok(convertToBatchResultDtos(taskBatchService.deleteTasks(taskIds)));
+    }
+
+    /**
+     * Retrieves a task by its ID. The response carries an ETag and Last-Modified, and a matching
+     * If-None-Match or If-Modified-Since is answered with 304 (Not Modified) and no body.
      *
      * @param taskId the ID of the task to retrieve
      * @return the task if found with status 200 (OK)
@@ -51,26 +157,187 @@ public class TaskController {
     @GetMapping("/{taskId}")
     public ResponseEntity<TaskResponseDto> getTaskById(@PathVariable int taskId) {
         try {
-            Task task = taskService.getTaskById(taskId);
-            TaskResponseDto responseDto = convertToResponseDto(task);
-            return ResponseEntity.ok(responseDto);
+            TaskResponseDto responseDto = taskService.getTaskResponseById(taskId);
+            return withValidators(ResponseEntity.ok(), responseDto).body(responseDto);
         } catch (TaskNotFoundException ex) {
             return ResponseEntity.notFound().build();
         }
     }
 
     /**
-     * Retrieves all tasks.
+     * Retrieves one page of tasks ordered by due date, optionally filtered by status and due date range.
      *
-     * @return list of all tasks with status 200 (OK)
+     * @param status only return tasks with this status
+     * @param dueFrom only return tasks due at or after this time
+     * @param dueTo only return tasks due before this time
+     * @param cursor the nextCursor of the previous page, omitted for the first page
+     * @param limit the maximum number of tasks to return
+     * @return the page of tasks and the cursor for the next page with status 200 (OK),
+     *         or 304 (Not Modified) when If-None-Match matches the page's ETag
      */
     @GetMapping
-    public ResponseEntity<List<TaskResponseDto>> getAllTasks() {
-        List<Task> tasks = taskService.getAllTasks();
-        List<TaskResponseDto> responseDtos = tasks.stream()
-                .map(this::convertToResponseDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responseDtos);
+    public ResponseEntity<TaskPageDto> getAllTasks(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int limit) {
+        TaskPageDto pageDto = toPageDto(taskService.getTasks(status, dueFrom, dueTo, cursor, limit));
+        return ResponseEntity.ok().eTag(TaskETags.of(pageDto)).body(pageDto);
+    }
+
+    /**
+     * Retrieves one page of the open tasks falling due within the next few hours, earliest first.
+     *
+     * @param within the number of hours ahead to look
+     * @param cursor the nextCursor of the previous page, omitted for the first page
+     * @param limit the maximum number of tasks to return
+     * @return the page of tasks due soon and the cursor for the next page with status 200 (OK)
+     */
+    @GetMapping("/due")
+    public ResponseEntity<TaskPageDto> getTasksDueWithin(
+            @RequestParam(defaultValue = "" + TaskService.DEFAULT_DUE_WITHIN_HOURS) int within,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(toPageDto(taskService.getTasksDueWithin(within, cursor, limit)));
+    }
+
+    /**
+     * Retrieves one page of the open tasks whose due date has passed, most overdue first.
+     *
+     * @param cursor the nextCursor of the previous page, omitted for the first page
+     * @param limit the maximum number of tasks to return
+     * @return the page of overdue tasks and the cursor for the next page with status 200 (OK)
+     */
+    @GetMapping("/overdue")
+    public ResponseEntity<TaskPageDto> getOverdueTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(toPageDto(taskService.getOverdueTasks(cursor, limit)));
+    }
+
+    /**
+     * Retrieves task counts per status and the number of overdue tasks, served from in-memory counters.
+     *
+     * @return the task statistics with status 200 (OK)
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStatsDto> getTaskStats() {
+        return ResponseEntity.ok(taskStatistics.getStats());
+    }
+
+    /**
+     * Searches task titles and descriptions. Each word of the query matches words starting with it,
+     * and every word must match.
+     *
+     * @param q the search words
+     * @param limit the maximum number of tasks to return
+     * @return the matching tasks, best match first, with status 200 (OK)
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskResponseDto>> searchTasks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + TaskService.DEFAULT_SEARCH_LIMIT) int limit) {
+        return ResponseEntity.ok(taskService.searchTasks(q, limit));
+    }
+
+    /**
+     * Retrieves a task's status history, oldest first. The history of a deleted task ends with a
+     * DELETED entry and can still be read.
+     *
+     * @param taskId the id of the task
+     * @param cursor the nextCursor returned with the previous page, omitted for the first page
+     * @param limit the maximum number of entries to return
+     * @return the page of status changes and the cursor for the next page with status 200 (OK)
+     */
+    @GetMapping("/{taskId}/history")
+    public ResponseEntity<TaskHistoryPageDto> getTaskHistory(
+            @PathVariable int taskId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(toPageDto(taskHistoryService.getHistory(taskId, cursor, limit)));
+    }
+
+    /**
+     * Retrieves the tasks currently in a status with how long each has been in it, longest first.
+     *
+     * @param status the status to report on
+     * @param cursor the nextCursor returned with the previous page, omitted for the first page
+     * @param limit the maximum number of tasks to return
+     * @return the page of entries into the status and the cursor for the next page with status 200 (OK)
+     */
+    @GetMapping("/time-in-status")
+    public ResponseEntity<TaskHistoryPageDto> getTimeInStatus(
+            @RequestParam TaskStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TaskService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(toPageDto(taskHistoryService.getTimeInStatus(status, cursor, limit)));
+    }
+
+    private static TaskPageDto toPageDto(TaskPage page) {
+        TaskPageDto pageDto = new TaskPageDto();
+        pageDto.setTasks(page.tasks());
+        pageDto.setNextCursor(page.nextCursor());
+        return pageDto;
+    }
+
+    private static TaskHistoryPageDto toPageDto(TaskHistoryPage page) {
+        TaskHistoryPageDto pageDto = new TaskHistoryPageDto();
+        pageDto.setTransitions(page.transitions());
+        pageDto.setNextCursor(page.nextCursor());
+        return pageDto;
+    }
+
+    /**
+     * Exports every task as newline-delimited JSON, one task per line, or, for Accept application/cbor-seq,
+     * as a CBOR sequence of one item per task.
+     * Rows are written as they are read, so memory use does not grow with the table.
+     *
+     * @param accept the media types the client accepts
+     * @return the streamed tasks with status 200 (OK)
+     */
+    @GetMapping(value = "/export",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, WireFormatConfig.APPLICATION_CBOR_SEQ_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean cbor = accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(WireFormatConfig.APPLICATION_CBOR_SEQ::equalsTypeAndSubtype);
+        ObjectMapper mapper = cbor ? cborObjectMapper : objectMapper;
+        ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // CBOR items delimit themselves, and the CBOR generator rejects a root value separator
+                if (!cbor) {
+                    generator.setRootValueSeparator(null);
+                }
+                taskService.exportTasks(task -> {
+                    try {
+                        writer.writeValue(generator, task);
+                        if (!cbor) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(cbor ? WireFormatConfig.APPLICATION_CBOR_SEQ : MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Subscribes to committed task changes as Server-Sent Events. Each event's data is a JSON object
+     * with the change type, the task id and, except for deletes, the task itself.
+     *
+     * @param lastEventId the id of the last event a reconnecting client received
+     * @return the event stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return taskEventBroadcaster.subscribe(lastEventId);
     }
 
     /**
@@ -78,16 +345,23 @@ public class TaskController {
      *
      * @param taskId the ID of the task to update
      * @param taskRequest the updated task information
+     * @param ifMatch the ETag the client last saw, if the update is conditional
      * @return the updated task with status 200 (OK)
      * @throws TaskNotFoundException if the task is not found
+     * @throws TaskVersionMismatchException if If-Match does not match the current version
      */
     @PutMapping("/{taskId}")
-    public ResponseEntity<TaskResponseDto> updateTask(
+    public ResponseEntity<?> updateTask(
             @PathVariable int taskId,
-            @Valid @RequestBody TaskRequestDto taskRequest) {
-        Task updatedTask = taskService.updateTask(taskId, taskRequest);
-        TaskResponseDto responseDto = convertToResponseDto(updatedTask);
-        return ResponseEntity.ok(responseDto);
+            @RequestBody TaskRequestDto taskRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskDataCheck check = TaskService.checkTaskData(taskRequest);
+        if (!check.isValid()) {
+            return ResponseEntity.badRequest().body(check.message());
+        }
+        Task updatedTask = taskService.updateTask(taskId, taskRequest, check, TaskETags.parseIfMatch(ifMatch));
+        TaskResponseDto responseDto = TaskResponseDto.fromTask(updatedTask);
+        return withValidators(ResponseEntity.ok(), responseDto).body(responseDto);
     }
 
     /**
@@ -95,44 +369,146 @@ public class TaskController {
      *
      * @param taskId the ID of the task to update
      * @param status the new status
+     * @param ifMatch the ETag the client last saw, if the update is conditional
      * @return the updated task with status 200 (OK)
      * @throws TaskNotFoundException if the task is not found
+     * @throws TaskVersionMismatchException if If-Match does not match the current version
      */
     @PatchMapping("/{taskId}/status")
     public ResponseEntity<TaskResponseDto> updateTaskStatus(
             @PathVariable int taskId,
-            @RequestBody TaskStatus status) {
-        Task updatedTask = taskService.updateTaskStatus(taskId, status);
-        TaskResponseDto responseDto = convertToResponseDto(updatedTask);
-        return ResponseEntity.ok(responseDto);
+            @RequestBody TaskStatus status,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Task updatedTask = taskService.updateTaskStatus(taskId, status, TaskETags.parseIfMatch(ifMatch));
+        TaskResponseDto responseDto = TaskResponseDto.fromTask(updatedTask);
+        return withValidators(ResponseEntity.ok(), responseDto).body(responseDto);
     }
 
     /**
      * Deletes a task.
      *
      * @param taskId the ID of the task to delete
+     * @param ifMatch the ETag the client last saw, if the delete is conditional
      * @return no content with status 204 (No Content)
      * @throws TaskNotFoundException if the task is not found
+     * @throws TaskVersionMismatchException if If-Match does not match the current version
      */
     @DeleteMapping("/{taskId}")
-    public ResponseEntity<Void> deleteTask(@PathVariable int taskId) {
-        taskService.deleteTask(taskId);
+    public ResponseEntity<Void> deleteTask(
+            @PathVariable int taskId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        taskService.deleteTask(taskId, TaskETags.parseIfMatch(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     /**
-     * Converts a Task entity to a TaskResponseDto.
+     * Maps invalid query parameters, such as a malformed cursor, to 400 (Bad Request).
      *
-     * @param task the task entity to convert
-     * @return the task response DTO
+     * @param ex the rejected argument
+     * @return the error message with status 400 (Bad Request)
      */
-    private TaskResponseDto convertToResponseDto(Task task) {
-        TaskResponseDto responseDto = new TaskResponseDto();
-        responseDto.setTaskId(task.getTaskId());
-        responseDto.setTaskTitle(task.getTaskTitle());
-        responseDto.setTaskDescription(task.getTaskDescription());
-        responseDto.setTaskStatus(task.getTaskStatus().toString());
-        responseDto.setDueDateTime(task.getDueDateTime());
-        return responseDto;
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    /**
+     * Maps a missing task on a write to 404 (Not Found).
+     *
+     * @param ex the missing task
+     * @return the error message with status 404 (Not Found)
+     */
+    @ExceptionHandler(TaskNotFoundException.class)
+    public ResponseEntity<String> handleTaskNotFound(TaskNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    /**
+     * Maps an Idempotency-Key reused with a different request to 422 (Unprocessable Entity).
+     *
+     * @param ex the reused key
+     * @return the error message with status 422 (Unprocessable Entity)
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<String> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        return ResponseEntity.unprocessableEntity().body(ex.getMessage());
+    }
+
+    /**
+     * Maps a failed If-Match precondition to 412 (Precondition Failed).
+     *
+     * @param ex the version mismatch
+     * @return the error message with status 412 (Precondition Failed)
+     */
+    @ExceptionHandler(TaskVersionMismatchException.class)
+    public ResponseEntity<String> handleVersionMismatch(TaskVersionMismatchException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
+    }
+
+    /**
+     * Maps a concurrent update detected by the task's version column to 409 (Conflict).
+     *
+     * @param ex the optimistic locking failure
+     * @return the error message with status 409 (Conflict)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Task was modified concurrently, reload and retry");
+    }
+
+    /**
+     * Maps a task whose shard bucket moved while the request was being served to 503 (Service Unavailable).
+     * This instance picks up the move at its next shard map refresh, so the client is asked to retry shortly.
+     *
+     * @param ex the moved bucket
+     * @return the error message with status 503 (Service Unavailable)
+     */
+    @ExceptionHandler(TaskShardMovedException.class)
+    public ResponseEntity<String> handleShardMoved(TaskShardMovedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Adds the ETag and Last-Modified validators of a task to a response.
+     *
+     * @param builder the response being built
+     * @param responseDto the task in the response
+     * @return the builder with validator headers set
+     */
+    private ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, TaskResponseDto responseDto) {
+        builder.eTag(TaskETags.of(responseDto));
+        if (responseDto.getLastModified() != null) {
+            builder.lastModified(responseDto.getLastModified());
+        }
+        return builder;
+    }
+
+    /**
+     * Converts batch results to DTOs, mapping each outcome to the HTTP status of the equivalent single request.
+     *
+     * @param results the batch results
+     * @return the batch result DTOs
+     */
+    private List<TaskBatchResultDto> convertToBatchResultDtos(List<TaskBatchResult> results) {
+        List<TaskBatchResultDto> responseDtos = new ArrayList<>(results.size());
+        for (TaskBatchResult result : results) {
+            TaskBatchResultDto responseDto = new TaskBatchResultDto();
+            responseDto.setIndex(result.index());
+            responseDto.setStatus(switch (result.outcome()) {
+                case CREATED -> HttpStatus.CREATED.value();
+                case UPDATED -> HttpStatus.OK.value();
+                case DELETED -> HttpStatus.NO_CONTENT.value();
+                case INVALID -> HttpStatus.BAD_REQUEST.value();
+                case NOT_FOUND -> HttpStatus.NOT_FOUND.value();
+                case FAILED -> HttpStatus.INTERNAL_SERVER_ERROR.value();
+            });
+            responseDto.setTaskId(result.taskId());
+            responseDto.setTask(result.task() == null ? null : TaskResponseDto.fromTask(result.task()));
+            responseDto.setError(result.error());
+            responseDtos.add(responseDto);
+        }
+        return responseDtos;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package com.example.hmcts.controller;
+
+import com.example.hmcts.dto.TaskPageDto;
+import com.example.hmcts.dto.TaskResponseDto;
+import com.example.hmcts.exception.TaskVersionMismatchException;
+import org.springframework.util.DigestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Strong entity tags derived from task versions, so conditional requests can be answered
+ * without serialising the response body.
+ */
+final class TaskETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private TaskETags() {
+    }
+
+    /**
+     * The tag of a single task is its quoted version number.
+     */
+    static String of(TaskResponseDto task) {
+        return "\"" + task.getVersion() + "\"";
+    }
+
+    /**
+     * The tag of a page is a digest of the (id, version) pairs it contains and its next cursor,
+     * so it changes whenever a listed task changes or the page membership shifts.
+     */
+    static String of(TaskPageDto page) {
+        byte[] cursor = page.getNextCursor() == null
+                ? new byte[0] : page.getNextCursor().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(page.getTasks().size() * (Integer.BYTES + Long.BYTES) + cursor.length);
+        for (TaskResponseDto task : page.getTasks()) {
+            buffer.putInt(task.getTaskId()).putLong(task.getVersion());
+        }
+        buffer.put(cursor);
+        return "\"" + DigestUtils.md5DigestAsHex(buffer.array()) + "\"";
+    }
+
+    /**
+     * Parses an If-Match header into the version the client expects.
+     *
+     * @param ifMatch the header value, may be null
+     * @return the expected version, or null when the header is absent or "*"
+     * @throws TaskVersionMismatchException if the tag is weak or not a version tag, as it can never match
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith(WEAK_PREFIX)) {
+            throw new TaskVersionMismatchException("Weak entity tags cannot be used with If-Match: " + tag);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException ex) {
+            throw new TaskVersionMismatchException("Entity tag does not match any task version: " + tag);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.hmcts.controller;
+
+import com.example.hmcts.dto.TaskIngestStatusDto;
+import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.exception.TaskIngestQueueFullException;
+import com.example.hmcts.service.TaskIngestQueue;
+import com.example.hmcts.service.TaskIngestStatus;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+/**
+ * Asynchronous task creation, available when hmcts.ingest.enabled=true.
+ */
+@RestController
+@RequestMapping("/task/async")
+@ConditionalOnProperty(name = "hmcts.ingest.enabled", havingValue = "true")
+public class TaskIngestController {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final TaskIngestQueue taskIngestQueue;
+
+    public TaskIngestController(TaskIngestQueue taskIngestQueue) {
+        this.taskIngestQueue = taskIngestQueue;
+    }
+
+    /**
+     * Accepts a task for creation in the background.
+     *
+     * @param taskRequest the task information
+     * @return the tracking id with status 202 (Accepted) and the URL to poll in the Location header
+     */
+    @PostMapping
+    public ResponseEntity<TaskIngestStatusDto> submitTask(@Valid @RequestBody TaskRequestDto taskRequest) {
+        String trackingId = taskIngestQueue.submit(taskRequest);
+        TaskIngestStatusDto statusDto = new TaskIngestStatusDto();
+        statusDto.setTrackingId(trackingId);
+        statusDto.setStatus(TaskIngestStatus.State.QUEUED.name());
+        return ResponseEntity.accepted()
+                .location(URI.create("/task/async/" + trackingId))
+                .body(statusDto);
+    }
+
+    /**
+     * Reports the progress of a task submitted with {@link #submitTask}.
+     *
+     * @param trackingId the tracking id returned on submission
+     * @return the status, with the task id once created, with status 200 (OK),
+     *         or 404 (Not Found) if the tracking id is unknown or has expired
+     */
+    @GetMapping("/{trackingId}")
+    public ResponseEntity<TaskIngestStatusDto> getStatus(@PathVariable String trackingId) {
+        return taskIngestQueue.getStatus(trackingId)
+                .map(status -> {
+                    TaskIngestStatusDto statusDto = new TaskIngestStatusDto();
+                    statusDto.setTrackingId(trackingId);
+                    statusDto.setStatus(status.state().name());
+                    statusDto.setTaskId(status.taskId());
+                    statusDto.setError(status.error());
+                    return ResponseEntity.ok(statusDto);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Maps a task that fails validation to 400 (Bad Request).
+     *
+     * @param ex the rejected argument
+     * @return the error message with status 400 (Bad Request)
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    /**
+     * Maps a full ingest queue to 429 (Too Many Requests) so producers back off.
+     *
+     * @param ex the rejected submission
+     * @return the error message with status 429 and a Retry-After header
+     */
+    @ExceptionHandler(TaskIngestQueueFullException.class)
+    public ResponseEntity<String> handleQueueFull(TaskIngestQueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(ex.getMessage());
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.hmcts.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings under hmcts.read-replicas.
+ *
+ * @param urls the JDBC URL of each replica
+ * @param username the replica user, the primary's when not set
+ * @param password the replica password, the primary's when not set
+ * @param maximumPoolSize the connection pool size of each replica
+ * @param connectionTimeout how long a read waits for a replica connection before falling back to the primary
+ * @param maxLag how far behind the primary a replica may be and still serve reads
+ */
+@ConfigurationProperties("hmcts.read-replicas")
+public record ReadReplicaProperties(List<String> urls,
+                                    String username,
+                                    String password,
+                                    @DefaultValue("10") int maximumPoolSize,
+                                    @DefaultValue("1s") Duration connectionTimeout,
+                                    @DefaultValue("2s") Duration maxLag) {
+
+    public ReadReplicaProperties {
+        urls = urls == null ? List.of() : List.copyOf(urls);
+    }
+}
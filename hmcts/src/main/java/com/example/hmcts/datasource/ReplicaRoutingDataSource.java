@@ -0,0 +1,166 @@
+package com.example.hmcts.datasource;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The data source read-only transactions take their connections from: the read replicas in turn,
+ * or the primary when no replica is fit to serve.
+ * <p>
+ * A replica is fit when its last check reached it and found it no further behind the primary than the
+ * maximum lag. {@link #checkReplicas()} measures the lag with a heartbeat row: it writes the current
+ * time to the primary, then reads the row back from each replica, which sees the new value once
+ * replication has caught up. The lag is therefore known to within one check interval. Replicas are
+ * unfit until their first check, and a replica that refuses a connection is taken out of turn at once
+ * rather than at the next check.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    static final String HEARTBEAT_TABLE = "replication_heartbeat";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final Clock clock;
+    private final JdbcTemplate primaryJdbc;
+    private final AtomicInteger next = new AtomicInteger();
+    // Only touched by the scheduled check
+    private boolean heartbeatTableCreated;
+
+    /**
+     * A replica and what its last check found.
+     */
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbc;
+        private volatile boolean healthy;
+        private volatile long lagMillis = -1;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbc = new JdbcTemplate(dataSource);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        /**
+         * How far behind the primary the replica was at its last check, or -1 if it could not be read.
+         */
+        public long getLagMillis() {
+            return lagMillis;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, Duration maxLag, Clock clock) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMillis = maxLag.toMillis();
+        this.clock = clock;
+        this.primaryJdbc = new JdbcTemplate(primary);
+        // A replica slower to answer than it is allowed to lag is unfit anyway
+        int checkTimeoutSeconds = (int) Math.max(1, maxLag.toSeconds());
+        this.replicas.forEach(replica -> replica.jdbc.setQueryTimeout(checkTimeoutSeconds));
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(ConnectionSource source) throws SQLException {
+        int start = replicas.isEmpty() ? 0 : Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return source.connect(replica.dataSource);
+            } catch (SQLException ex) {
+                replica.healthy = false;
+            }
+        }
+        return source.connect(primary);
+    }
+
+    /**
+     * Writes a heartbeat to the primary and re-measures every replica's lag against it. A failed
+     * heartbeat write is rethrown once the replicas have been checked; their lag then grows from
+     * the last heartbeat they saw until they drop out of turn.
+     */
+    @Scheduled(fixedDelayString = "${hmcts.read-replicas.check-interval:PT1S}")
+    public void checkReplicas() {
+        try {
+            writeHeartbeat(clock.millis());
+        } finally {
+            replicas.forEach(this::check);
+        }
+    }
+
+    private void writeHeartbeat(long now) {
+        if (!heartbeatTableCreated) {
+            primaryJdbc.execute("CREATE TABLE IF NOT EXISTS " + HEARTBEAT_TABLE
+                    + " (id INT NOT NULL PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+            heartbeatTableCreated = true;
+        }
+        if (primaryJdbc.update("UPDATE " + HEARTBEAT_TABLE + " SET beat_millis = ? WHERE id = 1", now) == 0) {
+            primaryJdbc.update("INSERT INTO " + HEARTBEAT_TABLE + " (id, beat_millis) VALUES (1, ?)", now);
+        }
+    }
+
+    private void check(Replica replica) {
+        try {
+            Long beat = replica.jdbc.queryForObject(
+                    "SELECT beat_millis FROM " + HEARTBEAT_TABLE + " WHERE id = 1", Long.class);
+            long lag = Math.max(0, clock.millis() - beat);
+            replica.lagMillis = lag;
+            replica.healthy = lag <= maxLagMillis;
+        } catch (DataAccessException ex) {
+            // Unreachable, or the heartbeat has not replicated yet
+            replica.lagMillis = -1;
+            replica.healthy = false;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.hmcts.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskBatchResultDto {
+    private int index;
+    private int status;
+    private Integer taskId;
+    private TaskResponseDto task;
+    private String error;
+
+}
@@ -0,0 +1,26 @@
+package com.example.hmcts.dto;
+
+import com.example.hmcts.event.TaskChangedEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskEventDto {
+    private String type;
+    private Integer taskId;
+    private TaskResponseDto task;
+
+    public static TaskEventDto from(TaskChangedEvent change) {
+        TaskEventDto eventDto = new TaskEventDto();
+        eventDto.setType(change.type().name());
+        eventDto.setTaskId(change.taskId());
+        if (change.type() != TaskChangedEvent.Type.DELETED) {
+            eventDto.setTask(TaskResponseDto.fromTask(change.task()));
+        }
+        return eventDto;
+    }
+
+}
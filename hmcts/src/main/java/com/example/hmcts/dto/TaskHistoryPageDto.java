@@ -0,0 +1,14 @@
+package com.example.hmcts.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class TaskHistoryPageDto {
+    private List<TaskTransitionDto> transitions;
+    private String nextCursor;
+
+}
@@ -0,0 +1,16 @@
+package com.example.hmcts.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskIngestStatusDto {
+    private String trackingId;
+    private String status;
+    private Integer taskId;
+    private String error;
+
+}
@@ -0,0 +1,14 @@
+package com.example.hmcts.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class TaskPageDto {
+    private List<TaskResponseDto> tasks;
+    private String nextCursor;
+
+}
@@ -1,12 +1,18 @@
 package com.example.hmcts.dto;
 
+import com.example.hmcts.model.Task;
+import com.example.hmcts.model.TaskStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 @Setter
 @Getter
+@NoArgsConstructor
 public class TaskResponseDto {
     private int taskId;
     private String taskTitle;
@@ -14,4 +20,36 @@ public class TaskResponseDto {
     private String taskStatus;
     private LocalDateTime dueDateTime;
 
+    // Carried for ETag and Last-Modified headers rather than the body
+    @JsonIgnore
+    private long version;
+    @JsonIgnore
+    private Instant lastModified;
+
+    /**
+     * Constructor used by the repository's projection queries, which select straight into this DTO
+     * without materialising Task entities. The status is kept as its enum constant's name, which is
+     * interned, so no string is built per task.
+     */
+    public TaskResponseDto(int taskId, String taskTitle, String taskDescription, TaskStatus taskStatus,
+                           LocalDateTime dueDateTime, long version, Instant lastModified) {
+        this.taskId = taskId;
+        this.taskTitle = taskTitle;
+        this.taskDescription = taskDescription;
+        this.taskStatus = taskStatus.name();
+        this.dueDateTime = dueDateTime;
+        this.version = version;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Converts a Task entity to a TaskResponseDto, copying its fields in a single constructor call.
+     *
+     * @param task the task entity to convert
+     * @return the task response DTO
+     */
+    public static TaskResponseDto fromTask(Task task) {
+        return new TaskResponseDto(task.getTaskId(), task.getTaskTitle(), task.getTaskDescription(),
+                task.getTaskStatus(), task.getDueDateTime(), task.getVersion(), task.getLastModified());
+    }
 }
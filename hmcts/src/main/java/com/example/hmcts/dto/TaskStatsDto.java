@@ -0,0 +1,16 @@
+package com.example.hmcts.dto;
+
+import com.example.hmcts.model.TaskStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Setter
+@Getter
+public class TaskStatsDto {
+    private Map<TaskStatus, Long> countsByStatus;
+    private long total;
+    private long overdue;
+
+}
@@ -0,0 +1,15 @@
+package com.example.hmcts.dto;
+
+import com.example.hmcts.model.TaskStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TaskStatusUpdateDto {
+
+    private int taskId;
+
+    private TaskStatus taskStatus;
+
+}
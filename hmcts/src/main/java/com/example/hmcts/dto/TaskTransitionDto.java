@@ -0,0 +1,22 @@
+package com.example.hmcts.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Setter
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskTransitionDto {
+    private int taskId;
+    // Null for the task's first entry, and when listing tasks by their current status
+    private String fromStatus;
+    // DELETED when the task was deleted
+    private String toStatus;
+    private Instant changedAt;
+    // Time spent in toStatus, up to the next entry or, for the current status, up to now; null for DELETED
+    private Long secondsInStatus;
+
+}
@@ -0,0 +1,44 @@
+package com.example.hmcts.event;
+
+import com.example.hmcts.model.Task;
+import com.example.hmcts.model.TaskStatus;
+
+/**
+ * Published by the task services inside the transaction that changes a task.
+ * Listeners should use {@code @TransactionalEventListener} so they only see committed changes;
+ * by then the task carries its flushed version and timestamp.
+ *
+ * @param type what happened to the task
+ * @param taskId the id of the changed task
+ * @param task the task after the change, null for a delete
+ * @param previousStatus the status before the change, null for a create or a delete
+ */
+public record TaskChangedEvent(Type type, int taskId, Task task, TaskStatus previousStatus) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    public static TaskChangedEvent created(Task task) {
+        return new TaskChangedEvent(Type.CREATED, task.getTaskId(), task, null);
+    }
+
+    public static TaskChangedEvent updated(Task task, TaskStatus previousStatus) {
+        return new TaskChangedEvent(Type.UPDATED, task.getTaskId(), task, previousStatus);
+    }
+
+    public static TaskChangedEvent statusChanged(Task task, TaskStatus previousStatus) {
+        return new TaskChangedEvent(Type.STATUS_CHANGED, task.getTaskId(), task, previousStatus);
+    }
+
+    /**
+     * A delete is a single DELETE statement, which on MySQL cannot return the row it removed, so only
+     * the id is known.
+     */
+    public static TaskChangedEvent deleted(int taskId) {
+        return new TaskChangedEvent(Type.DELETED, taskId, null, null);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.hmcts.event;
+
+import com.example.hmcts.dto.TaskEventDto;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes committed task changes, and OVERDUE notices from the overdue sweeper, to Server-Sent Events
+ * subscribers.
+ * <p>
+ * Recent events are kept in a bounded buffer so a reconnecting client that sends Last-Event-ID
+ * receives only what it missed. Event ids are "epoch:sequence", where the epoch identifies this
+ * process; a client whose id is from another epoch or older than the buffer gets a RESET event
+ * and should reload the task list.
+ * <p>
+ * All sends run on one background thread, so a slow client never holds up the committing request,
+ * and each subscriber sees events in order. The buffer is guarded by a ReentrantLock rather than
+ * synchronized so request handlers running on virtual threads are never pinned to their carrier.
+ */
+@Component
+public class TaskEventBroadcaster {
+
+    static final String RESET = "RESET";
+    static final String OVERDUE = "OVERDUE";
+    private static final long EMITTER_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final int bufferSize;
+    private final Deque<BufferedEvent> buffer = new ArrayDeque<>();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long sequence;
+
+    record BufferedEvent(long sequence, String id, TaskEventDto event) {
+    }
+
+    public TaskEventBroadcaster(@Value("${hmcts.events.buffer-size:1000}") int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChanged(TaskChangedEvent change) {
+        broadcast(TaskEventDto.from(change));
+    }
+
+    @EventListener
+    public void onTaskOverdue(TaskOverdueEvent overdue) {
+        TaskEventDto eventDto = new TaskEventDto();
+        eventDto.setType(OVERDUE);
+        eventDto.setTaskId(overdue.task().getTaskId());
+        eventDto.setTask(overdue.task());
+        broadcast(eventDto);
+    }
+
+    private void broadcast(TaskEventDto eventDto) {
+        lock.lock();
+        try {
+            sequence++;
+            BufferedEvent event = new BufferedEvent(sequence, epoch + ":" + sequence, eventDto);
+            buffer.addLast(event);
+            if (buffer.size() > bufferSize) {
+                buffer.removeFirst();
+            }
+            // Snapshot the subscribers now: anyone subscribing later gets this event from the buffer instead
+            List<SseEmitter> targets = List.copyOf(emitters);
+            sender.execute(() -> targets.forEach(emitter -> send(emitter, event)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registers a new subscriber, replaying buffered events after lastEventId.
+     *
+     * @param lastEventId the Last-Event-ID sent by a reconnecting client, or null
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(ex -> emitters.remove(emitter));
+
+        lock.lock();
+        try {
+            List<BufferedEvent> replay = eventsAfter(lastEventId);
+            String currentId = epoch + ":" + sequence;
+            emitters.add(emitter);
+            sender.execute(() -> {
+                if (replay == null) {
+                    TaskEventDto reset = new TaskEventDto();
+                    reset.setType(RESET);
+                    send(emitter, new BufferedEvent(-1, currentId, reset));
+                } else {
+                    replay.forEach(event -> send(emitter, event));
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+        return emitter;
+    }
+
+    /**
+     * Buffered events after the given id, or null when the client cannot be caught up from the buffer.
+     */
+    List<BufferedEvent> eventsAfter(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+        lock.lock();
+        try {
+            return bufferedEventsAfter(lastEventId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<BufferedEvent> bufferedEventsAfter(String lastEventId) {
+        int separator = lastEventId.indexOf(':');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return null;
+        }
+        long lastSequence;
+        try {
+            lastSequence = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+        long oldestAvailable = buffer.isEmpty() ? sequence + 1 : buffer.getFirst().sequence();
+        if (lastSequence > sequence || lastSequence < oldestAvailable - 1) {
+            return null;
+        }
+
+        List<BufferedEvent> missed = new ArrayList<>();
+        for (BufferedEvent event : buffer) {
+            if (event.sequence() > lastSequence) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    String currentEventId() {
+        lock.lock();
+        try {
+            return epoch + ":" + sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void send(SseEmitter emitter, BufferedEvent event) {
+        try {
+            emitter.send(SseEmitter.event().id(event.id()).data(event.event(), MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException ex) {
+            // The client has gone away; the container completes the emitter
+            emitters.remove(emitter);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+        emitters.forEach(SseEmitter::complete);
+    }
+}
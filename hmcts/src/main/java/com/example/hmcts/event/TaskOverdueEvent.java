@@ -0,0 +1,11 @@
+package com.example.hmcts.event;
+
+import com.example.hmcts.dto.TaskResponseDto;
+
+/**
+ * Published by the overdue sweeper, outside any transaction, when an open task's due date passes.
+ *
+ * @param task the task as read by the sweep that found it overdue
+ */
+public record TaskOverdueEvent(TaskResponseDto task) {
+}
@@ -0,0 +1,7 @@
+package com.example.hmcts.exception;
+
+public class TaskIngestQueueFullException extends RuntimeException {
+    public TaskIngestQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.hmcts.exception;
+
+import org.springframework.dao.TransientDataAccessException;
+
+/**
+ * Thrown when a task's bucket has moved off the shard this instance routed it to. The instance picks up
+ * the new owner at its next shard map refresh, so a retry shortly afterwards succeeds.
+ */
+public class TaskShardMovedException extends TransientDataAccessException {
+    public TaskShardMovedException(String message) {
+        super(message);
+    }
+}
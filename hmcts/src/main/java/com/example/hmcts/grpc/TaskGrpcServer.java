@@ -0,0 +1,76 @@
+package com.example.hmcts.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the gRPC services, {@link TaskGrpcService} among them, over HTTP/2 on hmcts.grpc.port,
+ * alongside the REST API on the HTTP port. Calls run on virtual threads, as the services block on
+ * the database.
+ * <p>
+ * The server starts once the application is ready. On shutdown it stops taking new calls and lets
+ * those in flight finish for up to the shutdown timeout before cancelling them.
+ */
+@Component
+@ConditionalOnProperty(name = "hmcts.grpc.enabled", havingValue = "true")
+public class TaskGrpcServer {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Server server;
+    private final Duration shutdownTimeout;
+
+    public TaskGrpcServer(List<BindableService> services,
+                          @Value("${hmcts.grpc.port:9090}") int port,
+                          @Value("${hmcts.grpc.shutdown-timeout:PT30S}") Duration shutdownTimeout) {
+        ServerBuilder<?> builder = Grpc.newServerBuilderForPort(port, InsecureServerCredentials.create())
+                .executor(executor);
+        services.forEach(builder::addService);
+        this.server = builder.build();
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            server.start();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not start the gRPC server", ex);
+        }
+    }
+
+    /**
+     * The port the server listens on, which differs from hmcts.grpc.port when that is 0.
+     */
+    public int getPort() {
+        return server.getPort();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
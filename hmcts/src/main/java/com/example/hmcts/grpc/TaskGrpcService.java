@@ -0,0 +1,418 @@
+package com.example.hmcts.grpc;
+
+import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.dto.TaskResponseDto;
+import com.example.hmcts.dto.TaskStatusUpdateDto;
+import com.example.hmcts.exception.TaskNotFoundException;
+import com.example.hmcts.exception.TaskShardMovedException;
+import com.example.hmcts.exception.TaskVersionMismatchException;
+import com.example.hmcts.grpc.v1.BatchResult;
+import com.example.hmcts.grpc.v1.BatchResults;
+import com.example.hmcts.grpc.v1.CreateTaskRequest;
+import com.example.hmcts.grpc.v1.CreateTasksRequest;
+import com.example.hmcts.grpc.v1.DeleteTaskRequest;
+import com.example.hmcts.grpc.v1.DeleteTasksRequest;
+import com.example.hmcts.grpc.v1.GetTaskHistoryRequest;
+import com.example.hmcts.grpc.v1.GetTaskRequest;
+import com.example.hmcts.grpc.v1.GetTaskStatsRequest;
+import com.example.hmcts.grpc.v1.GetTimeInStatusRequest;
+import com.example.hmcts.grpc.v1.ListDueTasksRequest;
+import com.example.hmcts.grpc.v1.ListOverdueTasksRequest;
+import com.example.hmcts.grpc.v1.ListTasksRequest;
+import com.example.hmcts.grpc.v1.SearchTasksRequest;
+import com.example.hmcts.grpc.v1.Task;
+import com.example.hmcts.grpc.v1.TaskHistoryPage;
+import com.example.hmcts.grpc.v1.TaskList;
+import com.example.hmcts.grpc.v1.TaskServiceGrpc;
+import com.example.hmcts.grpc.v1.TaskStats;
+import com.example.hmcts.grpc.v1.TaskStatusUpdate;
+import com.example.hmcts.grpc.v1.UpdateTaskRequest;
+import com.example.hmcts.grpc.v1.UpdateTaskStatusRequest;
+import com.example.hmcts.service.TaskBatchResult;
+import com.example.hmcts.service.TaskBatchService;
+import com.example.hmcts.service.TaskDataCheck;
+import com.example.hmcts.service.TaskHistoryService;
+import com.example.hmcts.service.TaskPage;
+import com.example.hmcts.service.TaskService;
+import com.example.hmcts.service.TaskStatistics;
+import com.google.protobuf.Empty;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The task API of {@link com.example.hmcts.controller.TaskController} over gRPC, served by
+ * {@link TaskGrpcServer}. Calls go to the same services, with the same validation: task bodies are
+ * checked once with {@link TaskService#checkTaskData}, as the controller checks them.
+ * Error mapping follows the controller's, with gRPC status codes in place of HTTP ones.
+ */
+@Component
+@ConditionalOnProperty(name = "hmcts.grpc.enabled", havingValue = "true")
+public class TaskGrpcService extends TaskServiceGrpc.TaskServiceImplBase {
+
+    // Streamed status updates are applied up to this many at a time, each chunk in one transaction
+    static final int STATUS_UPDATE_CHUNK_SIZE = 500;
+
+    private final TaskService taskService;
+    private final TaskBatchService taskBatchService;
+    private final TaskStatistics taskStatistics;
+    private final TaskHistoryService taskHistoryService;
+
+    public TaskGrpcService(TaskService taskService, TaskBatchService taskBatchService, TaskStatistics taskStatistics,
+                           TaskHistoryService taskHistoryService) {
+        this.taskService = taskService;
+        this.taskBatchService = taskBatchService;
+        this.taskStatistics = taskStatistics;
+        this.taskHistoryService = taskHistoryService;
+    }
+
+    @Override
+    public void createTask(CreateTaskRequest request, StreamObserver<Task> responseObserver) {
+        reply(responseObserver, () -> {
+            TaskRequestDto requestDto = TaskProtoMapper.toRequestDto(request.getTask());
+            return TaskProtoMapper.toProto(taskService.createTask(requestDto, checked(requestDto)));
+        });
+    }
+
+    @Override
+    public void getTask(GetTaskRequest request, StreamObserver<Task> responseObserver) {
+        reply(responseObserver, () -> TaskProtoMapper.toProto(taskService.getTaskResponseById(request.getTaskId())));
+    }
+
+    @Override
+    public void updateTask(UpdateTaskRequest request, StreamObserver<Task> responseObserver) {
+        reply(responseObserver, () -> {
+            TaskRequestDto requestDto = TaskProtoMapper.toRequestDto(request.getTask());
+            return TaskProtoMapper.toProto(taskService.updateTask(request.getTaskId(), requestDto, checked(requestDto),
+                    request.hasExpectedVersion() ? request.getExpectedVersion() : null));
+        });
+    }
+
+    @Override
+    public void updateTaskStatus(UpdateTaskStatusRequest request, StreamObserver<Task> responseObserver) {
+        reply(responseObserver, () -> TaskProtoMapper.toProto(taskService.updateTaskStatus(request.getTaskId(),
+                TaskProtoMapper.toModel(request.getTaskStatus()),
+                request.hasExpectedVersion() ? request.getExpectedVersion() : null)));
+    }
+
+    @Override
+    public void deleteTask(DeleteTaskRequest request, StreamObserver<Empty> responseObserver) {
+        reply(responseObserver, () -> {
+            taskService.deleteTask(request.getTaskId(), request.hasExpectedVersion() ? request.getExpectedVersion() : null);
+            return Empty.getDefaultInstance();
+        });
+    }
+
+    /**
+     * Streams the matching tasks page by page, reading the next page only once the client has taken
+     * the previous one, so a slow client holds back the reads rather than filling the server's buffers.
+     */
+    @Override
+    public void listTasks(ListTasksRequest request, StreamObserver<Task> responseObserver) {
+        ServerCallStreamObserver<Task> observer = (ServerCallStreamObserver<Task>) responseObserver;
+        TaskListStream stream;
+        try {
+            stream = new TaskListStream(observer,
+                    request.hasTaskStatus() ? TaskProtoMapper.toModel(request.getTaskStatus()) : null,
+                    request.hasDueFrom() ? TaskProtoMapper.toLocalDateTime(request.getDueFrom()) : null,
+                    request.hasDueTo() ? TaskProtoMapper.toLocalDateTime(request.getDueTo()) : null);
+        } catch (RuntimeException ex) {
+            observer.onError(toStatus(ex));
+            return;
+        }
+        observer.setOnCancelHandler(stream::cancel);
+        observer.setOnReadyHandler(stream);
+    }
+
+    @Override
+    public void listDueTasks(ListDueTasksRequest request, StreamObserver<TaskList> responseObserver) {
+        reply(responseObserver, () -> TaskProtoMapper.toTaskList(taskService.getTasksDueWithin(
+                orDefault(request.getWithinHours(), TaskService.DEFAULT_DUE_WITHIN_HOURS),
+                emptyToNull(request.getCursor()), orDefault(request.getLimit(), TaskService.DEFAULT_PAGE_SIZE))));
+    }
+
+    @Override
+    public void listOverdueTasks(ListOverdueTasksRequest request, StreamObserver<TaskList> responseObserver) {
+        reply(responseObserver, () -> TaskProtoMapper.toTaskList(taskService.getOverdueTasks(
+                emptyToNull(request.getCursor()), orDefault(request.getLimit(), TaskService.DEFAULT_PAGE_SIZE))));
+    }
+
+    @Override
+    public void searchTasks(SearchTasksRequest request, StreamObserver<TaskList> responseObserver) {
+        reply(responseObserver, () -> TaskProtoMapper.toTaskList(taskService.searchTasks(request.getQuery(),
+                orDefault(request.getLimit(), TaskService.DEFAULT_SEARCH_LIMIT))));
+    }
+
+    @Override
+    public void getTaskStats(GetTaskStatsRequest request, StreamObserver<TaskStats> responseObserver) {
+        reply(responseObserver, () -> TaskProtoMapper.toProto(taskStatistics.getStats()));
+    }
+
+    @Override
+    public void getTaskHistory(GetTaskHistoryRequest request, StreamObserver<TaskHistoryPage> responseObserver) {
+        reply(responseObserver, () -> TaskProtoMapper.toProto(taskHistoryService.getHistory(request.getTaskId(),
+                emptyToNull(request.getCursor()), orDefault(request.getLimit(), TaskService.DEFAULT_PAGE_SIZE))));
+    }
+
+    @Override
+    public void getTimeInStatus(GetTimeInStatusRequest request, StreamObserver<TaskHistoryPage> responseObserver) {
+        reply(responseObserver, () -> TaskProtoMapper.toProto(taskHistoryService.getTimeInStatus(
+                TaskProtoMapper.toModel(request.getTaskStatus()), emptyToNull(request.getCursor()),
+                orDefault(request.getLimit(), TaskService.DEFAULT_PAGE_SIZE))));
+    }
+
+    @Override
+    public void createTasks(CreateTasksRequest request, StreamObserver<BatchResults> responseObserver) {
+        reply(responseObserver, () -> TaskProtoMapper.toBatchResults(taskBatchService.createTasks(
+                request.getTasksList().stream().map(TaskProtoMapper::toRequestDto).toList())));
+    }
+
+    @Override
+    public StreamObserver<TaskStatusUpdate> updateTaskStatuses(StreamObserver<BatchResult> responseObserver) {
+        return new StatusUpdateStream((ServerCallStreamObserver<BatchResult>) responseObserver);
+    }
+
+    @Override
+    public void deleteTasks(DeleteTasksRequest request, StreamObserver<BatchResults> responseObserver) {
+        reply(responseObserver, () -> TaskProtoMapper.toBatchResults(taskBatchService.deleteTasks(request.getTaskIdsList())));
+    }
+
+    /**
+     * Maps an exception from the services to the status the client receives, as the controller's
+     * exception handlers map them to HTTP statuses.
+     */
+    static StatusRuntimeException toStatus(RuntimeException ex) {
+        Status status = switch (ex) {
+            case TaskNotFoundException notFound -> Status.NOT_FOUND.withDescription(ex.getMessage());
+            case TaskVersionMismatchException mismatch -> Status.FAILED_PRECONDITION.withDescription(ex.getMessage());
+            case OptimisticLockingFailureException conflict ->
+                    Status.ABORTED.withDescription("Task was modified concurrently, reload and retry");
+            case TaskShardMovedException moved -> Status.UNAVAILABLE.withDescription(ex.getMessage());
+            case IllegalArgumentException invalid -> Status.INVALID_ARGUMENT.withDescription(ex.getMessage());
+            case DateTimeException invalid -> Status.INVALID_ARGUMENT.withDescription(ex.getMessage());
+            default -> Status.INTERNAL.withCause(ex);
+        };
+        return status.asRuntimeException();
+    }
+
+    private static <T> void reply(StreamObserver<T> responseObserver, Supplier<T> call) {
+        T response;
+        try {
+            response = call.get();
+        } catch (RuntimeException ex) {
+            responseObserver.onError(toStatus(ex));
+            return;
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Checks a task body once, as the controller does, and returns the result for the service to accept
+     * without checking again. A rejected body fails with INVALID_ARGUMENT and the controller's 400 message.
+     */
+    private static TaskDataCheck checked(TaskRequestDto requestDto) {
+        TaskDataCheck check = TaskService.checkTaskData(requestDto);
+        if (!check.isValid()) {
+            throw new IllegalArgumentException(check.message());
+        }
+        return check;
+    }
+
+    private static int orDefault(int value, int defaultValue) {
+        return value == 0 ? defaultValue : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Sends the pages of a task list while the client is ready for more. gRPC runs the ready handler on
+     * the call's own executor, one run at a time.
+     */
+    private final class TaskListStream implements Runnable {
+
+        private final ServerCallStreamObserver<Task> observer;
+        private final com.example.hmcts.model.TaskStatus status;
+        private final LocalDateTime dueFrom;
+        private final LocalDateTime dueTo;
+        private Iterator<TaskResponseDto> page = List.<TaskResponseDto>of().iterator();
+        private String cursor;
+        private boolean lastPage;
+        private volatile boolean done;
+
+        TaskListStream(ServerCallStreamObserver<Task> observer, com.example.hmcts.model.TaskStatus status,
+                       LocalDateTime dueFrom, LocalDateTime dueTo) {
+            this.observer = observer;
+            this.status = status;
+            this.dueFrom = dueFrom;
+            this.dueTo = dueTo;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!done && observer.isReady()) {
+                    if (page.hasNext()) {
+                        observer.onNext(TaskProtoMapper.toProto(page.next()));
+                    } else if (lastPage) {
+                        done = true;
+                        observer.onCompleted();
+                    } else {
+                        TaskPage next = taskService.getTasks(status, dueFrom, dueTo, cursor, TaskService.MAX_PAGE_SIZE);
+                        page = next.tasks().iterator();
+                        cursor = next.nextCursor();
+                        lastPage = cursor == null;
+                    }
+                }
+            } catch (RuntimeException ex) {
+                done = true;
+                observer.onError(toStatus(ex));
+            }
+        }
+
+        void cancel() {
+            done = true;
+        }
+    }
+
+    /**
+     * Applies streamed status updates in chunks and answers each chunk's updates once it is applied.
+     * <p>
+     * An update arriving while no chunk is being applied starts one at once on a thread of its own, so a
+     * client sending one update at a time gets each answer straight away; updates arriving meanwhile
+     * make up the next chunk. Updates are asked of the client by hand, at most a chunk ahead, and only
+     * while it is reading the results, so a client that stops reading stops being read from.
+     * <p>
+     * gRPC calls the stream's handlers one at a time but concurrently with the applying thread, and the
+     * response observer is not thread-safe, so both touch the state and the observer under the stream's lock.
+     */
+    private final class StatusUpdateStream implements StreamObserver<TaskStatusUpdate> {
+
+        private final ServerCallStreamObserver<BatchResult> observer;
+        private List<TaskStatusUpdateDto> pending = new ArrayList<>();
+        // Position in the request stream of the first pending update
+        private int offset;
+        // Updates asked of the client and not yet received
+        private int requested;
+        private boolean applying;
+        private boolean halfClosed;
+        private boolean done;
+
+        StatusUpdateStream(ServerCallStreamObserver<BatchResult> observer) {
+            this.observer = observer;
+            observer.disableAutoRequest();
+            observer.setOnReadyHandler(this::requestMore);
+            observer.setOnCancelHandler(this::cancel);
+            requestMore();
+        }
+
+        @Override
+        public void onNext(TaskStatusUpdate update) {
+            TaskStatusUpdateDto updateDto = new TaskStatusUpdateDto();
+            updateDto.setTaskId(update.getTaskId());
+            try {
+                updateDto.setTaskStatus(TaskProtoMapper.toModel(update.getTaskStatus()));
+            } catch (IllegalArgumentException ex) {
+                // Left without a status, which the batch service reports for this item alone
+            }
+            synchronized (this) {
+                requested--;
+                if (done) {
+                    return;
+                }
+                pending.add(updateDto);
+                if (applying) {
+                    return;
+                }
+                applying = true;
+            }
+            Thread.ofVirtual().name("task-grpc-status-updates").start(this::applyPending);
+        }
+
+        @Override
+        public synchronized void onError(Throwable t) {
+            // The client went away; chunks already applied stay applied
+            done = true;
+        }
+
+        @Override
+        public synchronized void onCompleted() {
+            halfClosed = true;
+            // Otherwise the applying thread completes the call once it has answered the last updates
+            if (!applying && !done) {
+                done = true;
+                observer.onCompleted();
+            }
+        }
+
+        private synchronized void cancel() {
+            done = true;
+        }
+
+        /**
+         * Asks the client for updates up to a chunk ahead of those applied, while it is ready for results.
+         */
+        private synchronized void requestMore() {
+            int wanted = STATUS_UPDATE_CHUNK_SIZE - pending.size() - requested;
+            if (!done && !halfClosed && wanted > 0 && observer.isReady()) {
+                requested += wanted;
+                observer.request(wanted);
+            }
+        }
+
+        private void applyPending() {
+            while (true) {
+                List<TaskStatusUpdateDto> chunk;
+                int chunkOffset;
+                synchronized (this) {
+                    if (done || pending.isEmpty()) {
+                        applying = false;
+                        if (halfClosed && !done) {
+                            done = true;
+                            observer.onCompleted();
+                        }
+                        return;
+                    }
+                    chunk = pending;
+                    chunkOffset = offset;
+                    pending = new ArrayList<>();
+                    offset += chunk.size();
+                }
+
+                List<TaskBatchResult> results;
+                try {
+                    results = taskBatchService.updateTaskStatuses(chunk);
+                } catch (RuntimeException ex) {
+                    synchronized (this) {
+                        applying = false;
+                        if (!done) {
+                            done = true;
+                            observer.onError(toStatus(ex));
+                        }
+                    }
+                    return;
+                }
+
+                synchronized (this) {
+                    if (!done) {
+                        results.forEach(result -> observer.onNext(TaskProtoMapper.toProto(result, chunkOffset)));
+                        requestMore();
+                    }
+                }
+            }
+        }
+    }
+}
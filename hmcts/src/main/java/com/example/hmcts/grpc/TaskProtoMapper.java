@@ -0,0 +1,161 @@
+package com.example.hmcts.grpc;
+
+import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.dto.TaskResponseDto;
+import com.example.hmcts.dto.TaskStatsDto;
+import com.example.hmcts.dto.TaskTransitionDto;
+import com.example.hmcts.grpc.v1.BatchResult;
+import com.example.hmcts.grpc.v1.BatchResults;
+import com.example.hmcts.grpc.v1.Task;
+import com.example.hmcts.grpc.v1.TaskHistoryPage;
+import com.example.hmcts.grpc.v1.TaskInput;
+import com.example.hmcts.grpc.v1.TaskList;
+import com.example.hmcts.grpc.v1.TaskStats;
+import com.example.hmcts.grpc.v1.TaskStatus;
+import com.example.hmcts.grpc.v1.TaskTransition;
+import com.example.hmcts.service.TaskBatchResult;
+import com.example.hmcts.service.TaskPage;
+import com.google.protobuf.Timestamp;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Converts between the task API's DTOs and the gRPC messages generated from task_service.proto.
+ * Zone-less date-times travel in a Timestamp as if they were UTC.
+ */
+final class TaskProtoMapper {
+
+    private TaskProtoMapper() {
+    }
+
+    static Task toProto(TaskResponseDto task) {
+        Task.Builder message = Task.newBuilder()
+                .setTaskId(task.getTaskId())
+                .setTaskStatus(TaskStatus.valueOf(task.getTaskStatus()))
+                .setDueDateTime(toTimestamp(task.getDueDateTime()))
+                .setVersion(task.getVersion());
+        // Protobuf strings cannot be null; an absent one is left empty
+        if (task.getTaskTitle() != null) {
+            message.setTaskTitle(task.getTaskTitle());
+        }
+        if (task.getTaskDescription() != null) {
+            message.setTaskDescription(task.getTaskDescription());
+        }
+        if (task.getLastModified() != null) {
+            message.setLastModified(toTimestamp(task.getLastModified()));
+        }
+        return message.build();
+    }
+
+    static Task toProto(com.example.hmcts.model.Task task) {
+        return toProto(TaskResponseDto.fromTask(task));
+    }
+
+    static TaskList toTaskList(List<TaskResponseDto> tasks) {
+        TaskList.Builder message = TaskList.newBuilder();
+        tasks.forEach(task -> message.addTasks(toProto(task)));
+        return message.build();
+    }
+
+    static TaskList toTaskList(TaskPage page) {
+        TaskList.Builder message = toTaskList(page.tasks()).toBuilder();
+        if (page.nextCursor() != null) {
+            message.setNextCursor(page.nextCursor());
+        }
+        return message.build();
+    }
+
+    static TaskRequestDto toRequestDto(TaskInput task) {
+        TaskRequestDto requestDto = new TaskRequestDto();
+        requestDto.setTaskTitle(task.getTaskTitle());
+        requestDto.setTaskDescription(task.getTaskDescription().isEmpty() ? null : task.getTaskDescription());
+        requestDto.setTaskStatus(toModel(task.getTaskStatus()));
+        requestDto.setDueDateTime(task.hasDueDateTime() ? toLocalDateTime(task.getDueDateTime()) : null);
+        return requestDto;
+    }
+
+    /**
+     * @return the task status, or null for TASK_STATUS_UNSPECIFIED so it is rejected as a missing status
+     */
+    static com.example.hmcts.model.TaskStatus toModel(TaskStatus status) {
+        return switch (status) {
+            case TODO -> com.example.hmcts.model.TaskStatus.TODO;
+            case IN_PROGRESS -> com.example.hmcts.model.TaskStatus.IN_PROGRESS;
+            case COMPLETED -> com.example.hmcts.model.TaskStatus.COMPLETED;
+            case TASK_STATUS_UNSPECIFIED -> null;
+            case UNRECOGNIZED -> throw new IllegalArgumentException("Unknown task status");
+        };
+    }
+
+    static TaskStats toProto(TaskStatsDto stats) {
+        TaskStats.Builder message = TaskStats.newBuilder()
+                .setTotal(stats.getTotal())
+                .setOverdue(stats.getOverdue());
+        stats.getCountsByStatus().forEach((status, count) -> message.putCountsByStatus(status.name(), count));
+        return message.build();
+    }
+
+    static TaskHistoryPage toProto(com.example.hmcts.service.TaskHistoryPage page) {
+        TaskHistoryPage.Builder message = TaskHistoryPage.newBuilder();
+        for (TaskTransitionDto transition : page.transitions()) {
+            TaskTransition.Builder entry = TaskTransition.newBuilder()
+                    .setTaskId(transition.getTaskId())
+                    .setToStatus(transition.getToStatus())
+                    .setChangedAt(toTimestamp(transition.getChangedAt()));
+            if (transition.getFromStatus() != null) {
+                entry.setFromStatus(transition.getFromStatus());
+            }
+            if (transition.getSecondsInStatus() != null) {
+                entry.setSecondsInStatus(transition.getSecondsInStatus());
+            }
+            message.addTransitions(entry);
+        }
+        if (page.nextCursor() != null) {
+            message.setNextCursor(page.nextCursor());
+        }
+        return message.build();
+    }
+
+    /**
+     * @param offset added to each result's index, for results of a chunk taken from further into a stream
+     */
+    static BatchResult toProto(TaskBatchResult result, int offset) {
+        BatchResult.Builder message = BatchResult.newBuilder()
+                .setIndex(offset + result.index())
+                .setOutcome(BatchResult.Outcome.valueOf(result.outcome().name()));
+        if (result.taskId() != null) {
+            message.setTaskId(result.taskId());
+        }
+        if (result.task() != null) {
+            message.setTask(toProto(result.task()));
+        }
+        if (result.error() != null) {
+            message.setError(result.error());
+        }
+        return message.build();
+    }
+
+    static BatchResults toBatchResults(List<TaskBatchResult> results) {
+        BatchResults.Builder message = BatchResults.newBuilder();
+        results.forEach(result -> message.addResults(toProto(result, 0)));
+        return message.build();
+    }
+
+    static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return toTimestamp(dateTime.toInstant(ZoneOffset.UTC));
+    }
+
+    static Timestamp toTimestamp(Instant instant) {
+        return Timestamp.newBuilder()
+                .setSeconds(instant.getEpochSecond())
+                .setNanos(instant.getNano())
+                .build();
+    }
+
+    static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return LocalDateTime.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.hmcts.idempotency;
+
+import com.example.hmcts.exception.IdempotencyKeyReusedException;
+import com.example.hmcts.model.IdempotencyRecord;
+import com.example.hmcts.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs requests carrying an Idempotency-Key at most once per key and answers retries with the original
+ * response.
+ * <p>
+ * Successful responses are kept in a size-bounded in-memory cache that expires entries after the TTL.
+ * With hmcts.idempotency.database.enabled they are also written to the idempotency_record table, so a
+ * retry that reaches another instance, or comes after a restart, is replayed too; expired rows are
+ * purged periodically. Error responses are not kept, since nothing was written and a retry may succeed.
+ * <p>
+ * Concurrent requests with the same key in this process are coalesced: the first runs and the others
+ * wait for its outcome. Requests racing on different instances are not coalesced.
+ * A key reused with a different request body is rejected with {@link IdempotencyKeyReusedException}.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String REPLAYED = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+    private static final TypeReference<Map<String, List<String>>> HEADERS_TYPE = new TypeReference<>() {
+    };
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final boolean databaseEnabled;
+    private final Cache<String, StoredResponse> completed;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * A response kept for replay with the hash of the request that produced it.
+     */
+    private record StoredResponse(String requestHash, ResponseEntity<?> response) {
+    }
+
+    public IdempotencyStore(IdempotencyRecordRepository recordRepository, ObjectMapper objectMapper,
+                            @Value("${hmcts.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${hmcts.idempotency.maximum-size:100000}") long maximumSize,
+                            @Value("${hmcts.idempotency.database.enabled:false}") boolean databaseEnabled) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.databaseEnabled = databaseEnabled;
+        this.completed = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * Runs the action once for the key, or replays the response it returned.
+     *
+     * @param key the client's Idempotency-Key, or null to just run the action
+     * @param operation the name of the endpoint, so the same key can be used with different endpoints
+     * @param request the request body, compared with the original when a key is reused
+     * @param bodyType the type of the response body, used to read it back from the database
+     * @param action produces the response
+     * @return the action's response, or a copy of the original marked with {@link #REPLAYED}
+     * @throws IllegalArgumentException if the key is blank or too long
+     * @throws IdempotencyKeyReusedException if the key was used with a different request
+     */
+    public <T> ResponseEntity<T> execute(String key, String operation, Object request, TypeReference<T> bodyType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String scopedKey = operation + ":" + key;
+        String requestHash = hash(request);
+
+        StoredResponse stored = lookup(scopedKey, bodyType);
+        if (stored != null) {
+            return replay(stored, requestHash);
+        }
+
+        CompletableFuture<StoredResponse> outcome = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(scopedKey, outcome);
+        if (running != null) {
+            return replay(await(running), requestHash);
+        }
+        try {
+            // The request holding the key before us may have finished between the lookup and putIfAbsent
+            stored = completed.getIfPresent(scopedKey);
+            if (stored != null) {
+                outcome.complete(stored);
+                return replay(stored, requestHash);
+            }
+            ResponseEntity<T> response = action.get();
+            stored = new StoredResponse(requestHash, response);
+            if (response.getStatusCode().is2xxSuccessful()) {
+                completed.put(scopedKey, stored);
+                if (databaseEnabled) {
+                    save(scopedKey, stored);
+                }
+            }
+            outcome.complete(stored);
+            return response;
+        } catch (RuntimeException ex) {
+            outcome.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(scopedKey, outcome);
+        }
+    }
+
+    private StoredResponse lookup(String scopedKey, TypeReference<?> bodyType) {
+        StoredResponse stored = completed.getIfPresent(scopedKey);
+        if (stored != null || !databaseEnabled) {
+            return stored;
+        }
+        IdempotencyRecord record = recordRepository.findById(scopedKey)
+                .filter(found -> found.getCreatedAt().isAfter(Instant.now().minus(ttl)))
+                .orElse(null);
+        if (record == null) {
+            return null;
+        }
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(objectMapper.readValue(record.getHeaders(), HEADERS_TYPE));
+            Object body = record.getBody() == null ? null : objectMapper.readValue(record.getBody(), bodyType);
+            stored = new StoredResponse(record.getRequestHash(),
+                    new ResponseEntity<>(body, headers, HttpStatusCode.valueOf(record.getStatusCode())));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        completed.put(scopedKey, stored);
+        return stored;
+    }
+
+    private void save(String scopedKey, StoredResponse stored) {
+        ResponseEntity<?> response = stored.response();
+        try {
+            recordRepository.save(new IdempotencyRecord(scopedKey, stored.requestHash(),
+                    response.getStatusCode().value(), objectMapper.writeValueAsString(response.getHeaders()),
+                    response.hasBody() ? objectMapper.writeValueAsString(response.getBody()) : null, Instant.now()));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (DataIntegrityViolationException ex) {
+            // The record is always inserted, so this is another instance having stored a response for
+            // the key first; its response is kept and either answers a retry
+        }
+    }
+
+    private static StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException ex) {
+            // The coalesced request fails the same way as the one it waited for
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key was already used with a different request");
+        }
+        ResponseEntity<?> original = stored.response();
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(original.getHeaders());
+        headers.set(REPLAYED, "true");
+        return new ResponseEntity<>((T) original.getBody(), headers, original.getStatusCode());
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${hmcts.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        if (databaseEnabled) {
+            recordRepository.deleteCreatedBefore(Instant.now().minus(ttl));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.hmcts.model;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * The stored response to a request made with an Idempotency-Key, kept so a retry reaching another
+ * instance, or arriving after a restart, is answered with the original response.
+ */
+@Entity
+@Table(name="idempotency_record", indexes = {
+        @Index(name="idx_idempotency_created_at", columnList="created_at")
+})
+@Getter
+public class IdempotencyRecord implements Persistable<String> {
+
+    // The operation and the client's key, such as "create:3f1c..."
+    @Id
+    @Column(name="idempotency_key", length = 320)
+    private String idempotencyKey;
+
+    @Column(name="request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name="status_code", nullable = false)
+    private int statusCode;
+
+    @Lob
+    @Column(name="headers", nullable = false)
+    private String headers;
+
+    @Lob
+    @Column(name="body")
+    private String body;
+
+    @Column(name="created_at", nullable = false)
+    private Instant createdAt;
+
+    // The key is assigned, so saving a new record inserts it rather than merging over a row another
+    // instance stored for the same key
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean persisted;
+
+    protected IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String idempotencyKey, String requestHash, int statusCode, String headers, String body,
+                             Instant createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PrePersist
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -1,20 +1,27 @@
 package com.example.hmcts.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.domain.Persistable;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name="Task")
+@Table(name="Task", indexes = {
+        @Index(name="idx_task_due_datetime_id", columnList="due_datetime, task_id"),
+        @Index(name="idx_task_status_due_datetime_id", columnList="task_status, due_datetime, task_id")
+})
 @Getter
 @Setter
-public class Task {
+public class Task implements Persistable<Integer> {
 
 
+    // Assigned by TaskIdAllocator before the insert, unique across shards, which also lets Hibernate batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name="task_id")
     private int taskId;
 
@@ -28,9 +35,29 @@ public class Task {
     @Column(name="task_status")
     private TaskStatus taskStatus;
 
-    @Column(name="due_datetime")
+    // The status before the task's latest write, set by the same UPDATE, so a status change learns the
+    // status it replaced without reading the row first
+    @Enumerated(EnumType.STRING)
+    @Column(name="previous_status")
+    private TaskStatus previousStatus;
+
+    @Column(name="due_datetime", nullable = false)
     private LocalDateTime dueDateTime;
 
+    @Version
+    @Column(name="version", nullable = false)
+    private long version;
+
+    @UpdateTimestamp
+    @Column(name="last_modified")
+    private Instant lastModified;
+
+    // With the id assigned up front, whether the row exists cannot be told from the id
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+
     public Task() {
     }
 
@@ -42,4 +69,22 @@ public class Task {
         this.dueDateTime = dueDateTime;
     }
 
+    @Override
+    public Integer getId() {
+        return taskId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    // On persist rather than after the INSERT is flushed, so a task saved earlier in the same
+    // transaction is not taken for a new one by the repository's delete
+    @PrePersist
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
+    }
+
 }
@@ -0,0 +1,70 @@
+package com.example.hmcts.model;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * The status a task is in and when it entered it: the latest entry of its status history, kept as one
+ * row per task so tasks can be listed by how long they have been in a status with a range scan. Removed
+ * when the task is deleted. Statuses are stored as ordinals, as in {@link TaskStatusTransition}.
+ */
+@Entity
+@Table(name="task_current_status", indexes = {
+        @Index(name="idx_current_status_entered_task", columnList="status, entered_at, task_id")
+})
+@Getter
+public class TaskCurrentStatus implements Persistable<Integer> {
+
+    @Id
+    @Column(name="task_id")
+    private int taskId;
+
+    @Enumerated(EnumType.ORDINAL)
+    @JdbcTypeCode(SqlTypes.TINYINT)
+    @Column(name="status", nullable = false)
+    private TaskStatus status;
+
+    @Column(name="entered_at", nullable = false)
+    private Instant enteredAt;
+
+    // Rows are only ever inserted through the repository, so saving one need not look it up first
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean persisted;
+
+    protected TaskCurrentStatus() {
+    }
+
+    public TaskCurrentStatus(int taskId, TaskStatus status, Instant enteredAt) {
+        this.taskId = taskId;
+        this.status = status;
+        this.enteredAt = enteredAt;
+    }
+
+    public void moveTo(TaskStatus status, Instant enteredAt) {
+        this.status = status;
+        this.enteredAt = enteredAt;
+    }
+
+    @Override
+    public Integer getId() {
+        return taskId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PrePersist
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.hmcts.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+/**
+ * The next unreserved id of a globally unique id range. Instances reserve ids in blocks by advancing
+ * the row, so it is written once per block rather than once per id.
+ */
+@Entity
+@Table(name="task_id_block")
+@Getter
+public class TaskIdBlock {
+
+    @Id
+    @Column(name="name", length = 64)
+    private String name;
+
+    @Column(name="next_id", nullable = false)
+    private int nextId;
+
+    protected TaskIdBlock() {
+    }
+
+    public TaskIdBlock(String name, int nextId) {
+        this.name = name;
+        this.nextId = nextId;
+    }
+
+}
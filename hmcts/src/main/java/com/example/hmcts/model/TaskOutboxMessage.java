@@ -0,0 +1,60 @@
+package com.example.hmcts.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * A committed task change waiting to be relayed downstream. Rows are inserted in the transaction that
+ * changes the task, claimed by the relay while it hands them to the sink, and deleted once it has.
+ */
+@Entity
+@Table(name="task_outbox", indexes = {
+        @Index(name="idx_outbox_task_version_id", columnList="task_id, task_version, id")
+})
+@Getter
+public class TaskOutboxMessage {
+
+    // Pooled sequence ids so the messages of a transaction go out as batched inserts. Instances draw
+    // from different blocks, so ids do not order one task's messages; taskVersion does
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_outbox_seq")
+    @SequenceGenerator(name = "task_outbox_seq", sequenceName = "task_outbox_seq", allocationSize = 50)
+    @Column(name="id")
+    private long id;
+
+    @Column(name="task_id", nullable = false)
+    private int taskId;
+
+    // The task's version after the change, one more for its delete. A change commits only after the one
+    // before it, whose transaction holds the task's row, so a task's messages sort in the order of its changes
+    @Column(name="task_version", nullable = false)
+    private long taskVersion;
+
+    @Column(name="event_type", nullable = false)
+    private String eventType;
+
+    @Lob
+    @Column(name="payload", nullable = false)
+    private String payload;
+
+    @Column(name="created_at", nullable = false)
+    private Instant createdAt;
+
+    // Set while a relay is publishing the message; another relay may take it over once this has passed
+    @Column(name="claimed_until")
+    private Instant claimedUntil;
+
+    protected TaskOutboxMessage() {
+    }
+
+    public TaskOutboxMessage(int taskId, long taskVersion, String eventType, String payload, Instant createdAt) {
+        this.taskId = taskId;
+        this.taskVersion = taskVersion;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+}
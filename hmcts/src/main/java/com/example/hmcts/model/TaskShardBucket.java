@@ -0,0 +1,26 @@
+package com.example.hmcts.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+/**
+ * Records that the shard holding this row owns a bucket of task ids. Every shard has the table, listing
+ * the buckets it owns; a bucket moves between shards by deleting its row on one and inserting it on the other.
+ */
+@Entity
+@Table(name="task_shard_bucket")
+@Getter
+public class TaskShardBucket {
+
+    @Id
+    @Column(name="bucket")
+    private int bucket;
+
+    protected TaskShardBucket() {
+    }
+
+    public TaskShardBucket(int bucket) {
+        this.bucket = bucket;
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.example.hmcts.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * One entry in the append-only status history of a task: the status it entered and when.
+ * <p>
+ * The status left is not stored; it is the status of the task's previous entry. A null status marks
+ * the deletion of the task. The latest entry of each task is also kept in {@link TaskCurrentStatus}.
+ * Statuses are stored as one-byte ordinals, so new TaskStatus values must
+ * be added at the end of the enum.
+ */
+@Entity
+@Table(name="task_status_transition", indexes = {
+        @Index(name="idx_transition_task_changed_id", columnList="task_id, changed_at, id")
+})
+@Getter
+public class TaskStatusTransition {
+
+    // Pooled sequence ids so the entries written by a batch go out as batched inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_status_transition_seq")
+    @SequenceGenerator(name = "task_status_transition_seq", sequenceName = "task_status_transition_seq", allocationSize = 50)
+    @Column(name="id")
+    private long id;
+
+    @Column(name="task_id", nullable = false)
+    private int taskId;
+
+    @Enumerated(EnumType.ORDINAL)
+    @JdbcTypeCode(SqlTypes.TINYINT)
+    @Column(name="status")
+    private TaskStatus status;
+
+    @Column(name="changed_at", nullable = false)
+    private Instant changedAt;
+
+    protected TaskStatusTransition() {
+    }
+
+    public TaskStatusTransition(int taskId, TaskStatus status, Instant changedAt) {
+        this.taskId = taskId;
+        this.status = status;
+        this.changedAt = changedAt;
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.example.hmcts.outbox;
+
+import com.example.hmcts.model.TaskOutboxMessage;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Appends relayed task changes to a local file, one JSON object per line, forcing each batch to disk
+ * before it is acknowledged. Used when hmcts.outbox.file is set and no other sink is defined.
+ */
+@Component
+@ConditionalOnProperty(name = "hmcts.outbox.file")
+public class FileTaskOutboxSink implements TaskOutboxSink {
+
+    private final FileChannel channel;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The line written for each message; event is the stored JSON payload, copied as it is.
+     */
+    private record Line(long id, int taskId, long taskVersion, String type, Instant createdAt, @JsonRawValue String event) {
+    }
+
+    public FileTaskOutboxSink(@Value("${hmcts.outbox.file}") Path file, ObjectMapper objectMapper) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<TaskOutboxMessage> messages) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (TaskOutboxMessage message : messages) {
+            objectMapper.writeValue(lines, new Line(message.getId(), message.getTaskId(), message.getTaskVersion(),
+                    message.getEventType(), message.getCreatedAt(), message.getPayload()));
+            lines.write('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        channel.close();
+    }
+}
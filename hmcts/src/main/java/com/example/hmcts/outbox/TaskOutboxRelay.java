@@ -0,0 +1,121 @@
+package com.example.hmcts.outbox;
+
+import com.example.hmcts.model.TaskOutboxMessage;
+import com.example.hmcts.repository.TaskOutboxRepository;
+import com.example.hmcts.shard.TaskShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Drains the outbox table into the {@link TaskOutboxSink}, each task's messages in the order of its changes.
+ * <p>
+ * A batch is claimed in a short transaction that locks the first messages, stamps them with a claim
+ * timeout and commits; it is then published with no transaction open and deleted in another. Relays in
+ * several instances take turns: one that finds messages at the head of the outbox claimed by another
+ * takes only those before them, so no message is published while an earlier one about the same task
+ * may still be. A failed publish releases the claim and the batch is retried on the next run; one whose
+ * relay died is taken over once its claim times out.
+ */
+@Component
+@ConditionalOnProperty(name = "hmcts.outbox.enabled", havingValue = "true")
+public class TaskOutboxRelay {
+
+    private final TaskOutboxRepository taskOutboxRepository;
+    private final TaskOutboxSink sink;
+    private final TaskShards taskShards;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration claimTimeout;
+    private final Counter relayed;
+
+    public TaskOutboxRelay(TaskOutboxRepository taskOutboxRepository, TaskOutboxSink sink, TaskShards taskShards,
+                           PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                           @Value("${hmcts.outbox.batch-size:500}") int batchSize,
+                           @Value("${hmcts.outbox.claim-timeout:PT1M}") Duration claimTimeout) {
+        this.taskOutboxRepository = taskOutboxRepository;
+        this.sink = sink;
+        this.taskShards = taskShards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.claimTimeout = claimTimeout;
+        this.relayed = Counter.builder("tasks.outbox.relayed")
+                .description("Task change messages handed to the outbox sink")
+                .baseUnit("messages")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relays batches until the outbox is empty, shard by shard. A task's messages are all on its shard,
+     * so they stay in order. A failure ends the run; the scheduler logs it and the failed batch is the
+     * first one tried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${hmcts.outbox.relay-interval:PT1S}")
+    public void relay() {
+        for (int shard = 0; shard < taskShards.count(); shard++) {
+            taskShards.onShard(shard, () -> {
+                int count;
+                do {
+                    count = relayBatch();
+                } while (count == batchSize);
+                return null;
+            });
+        }
+    }
+
+    private int relayBatch() {
+        List<TaskOutboxMessage> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = batch.stream().map(TaskOutboxMessage::getId).toList();
+        boolean published = false;
+        try {
+            sink.publish(batch);
+            published = true;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            if (!published) {
+                // So the next run retries the batch at once rather than after the claim times out
+                transactionTemplate.executeWithoutResult(status -> taskOutboxRepository.claim(ids, null));
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> taskOutboxRepository.deleteAllByIdInBatch(ids));
+        relayed.increment(batch.size());
+        return batch.size();
+    }
+
+    /**
+     * Claims the messages at the head of the outbox up to the first one another relay holds.
+     */
+    private List<TaskOutboxMessage> claimBatch() {
+        Instant now = Instant.now();
+        List<TaskOutboxMessage> head = taskOutboxRepository.findHead(Limit.of(batchSize));
+        int end = 0;
+        while (end < head.size() && !isClaimed(head.get(end), now)) {
+            end++;
+        }
+        List<TaskOutboxMessage> batch = head.subList(0, end);
+        if (!batch.isEmpty()) {
+            taskOutboxRepository.claim(batch.stream().map(TaskOutboxMessage::getId).toList(), now.plus(claimTimeout));
+        }
+        return batch;
+    }
+
+    private static boolean isClaimed(TaskOutboxMessage message, Instant now) {
+        return message.getClaimedUntil() != null && message.getClaimedUntil().isAfter(now);
+    }
+}
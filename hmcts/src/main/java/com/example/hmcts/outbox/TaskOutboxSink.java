@@ -0,0 +1,20 @@
+package com.example.hmcts.outbox;
+
+import com.example.hmcts.model.TaskOutboxMessage;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where {@link TaskOutboxRelay} delivers task changes, such as a message broker or a file.
+ * <p>
+ * Messages about a task arrive in the order of its changes, which their taskVersion also gives; messages
+ * about different tasks may arrive in any order. A batch is removed from the outbox only after publish
+ * returns, so a batch that fails, or whose removal fails, is delivered again, as is one whose relay took
+ * longer than the claim timeout: implementations should make the batch durable before returning, and
+ * consumers should ignore message ids they have seen.
+ */
+public interface TaskOutboxSink {
+
+    void publish(List<TaskOutboxMessage> messages) throws IOException;
+}
@@ -0,0 +1,65 @@
+package com.example.hmcts.outbox;
+
+import com.example.hmcts.dto.TaskEventDto;
+import com.example.hmcts.event.TaskChangedEvent;
+import com.example.hmcts.model.TaskOutboxMessage;
+import com.example.hmcts.repository.TaskOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+/**
+ * Records each task change in the outbox table as part of the transaction that makes it, so the change
+ * and its outbox message commit or roll back together. The messages take pooled sequence ids and are
+ * inserted by the commit's flush, so the request path pays for one extra insert, and a batch for a few
+ * batched inserts, and never waits on the downstream system; {@link TaskOutboxRelay} does the delivery.
+ */
+@Component
+@ConditionalOnProperty(name = "hmcts.outbox.enabled", havingValue = "true")
+public class TaskOutboxWriter {
+
+    private final TaskOutboxRepository taskOutboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public TaskOutboxWriter(TaskOutboxRepository taskOutboxRepository, ObjectMapper objectMapper) {
+        this.taskOutboxRepository = taskOutboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Runs just before the commit, still inside the transaction; a failure here rolls the change back.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTaskChanged(TaskChangedEvent change) {
+        // Flushed before the transaction's first message only, so messages carry the versions and
+        // timestamps the commit stores while the messages themselves are left to the commit's flush
+        if (!TransactionSynchronizationManager.hasResource(TaskOutboxWriter.class)) {
+            taskOutboxRepository.flush();
+            TransactionSynchronizationManager.bindResource(TaskOutboxWriter.class, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TaskOutboxWriter.class);
+                }
+            });
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(TaskEventDto.from(change));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        // A delete is the task's last change but does not know the version it removed
+        long taskVersion = change.type() == TaskChangedEvent.Type.DELETED ? Long.MAX_VALUE : change.task().getVersion();
+        taskOutboxRepository.save(new TaskOutboxMessage(change.taskId(), taskVersion, change.type().name(), payload,
+                Instant.now()));
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.hmcts.repository;
+
+import com.example.hmcts.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Not read-only, so with read replicas configured a retry is checked against the primary,
+     * where the original response was just stored, rather than a replica that may not have it yet.
+     */
+    @Override
+    @Transactional
+    Optional<IdempotencyRecord> findById(String key);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,38 @@
+package com.example.hmcts.repository;
+
+import com.example.hmcts.model.TaskCurrentStatus;
+import com.example.hmcts.model.TaskStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface TaskCurrentStatusRepository extends JpaRepository<TaskCurrentStatus, Integer> {
+
+    /**
+     * Tasks in a status, longest in it first, strictly after the (afterEnteredAt, afterTaskId) position.
+     * One range of the (status, entered_at, task_id) index is read.
+     */
+    @Query("SELECT c FROM TaskCurrentStatus c " +
+            "WHERE c.status = :status " +
+            "AND (c.enteredAt > :afterEnteredAt OR (c.enteredAt = :afterEnteredAt AND c.taskId > :afterTaskId)) " +
+            "ORDER BY c.enteredAt, c.taskId")
+    List<TaskCurrentStatus> findInStatus(@Param("status") TaskStatus status,
+                                         @Param("afterEnteredAt") Instant afterEnteredAt,
+                                         @Param("afterTaskId") int afterTaskId,
+                                         Limit limit);
+
+    /**
+     * The rows of the tasks whose ids hash to a shard bucket.
+     */
+    @Query("SELECT c FROM TaskCurrentStatus c WHERE MOD(c.taskId, :buckets) = :bucket ORDER BY c.taskId")
+    List<TaskCurrentStatus> findInBucket(@Param("buckets") int buckets, @Param("bucket") int bucket);
+
+    @Modifying
+    @Query("DELETE FROM TaskCurrentStatus c WHERE MOD(c.taskId, :buckets) = :bucket")
+    int deleteInBucket(@Param("buckets") int buckets, @Param("bucket") int bucket);
+}
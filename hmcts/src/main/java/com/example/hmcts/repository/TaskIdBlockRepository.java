@@ -0,0 +1,22 @@
+package com.example.hmcts.repository;
+
+import com.example.hmcts.model.TaskIdBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface TaskIdBlockRepository extends JpaRepository<TaskIdBlock, String> {
+
+    /**
+     * Moves a range's next id on by count, locking its row until the caller's transaction ends.
+     *
+     * @return 1, or 0 when the range has no row yet
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TaskIdBlock b SET b.nextId = b.nextId + :count WHERE b.name = :name")
+    int advance(@Param("name") String name, @Param("count") int count);
+
+    @Query("SELECT b.nextId FROM TaskIdBlock b WHERE b.name = :name")
+    int findNextId(@Param("name") String name);
+}
@@ -0,0 +1,44 @@
+package com.example.hmcts.repository;
+
+import com.example.hmcts.model.TaskOutboxMessage;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskOutboxRepository extends JpaRepository<TaskOutboxMessage, Long> {
+
+    /**
+     * The first waiting messages in relay order, each task's in the order of its changes, read from the
+     * (task_id, task_version, id) index. Locked until the caller's transaction ends, so relays running in
+     * other instances claim messages in turn rather than the same ones at once.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM TaskOutboxMessage m ORDER BY m.taskId, m.taskVersion, m.id")
+    List<TaskOutboxMessage> findHead(Limit limit);
+
+    /**
+     * Claims messages for a relay until the given time, or releases them when it is null.
+     */
+    @Modifying
+    @Query("UPDATE TaskOutboxMessage m SET m.claimedUntil = :claimedUntil WHERE m.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimedUntil") Instant claimedUntil);
+
+    /**
+     * The waiting messages about tasks whose ids hash to a shard bucket, in relay order.
+     */
+    @Query("SELECT m FROM TaskOutboxMessage m WHERE MOD(m.taskId, :buckets) = :bucket " +
+            "ORDER BY m.taskId, m.taskVersion, m.id")
+    List<TaskOutboxMessage> findInBucket(@Param("buckets") int buckets, @Param("bucket") int bucket);
+
+    @Modifying
+    @Query("DELETE FROM TaskOutboxMessage m WHERE MOD(m.taskId, :buckets) = :bucket")
+    int deleteInBucket(@Param("buckets") int buckets, @Param("bucket") int bucket);
+}
@@ -1,8 +1,186 @@
 package com.example.hmcts.repository;
 
+import com.example.hmcts.dto.TaskResponseDto;
 import com.example.hmcts.model.Task;
+import com.example.hmcts.model.TaskStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TaskRepository extends JpaRepository<Task,Integer> {
 
+    /**
+     * Rows fetched per JDBC round-trip when streaming. MySQL only honours a positive fetch size
+     * when the connection URL sets useCursorFetch=true; otherwise the driver buffers the whole result.
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * Select list for the read-only projections below. Rows are constructed straight into response
+     * DTOs, so no entities are hydrated, snapshotted for dirty checking or kept in the persistence context.
+     */
+    String RESPONSE_PROJECTION = "SELECT new com.example.hmcts.dto.TaskResponseDto(" +
+            "t.taskId, t.taskTitle, t.taskDescription, t.taskStatus, t.dueDateTime, t.version, t.lastModified) ";
+
+    @Query(RESPONSE_PROJECTION + "FROM Task t WHERE t.taskId = :taskId")
+    Optional<TaskResponseDto> findResponseById(@Param("taskId") int taskId);
+
+    @Query(RESPONSE_PROJECTION + "FROM Task t WHERE t.taskId IN :taskIds")
+    List<TaskResponseDto> findResponsesByIds(@Param("taskIds") Collection<Integer> taskIds);
+
+    /**
+     * Due dates the page queries range over when the caller gives no bound of its own: the range of
+     * MySQL's DATETIME. Every page query then has both ends of its range, with no optional predicates
+     * to stop MySQL from range-scanning the due date index.
+     */
+    LocalDateTime MIN_DUE_DATE_TIME = LocalDateTime.of(1000, 1, 1, 0, 0);
+    LocalDateTime MAX_DUE_DATE_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    /**
+     * Keyset page of tasks due before {@code dueTo}, ordered by due date then id. Rows strictly after
+     * the (afterDueDateTime, afterTaskId) position are returned; for the first page pass the start of
+     * the due date range and Integer.MIN_VALUE. Served by a range scan on the (due_datetime, task_id) index.
+     */
+    @Query(RESPONSE_PROJECTION + "FROM Task t " +
+            "WHERE t.dueDateTime >= :afterDueDateTime " +
+            "AND (t.dueDateTime > :afterDueDateTime OR t.taskId > :afterTaskId) " +
+            "AND t.dueDateTime < :dueTo " +
+            "ORDER BY t.dueDateTime, t.taskId")
+    List<TaskResponseDto> findResponsePage(@Param("afterDueDateTime") LocalDateTime afterDueDateTime,
+                                           @Param("afterTaskId") int afterTaskId,
+                                           @Param("dueTo") LocalDateTime dueTo,
+                                           Limit limit);
+
+    /**
+     * As {@link #findResponsePage}, for the tasks in one status. Served by a range scan on the
+     * (task_status, due_datetime, task_id) index.
+     */
+    @Query(RESPONSE_PROJECTION + "FROM Task t " +
+            "WHERE t.taskStatus = :status " +
+            "AND t.dueDateTime >= :afterDueDateTime " +
+            "AND (t.dueDateTime > :afterDueDateTime OR t.taskId > :afterTaskId) " +
+            "AND t.dueDateTime < :dueTo " +
+            "ORDER BY t.dueDateTime, t.taskId")
+    List<TaskResponseDto> findResponsePageByStatus(@Param("status") TaskStatus status,
+                                                   @Param("afterDueDateTime") LocalDateTime afterDueDateTime,
+                                                   @Param("afterTaskId") int afterTaskId,
+                                                   @Param("dueTo") LocalDateTime dueTo,
+                                                   Limit limit);
+
+    /**
+     * Keyset page of the tasks in one status due at or before {@code until}, earliest first. Rows strictly
+     * after the (afterDueDateTime, afterTaskId) position are returned. Served by a range scan on the
+     * (task_status, due_datetime, task_id) index; callers wanting several statuses read each with its own
+     * scan and merge them, which an IN list could only serve with a filesort.
+     */
+    @Query(RESPONSE_PROJECTION + "FROM Task t " +
+            "WHERE t.taskStatus = :status " +
+            "AND t.dueDateTime >= :afterDueDateTime " +
+            "AND (t.dueDateTime > :afterDueDateTime OR t.taskId > :afterTaskId) " +
+            "AND t.dueDateTime <= :until " +
+            "ORDER BY t.dueDateTime, t.taskId")
+    List<TaskResponseDto> findResponsesDueBetween(@Param("status") TaskStatus status,
+                                                  @Param("afterDueDateTime") LocalDateTime afterDueDateTime,
+                                                  @Param("afterTaskId") int afterTaskId,
+                                                  @Param("until") LocalDateTime until,
+                                                  Limit limit);
+
+    /**
+     * Number of tasks in the given statuses due at or before {@code until}.
+     */
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.taskStatus IN :statuses AND t.dueDateTime <= :until")
+    long countDueBefore(@Param("statuses") Collection<TaskStatus> statuses, @Param("until") LocalDateTime until);
+
+    @Query("SELECT new com.example.hmcts.repository.TaskStatusCount(t.taskStatus, COUNT(t)) " +
+            "FROM Task t GROUP BY t.taskStatus")
+    List<TaskStatusCount> countByStatus();
+
+    /**
+     * Streams every task in id order without materialising the result set. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(RESPONSE_PROJECTION + "FROM Task t ORDER BY t.taskId")
+    Stream<TaskResponseDto> streamAllResponses();
+
+    /**
+     * Sets a task's status in one statement and returns the number of rows changed, 0 when the task does
+     * not exist. The status replaced is kept in previous_status by the same statement: the SET list reads
+     * it first, which both standard SQL and MySQL's left-to-right assignments give the old value. Bulk JPQL
+     * bypasses @Version and @UpdateTimestamp, so both are set here.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.previousStatus = t.taskStatus, t.taskStatus = :status, t.version = t.version + 1, " +
+            "t.lastModified = :now WHERE t.taskId = :taskId")
+    int updateStatus(@Param("taskId") int taskId, @Param("status") TaskStatus status, @Param("now") Instant now);
+
+    /**
+     * As {@link #updateStatus}, only if the task is at the expected version; 0 when it is missing or stale.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.previousStatus = t.taskStatus, t.taskStatus = :status, t.version = t.version + 1, " +
+            "t.lastModified = :now WHERE t.taskId = :taskId AND t.version = :expectedVersion")
+    int updateStatusAtVersion(@Param("taskId") int taskId, @Param("status") TaskStatus status,
+                              @Param("expectedVersion") long expectedVersion, @Param("now") Instant now);
+
+    /**
+     * Deletes a task in one statement and returns the number of rows deleted, 0 when it does not exist.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.taskId = :taskId")
+    int deleteIfExists(@Param("taskId") int taskId);
+
+    /**
+     * As {@link #deleteIfExists}, only if the task is at the expected version; 0 when it is missing or stale.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.taskId = :taskId AND t.version = :expectedVersion")
+    int deleteAtVersion(@Param("taskId") int taskId, @Param("expectedVersion") long expectedVersion);
+
+    /**
+     * Deletes the given tasks in one statement and returns how many existed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.taskId IN :taskIds")
+    int deleteByIds(@Param("taskIds") Collection<Integer> taskIds);
+
+    @Query("SELECT t.taskId FROM Task t WHERE t.taskId IN :taskIds")
+    List<Integer> findExistingIds(@Param("taskIds") Collection<Integer> taskIds);
+
+    @Query("SELECT COALESCE(MAX(t.taskId), 0) FROM Task t")
+    int findMaxTaskId();
+
+    /**
+     * The tasks whose ids hash to a shard bucket, in id order.
+     */
+    @Query("SELECT t FROM Task t WHERE MOD(t.taskId, :buckets) = :bucket ORDER BY t.taskId")
+    List<Task> findInBucket(@Param("buckets") int buckets, @Param("bucket") int bucket);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE MOD(t.taskId, :buckets) = :bucket")
+    int deleteInBucket(@Param("buckets") int buckets, @Param("bucket") int bucket);
+
+    /**
+     * Inserts a task copied from another shard exactly as it was there. Saving an entity would stamp a
+     * new modification time, changing the task's Last-Modified for clients.
+     */
+    @Modifying
+    @Query("INSERT INTO Task (taskId, taskTitle, taskDescription, taskStatus, previousStatus, dueDateTime, version, " +
+            "lastModified) VALUES (:#{#task.taskId}, :#{#task.taskTitle}, :#{#task.taskDescription}, " +
+            ":#{#task.taskStatus}, :#{#task.previousStatus}, :#{#task.dueDateTime}, :#{#task.version}, " +
+            ":#{#task.lastModified})")
+    int insertCopy(@Param("task") Task task);
+
 }
@@ -0,0 +1,34 @@
+package com.example.hmcts.repository;
+
+import com.example.hmcts.model.TaskShardBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TaskShardBucketRepository extends JpaRepository<TaskShardBucket, Integer> {
+
+    @Query("SELECT b.bucket FROM TaskShardBucket b ORDER BY b.bucket")
+    List<Integer> findOwnedBuckets();
+
+    /**
+     * The given buckets' rows on this shard, share-locked until the caller's transaction ends so a
+     * bucket cannot be moved away while tasks in it are being written.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT b FROM TaskShardBucket b WHERE b.bucket IN :buckets")
+    List<TaskShardBucket> lockForShare(@Param("buckets") Collection<Integer> buckets);
+
+    /**
+     * A bucket's row on this shard, locked until the caller's transaction ends. Waits for writes to
+     * the bucket in flight and holds back new ones.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM TaskShardBucket b WHERE b.bucket = :bucket")
+    Optional<TaskShardBucket> lockForUpdate(@Param("bucket") int bucket);
+}
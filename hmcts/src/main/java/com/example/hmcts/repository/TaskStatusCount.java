@@ -0,0 +1,9 @@
+package com.example.hmcts.repository;
+
+import com.example.hmcts.model.TaskStatus;
+
+/**
+ * Number of tasks in one status, as returned by {@link TaskRepository#countByStatus()}.
+ */
+public record TaskStatusCount(TaskStatus status, long count) {
+}
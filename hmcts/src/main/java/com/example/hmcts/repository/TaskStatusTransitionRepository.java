@@ -0,0 +1,45 @@
+package com.example.hmcts.repository;
+
+import com.example.hmcts.model.TaskStatusTransition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface TaskStatusTransitionRepository extends JpaRepository<TaskStatusTransition, Long> {
+
+    /**
+     * The start of a task's history, oldest first. Reads only the task's entries from the
+     * (task_id, changed_at, id) index.
+     */
+    @Query("SELECT t FROM TaskStatusTransition t WHERE t.taskId = :taskId ORDER BY t.changedAt, t.id")
+    List<TaskStatusTransition> findHistory(@Param("taskId") int taskId, Limit limit);
+
+    /**
+     * A task's history in order, starting at the (fromChangedAt, fromId) entry inclusive. Served by a
+     * range scan of the (task_id, changed_at, id) index from that entry.
+     */
+    @Query("SELECT t FROM TaskStatusTransition t " +
+            "WHERE t.taskId = :taskId " +
+            "AND t.changedAt >= :fromChangedAt " +
+            "AND (t.changedAt > :fromChangedAt OR t.id >= :fromId) " +
+            "ORDER BY t.changedAt, t.id")
+    List<TaskStatusTransition> findHistoryFrom(@Param("taskId") int taskId,
+                                               @Param("fromChangedAt") Instant fromChangedAt,
+                                               @Param("fromId") long fromId,
+                                               Limit limit);
+
+    /**
+     * The entries of the tasks whose ids hash to a shard bucket, in the order they were written.
+     */
+    @Query("SELECT t FROM TaskStatusTransition t WHERE MOD(t.taskId, :buckets) = :bucket ORDER BY t.changedAt, t.id")
+    List<TaskStatusTransition> findInBucket(@Param("buckets") int buckets, @Param("bucket") int bucket);
+
+    @Modifying
+    @Query("DELETE FROM TaskStatusTransition t WHERE MOD(t.taskId, :buckets) = :bucket")
+    int deleteInBucket(@Param("buckets") int buckets, @Param("bucket") int bucket);
+}
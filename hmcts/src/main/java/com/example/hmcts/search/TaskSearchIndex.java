@@ -0,0 +1,211 @@
+package com.example.hmcts.search;
+
+import com.example.hmcts.dto.TaskResponseDto;
+import com.example.hmcts.event.TaskChangedEvent;
+import com.example.hmcts.model.Task;
+import com.example.hmcts.repository.TaskRepository;
+import com.example.hmcts.shard.TaskShards;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over task titles and descriptions.
+ * <p>
+ * Terms are lower-cased words; each query word matches every indexed term it is a prefix of, and a task
+ * must match all query words. Tasks are ranked by the summed weight of their matching terms, where a
+ * title occurrence counts {@link #TITLE_WEIGHT} times a description occurrence and an exact term match
+ * counts double a prefix match.
+ * <p>
+ * The index is loaded from the database once the application is ready and then follows committed
+ * changes. It only answers with task ids; callers read the rows themselves, so an entry that is briefly
+ * stale (a row deleted while the initial load was streaming) never surfaces as a result.
+ */
+@Component
+public class TaskSearchIndex {
+
+    static final int TITLE_WEIGHT = 3;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final TaskRepository taskRepository;
+    private final TaskShards taskShards;
+    private final TransactionTemplate readOnlyTransaction;
+    private final NavigableMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    private final Map<Integer, IndexedTask> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The version a task was indexed at and the weight of each of its terms, kept so the old postings
+     * can be removed when the task changes.
+     */
+    private record IndexedTask(long version, Map<String, Integer> termWeights) {
+    }
+
+    public TaskSearchIndex(TaskRepository taskRepository, TaskShards taskShards,
+                           PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.taskShards = taskShards;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        readOnlyTransaction.executeWithoutResult(status -> taskShards.forEachShard(shard -> {
+            try (Stream<TaskResponseDto> tasks = taskRepository.streamAllResponses()) {
+                tasks.filter(task -> taskShards.owns(shard, task.getTaskId()))
+                        .forEach(task -> index(task.getTaskId(), task.getVersion(),
+                                task.getTaskTitle(), task.getTaskDescription()));
+            }
+        }));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChanged(TaskChangedEvent change) {
+        switch (change.type()) {
+            case DELETED -> remove(change.taskId());
+            // A status change leaves the indexed text as it was
+            case STATUS_CHANGED -> { }
+            default -> {
+                Task task = change.task();
+                index(task.getTaskId(), task.getVersion(), task.getTaskTitle(), task.getTaskDescription());
+            }
+        }
+    }
+
+    /**
+     * Adds or replaces a task's entry. An entry already indexed at a newer version is kept, so the
+     * initial load cannot overwrite a change committed while it was running.
+     */
+    public void index(int taskId, long version, String title, String description) {
+        Map<String, Integer> termWeights = new HashMap<>();
+        for (String term : tokenize(title)) {
+            termWeights.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String term : tokenize(description)) {
+            termWeights.merge(term, 1, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            IndexedTask previous = documents.get(taskId);
+            if (previous != null) {
+                if (previous.version() > version) {
+                    return;
+                }
+                removePostings(taskId, previous);
+            }
+            documents.put(taskId, new IndexedTask(version, termWeights));
+            termWeights.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, key -> new HashMap<>()).put(taskId, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int taskId) {
+        lock.writeLock().lock();
+        try {
+            IndexedTask previous = documents.remove(taskId);
+            if (previous != null) {
+                removePostings(taskId, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removePostings(int taskId, IndexedTask indexedTask) {
+        for (String term : indexedTask.termWeights().keySet()) {
+            Map<Integer, Integer> taskWeights = postings.get(term);
+            taskWeights.remove(taskId);
+            if (taskWeights.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Ids of the tasks matching every word of the query, best match first, ties broken by id.
+     *
+     * @param query one or more words, each matched as a prefix
+     * @param limit the maximum number of ids to return
+     * @return the matching task ids, empty when the query has no words or nothing matches
+     */
+    public List<Integer> search(String query, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Integer> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String word : words) {
+                Map<Integer, Integer> wordScores = new HashMap<>();
+                // Every term starting with the word sorts between the word and the word followed by the highest char
+                postings.subMap(word, true, word + Character.MAX_VALUE, false).forEach((term, taskWeights) -> {
+                    int multiplier = term.length() == word.length() ? 2 : 1;
+                    taskWeights.forEach((taskId, weight) -> wordScores.merge(taskId, weight * multiplier, Integer::sum));
+                });
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    scores.keySet().retainAll(wordScores.keySet());
+                    scores.replaceAll((taskId, score) -> score + wordScores.get(taskId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Integer, Integer>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Integer, Integer>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        return ranked.stream()
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
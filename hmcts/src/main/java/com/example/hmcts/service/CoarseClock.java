@@ -0,0 +1,32 @@
+package com.example.hmcts.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * The current date-time in the system time zone, worked out at most once per millisecond and shared
+ * by every caller within it. Reading it is a System.currentTimeMillis() call and a field read, where
+ * LocalDateTime.now() allocates an Instant, a LocalDate, a LocalTime and the LocalDateTime each time.
+ */
+public final class CoarseClock {
+
+    private static volatile Reading last = new Reading(Long.MIN_VALUE, null);
+
+    private CoarseClock() {
+    }
+
+    public static LocalDateTime now() {
+        long millis = System.currentTimeMillis();
+        Reading reading = last;
+        if (reading.millis() != millis) {
+            // Racing callers may each compute the same reading; whichever is stored last is as good
+            reading = new Reading(millis, LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+            last = reading;
+        }
+        return reading.dateTime();
+    }
+
+    private record Reading(long millis, LocalDateTime dateTime) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.hmcts.service;
+
+import com.example.hmcts.model.Task;
+
+/**
+ * Outcome of one item of a batch request. index is the item's position in the request,
+ * task is set for created and updated items, and error for items that were not applied.
+ */
+public record TaskBatchResult(int index, Outcome outcome, Integer taskId, Task task, String error) {
+
+    public enum Outcome {
+        CREATED,
+        UPDATED,
+        DELETED,
+        INVALID,
+        NOT_FOUND,
+        FAILED
+    }
+
+    static TaskBatchResult applied(int index, Outcome outcome, Task task) {
+        return new TaskBatchResult(index, outcome, task.getTaskId(), task, null);
+    }
+
+    static TaskBatchResult deleted(int index, int taskId) {
+        return new TaskBatchResult(index, Outcome.DELETED, taskId, null, null);
+    }
+
+    static TaskBatchResult rejected(int index, Outcome outcome, Integer taskId, String error) {
+        return new TaskBatchResult(index, outcome, taskId, null, error);
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.hmcts.service;
+
+import com.example.hmcts.config.CacheConfig;
+import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.dto.TaskStatusUpdateDto;
+import com.example.hmcts.event.TaskChangedEvent;
+import com.example.hmcts.model.Task;
+import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.repository.TaskRepository;
+import com.example.hmcts.service.TaskBatchResult.Outcome;
+import com.example.hmcts.shard.TaskShards;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies create, status and delete requests for many tasks at once.
+ * Items are validated individually and written in chunks of {@link #CHUNK_SIZE}, each chunk in its own
+ * transaction, so one bad item or one failed chunk does not roll back the rest of the batch. With several
+ * shards a chunk is written in one transaction per shard, which commit or fail independently.
+ */
+@Service
+public class TaskBatchService {
+
+    public static final int MAX_BATCH_SIZE = 10_000;
+    static final int CHUNK_SIZE = 500;
+
+    private final TaskRepository taskRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskIdAllocator taskIdAllocator;
+    private final TaskShards taskShards;
+
+    public TaskBatchService(TaskRepository taskRepository, EntityManager entityManager,
+                            PlatformTransactionManager transactionManager, CacheManager cacheManager,
+                            ApplicationEventPublisher eventPublisher, TaskIdAllocator taskIdAllocator,
+                            TaskShards taskShards) {
+        this.taskRepository = taskRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.taskIdAllocator = taskIdAllocator;
+        this.taskShards = taskShards;
+    }
+
+    public List<TaskBatchResult> createTasks(List<TaskRequestDto> taskRequestDtos) {
+        return createTasks(taskRequestDtos, TaskService::checkTaskData);
+    }
+
+    /**
+     * Creates tasks, checking each one with the given check instead of the full request validation.
+     */
+    List<TaskBatchResult> createTasks(List<TaskRequestDto> taskRequestDtos, Function<TaskRequestDto, TaskDataCheck> check) {
+        checkBatchSize(taskRequestDtos);
+        TaskBatchResult[] results = new TaskBatchResult[taskRequestDtos.size()];
+
+        List<Integer> indexes = new ArrayList<>(CHUNK_SIZE);
+        List<Task> tasks = new ArrayList<>(CHUNK_SIZE);
+        for (int i = 0; i < taskRequestDtos.size(); i++) {
+            TaskRequestDto taskRequestDto = taskRequestDtos.get(i);
+            TaskDataCheck result = check.apply(taskRequestDto);
+            if (!result.isValid()) {
+                results[i] = TaskBatchResult.rejected(i, Outcome.INVALID, null, result.message());
+                continue;
+            }
+
+            Task task = new Task();
+            task.setTaskId(taskIdAllocator.nextId());
+            TaskService.setTaskFields(task, taskRequestDto);
+            indexes.add(i);
+            tasks.add(task);
+            if (tasks.size() == CHUNK_SIZE) {
+                insertChunk(indexes, tasks, results);
+                indexes.clear();
+                tasks.clear();
+            }
+        }
+        if (!tasks.isEmpty()) {
+            insertChunk(indexes, tasks, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    public List<TaskBatchResult> updateTaskStatuses(List<TaskStatusUpdateDto> updates) {
+        checkBatchSize(updates);
+        TaskBatchResult[] results = new TaskBatchResult[updates.size()];
+
+        for (int from = 0; from < updates.size(); from += CHUNK_SIZE) {
+            int to = Math.min(from + CHUNK_SIZE, updates.size());
+            Set<Integer> taskIds = new HashSet<>();
+            for (int i = from; i < to; i++) {
+                TaskStatusUpdateDto update = updates.get(i);
+                if (update == null || update.getTaskStatus() == null) {
+                    results[i] = TaskBatchResult.rejected(i, Outcome.INVALID,
+                            update == null ? null : update.getTaskId(), "Task status cannot be null");
+                } else {
+                    taskIds.add(update.getTaskId());
+                }
+            }
+            for (Map.Entry<Integer, List<Integer>> shardTaskIds : taskShards.groupByShard(taskIds).entrySet()) {
+                updateChunk(updates, from, to, shardTaskIds.getKey(), new HashSet<>(shardTaskIds.getValue()), results);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    public List<TaskBatchResult> deleteTasks(List<Integer> taskIds) {
+        checkBatchSize(taskIds);
+        TaskBatchResult[] results = new TaskBatchResult[taskIds.size()];
+
+        for (int from = 0; from < taskIds.size(); from += CHUNK_SIZE) {
+            int to = Math.min(from + CHUNK_SIZE, taskIds.size());
+            Set<Integer> chunkIds = new HashSet<>();
+            for (int i = from; i < to; i++) {
+                if (taskIds.get(i) == null) {
+                    results[i] = TaskBatchResult.rejected(i, Outcome.INVALID, null, "Task id cannot be null");
+                } else {
+                    chunkIds.add(taskIds.get(i));
+                }
+            }
+            for (Map.Entry<Integer, List<Integer>> shardTaskIds : taskShards.groupByShard(chunkIds).entrySet()) {
+                deleteChunk(taskIds, from, to, shardTaskIds.getKey(), new HashSet<>(shardTaskIds.getValue()), results);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void insertChunk(List<Integer> indexes, List<Task> tasks, TaskBatchResult[] results) {
+        Map<Integer, List<Integer>> positionsByShard = new TreeMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            positionsByShard.computeIfAbsent(taskShards.shardOf(tasks.get(i).getTaskId()), shard -> new ArrayList<>()).add(i);
+        }
+        positionsByShard.forEach((shard, positions) -> insertOnShard(shard,
+                positions.stream().map(indexes::get).toList(), positions.stream().map(tasks::get).toList(), results));
+    }
+
+    private void insertOnShard(int shard, List<Integer> indexes, List<Task> tasks, TaskBatchResult[] results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                taskShards.bind(shard, tasks.stream().map(Task::getTaskId).toList());
+                taskRepository.saveAll(tasks);
+                tasks.forEach(task -> eventPublisher.publishEvent(TaskChangedEvent.created(task)));
+                entityManager.flush();
+                entityManager.clear();
+            });
+            for (int i = 0; i < tasks.size(); i++) {
+                results[indexes.get(i)] = TaskBatchResult.applied(indexes.get(i), Outcome.CREATED, tasks.get(i));
+            }
+        } catch (DataAccessException | PersistenceException ex) {
+            for (int index : indexes) {
+                results[index] = TaskBatchResult.rejected(index, Outcome.FAILED, null, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Applies the chunk's updates to the given tasks, all on one shard.
+     */
+    private void updateChunk(List<TaskStatusUpdateDto> updates, int from, int to, int shard, Set<Integer> taskIds,
+                             TaskBatchResult[] results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                taskShards.bind(shard, taskIds);
+                Map<Integer, Task> found = taskRepository.findAllById(taskIds).stream()
+                        .collect(Collectors.toMap(Task::getTaskId, Function.identity()));
+                for (int i = from; i < to; i++) {
+                    if (results[i] != null || !taskIds.contains(updates.get(i).getTaskId())) {
+                        continue;
+                    }
+                    TaskStatusUpdateDto update = updates.get(i);
+                    Task task = found.get(update.getTaskId());
+                    if (task == null) {
+                        results[i] = TaskBatchResult.rejected(i, Outcome.NOT_FOUND, update.getTaskId(),
+                                "Task not found with id: " + update.getTaskId());
+                    } else {
+                        TaskStatus previousStatus = task.getTaskStatus();
+                        task.setPreviousStatus(previousStatus);
+                        task.setTaskStatus(update.getTaskStatus());
+                        results[i] = TaskBatchResult.applied(i, Outcome.UPDATED, task);
+                        eventPublisher.publishEvent(TaskChangedEvent.statusChanged(task, previousStatus));
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            evictFromCache(taskIds);
+        } catch (DataAccessException | PersistenceException ex) {
+            for (int i = from; i < to; i++) {
+                TaskStatusUpdateDto update = updates.get(i);
+                boolean inShard = update != null && update.getTaskStatus() != null && taskIds.contains(update.getTaskId());
+                if (inShard && (results[i] == null || results[i].outcome() == Outcome.UPDATED)) {
+                    results[i] = TaskBatchResult.rejected(i, Outcome.FAILED, update.getTaskId(), ex.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the given tasks, all on one shard, from the chunk.
+     */
+    private void deleteChunk(List<Integer> taskIds, int from, int to, int shard, Set<Integer> chunkIds,
+                             TaskBatchResult[] results) {
+        try {
+            // One DELETE for the chunk. Only when it removes fewer rows than asked for is it rolled back and
+            // the chunk's existing ids read, to tell which were not found.
+            Set<Integer> existing = transactionTemplate.execute(status -> {
+                taskShards.bind(shard, chunkIds);
+                if (taskRepository.deleteByIds(chunkIds) < chunkIds.size()) {
+                    status.setRollbackOnly();
+                    return null;
+                }
+                chunkIds.forEach(taskId -> eventPublisher.publishEvent(TaskChangedEvent.deleted(taskId)));
+                return chunkIds;
+            });
+            if (existing == null) {
+                existing = transactionTemplate.execute(status -> {
+                    taskShards.bind(shard, chunkIds);
+                    Set<Integer> ids = new HashSet<>(taskRepository.findExistingIds(chunkIds));
+                    if (!ids.isEmpty()) {
+                        taskRepository.deleteByIds(ids);
+                        ids.forEach(taskId -> eventPublisher.publishEvent(TaskChangedEvent.deleted(taskId)));
+                    }
+                    return ids;
+                });
+            }
+            evictFromCache(existing);
+            for (int i = from; i < to; i++) {
+                if (results[i] != null || !chunkIds.contains(taskIds.get(i))) {
+                    continue;
+                }
+                int taskId = taskIds.get(i);
+                results[i] = existing.contains(taskId)
+                        ? TaskBatchResult.deleted(i, taskId)
+                        : TaskBatchResult.rejected(i, Outcome.NOT_FOUND, taskId, "Task not found with id: " + taskId);
+            }
+        } catch (DataAccessException | PersistenceException ex) {
+            for (int i = from; i < to; i++) {
+                if (results[i] == null && chunkIds.contains(taskIds.get(i))) {
+                    results[i] = TaskBatchResult.rejected(i, Outcome.FAILED, taskIds.get(i), ex.getMessage());
+                }
+            }
+        }
+    }
+
+    // Runs after the chunk has committed, so a concurrent read cannot re-cache the old row
+    private void evictFromCache(Collection<Integer> taskIds) {
+        Cache cache = cacheManager.getCache(CacheConfig.TASKS_CACHE);
+        if (cache != null) {
+            taskIds.forEach(cache::evict);
+        }
+    }
+
+    private static void checkBatchSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch cannot be empty");
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size exceeds maximum of " + MAX_BATCH_SIZE);
+        }
+    }
+}
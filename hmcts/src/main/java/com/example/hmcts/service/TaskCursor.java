@@ -0,0 +1,41 @@
+package com.example.hmcts.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position used to page through tasks ordered by due date then id.
+ * The token is the URL-safe Base64 encoding of "dueDateTime|taskId".
+ */
+public record TaskCursor(LocalDateTime dueDateTime, int taskId) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * The position just before the first task due at or after the given time.
+     */
+    public static TaskCursor before(LocalDateTime dueDateTime) {
+        return new TaskCursor(dueDateTime, Integer.MIN_VALUE);
+    }
+
+    public String encode() {
+        String raw = dueDateTime.toString() + SEPARATOR + taskId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new TaskCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.parseInt(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, ex);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.hmcts.service;
+
+/**
+ * Outcome of the service-level checks on a task request: VALID, or the first check it failed.
+ * The constants are shared, so checking a request allocates nothing and a rejected one needs no
+ * exception to say why.
+ *
+ * @see TaskService#checkTaskData(com.example.hmcts.dto.TaskRequestDto)
+ */
+public enum TaskDataCheck {
+    VALID(null),
+    MISSING_DATA("Task data cannot be null"),
+    MISSING_TITLE("Task title cannot be null"),
+    BLANK_TITLE("Task title cannot be empty"),
+    TITLE_TOO_LONG("Task title exceeds maximum length of 50 characters"),
+    MISSING_STATUS("Task status cannot be null"),
+    MISSING_DUE_DATE("Due date cannot be null"),
+    PAST_DUE_DATE("Due date must be in the future");
+
+    private final String message;
+
+    TaskDataCheck(String message) {
+        this.message = message;
+    }
+
+    public boolean isValid() {
+        return this == VALID;
+    }
+
+    /**
+     * @return why the request was rejected, null when it is valid
+     */
+    public String message() {
+        return message;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.hmcts.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position used to page through status history ordered by time then entry id, and
+ * time-in-status ordered by entry time then task id. The token is the URL-safe Base64 encoding of "changedAt|id".
+ */
+record TaskHistoryCursor(Instant changedAt, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    String encode() {
+        String raw = changedAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TaskHistoryCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new TaskHistoryCursor(Instant.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, ex);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.hmcts.service;
+
+import com.example.hmcts.dto.TaskTransitionDto;
+
+import java.util.List;
+
+/**
+ * One keyset page of status history. nextCursor is null when there are no further entries.
+ */
+public record TaskHistoryPage(List<TaskTransitionDto> transitions, String nextCursor) {
+}
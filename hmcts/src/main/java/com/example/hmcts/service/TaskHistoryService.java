@@ -0,0 +1,252 @@
+package com.example.hmcts.service;
+
+import com.example.hmcts.dto.TaskTransitionDto;
+import com.example.hmcts.event.TaskChangedEvent;
+import com.example.hmcts.model.TaskCurrentStatus;
+import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.model.TaskStatusTransition;
+import com.example.hmcts.repository.TaskCurrentStatusRepository;
+import com.example.hmcts.repository.TaskStatusTransitionRepository;
+import com.example.hmcts.shard.TaskShards;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.example.hmcts.service.TaskService.MAX_PAGE_SIZE;
+import static com.example.hmcts.service.TaskService.OPERATION_TIMER;
+
+/**
+ * Keeps an append-only log of the statuses each task has been in, and answers history and
+ * time-in-status queries from it.
+ * <p>
+ * An entry is added just before the commit of each change that moves a task to a new status, inside
+ * the same transaction, so the log never disagrees with the task table; a change that leaves the status
+ * as it was adds nothing. A transaction's changes are written together: entries use pooled sequence ids
+ * and are inserted at flush, so a batch status update writes its entries as JDBC batches.
+ * <p>
+ * Each task's current status and when it entered it are also kept in one row per task, moved by the
+ * same change, which time-in-status pages through with a range scan instead of searching the log for
+ * entries not yet followed by another. Tasks changed before the log existed have no entries, and are
+ * not listed by time-in-status, until their next change.
+ */
+@Service
+public class TaskHistoryService {
+
+    static final String DELETED = "DELETED";
+    private static final Comparator<TaskCurrentStatus> CURRENT_ORDER =
+            Comparator.comparing(TaskCurrentStatus::getEnteredAt).thenComparingInt(TaskCurrentStatus::getTaskId);
+
+    private final TaskStatusTransitionRepository transitionRepository;
+    private final TaskCurrentStatusRepository currentStatusRepository;
+    private final TaskShards taskShards;
+
+    public TaskHistoryService(TaskStatusTransitionRepository transitionRepository,
+                              TaskCurrentStatusRepository currentStatusRepository, TaskShards taskShards) {
+        this.transitionRepository = transitionRepository;
+        this.currentStatusRepository = currentStatusRepository;
+        this.taskShards = taskShards;
+    }
+
+    /**
+     * Collects a change as it is published, within the transaction making it. The transaction's changes
+     * are written together just before it commits.
+     */
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent change) {
+        // Changes outside a transaction are not recorded, as with a transactional listener
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        boolean deleted = change.type() == TaskChangedEvent.Type.DELETED;
+        TaskStatus status = deleted ? null : change.task().getTaskStatus();
+        // A create has no previous status and a delete no new one, so only updates can keep the status
+        if (!deleted && status == change.previousStatus()) {
+            return;
+        }
+        pendingChanges().add(new StatusChange(change.taskId(), status, change.type() == TaskChangedEvent.Type.CREATED));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<StatusChange> pendingChanges() {
+        List<StatusChange> changes = (List<StatusChange>) TransactionSynchronizationManager.getResource(TaskHistoryService.class);
+        if (changes == null) {
+            List<StatusChange> pending = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(TaskHistoryService.class, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    record(pending);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TaskHistoryService.class);
+                }
+            });
+            changes = pending;
+        }
+        return changes;
+    }
+
+    /**
+     * Adds the log entries and moves the current status rows of a transaction's changes. The rows are read
+     * with one query and changed as managed entities, so a batch's updates and deletes go out as JDBC
+     * batches at the commit's flush.
+     */
+    private void record(List<StatusChange> changes) {
+        Instant now = Instant.now();
+        List<TaskStatusTransition> entries = new ArrayList<>(changes.size());
+        // The last status each task reached, null once deleted, and the tasks created by this transaction
+        Map<Integer, TaskStatus> latest = new HashMap<>();
+        Set<Integer> created = new HashSet<>();
+        for (StatusChange change : changes) {
+            entries.add(new TaskStatusTransition(change.taskId(), change.status(), now));
+            latest.put(change.taskId(), change.status());
+            if (change.created()) {
+                created.add(change.taskId());
+            }
+        }
+        transitionRepository.saveAll(entries);
+
+        Set<Integer> loaded = new HashSet<>(latest.keySet());
+        loaded.removeAll(created);
+        Map<Integer, TaskCurrentStatus> rows = loaded.isEmpty() ? Map.of()
+                : currentStatusRepository.findAllById(loaded).stream()
+                        .collect(Collectors.toMap(TaskCurrentStatus::getTaskId, Function.identity()));
+        List<TaskCurrentStatus> inserted = new ArrayList<>();
+        List<TaskCurrentStatus> removed = new ArrayList<>();
+        latest.forEach((taskId, status) -> {
+            TaskCurrentStatus row = rows.get(taskId);
+            if (status == null) {
+                if (row != null) {
+                    removed.add(row);
+                }
+            } else if (row != null) {
+                row.moveTo(status, now);
+            } else {
+                // Created by this transaction, or changed before the log existed
+                inserted.add(new TaskCurrentStatus(taskId, status, now));
+            }
+        });
+        currentStatusRepository.saveAll(inserted);
+        currentStatusRepository.deleteAll(removed);
+    }
+
+    private record StatusChange(int taskId, TaskStatus status, boolean created) {
+    }
+
+    /**
+     * A task's status history, oldest first. History outlives the task, so a deleted task still has one.
+     *
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit the maximum number of entries to return
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "history"})
+    public TaskHistoryPage getHistory(int taskId, String cursor, int limit) {
+        checkPageSize(limit);
+        TaskHistoryCursor from = cursor == null ? null : TaskHistoryCursor.decode(cursor);
+        taskShards.bind(taskId);
+        // After the first page the cursor's own entry is read again for the status the page starts from,
+        // and one entry past the page gives the time spent in its last status and shows whether there is more
+        List<TaskStatusTransition> entries = from == null
+                ? transitionRepository.findHistory(taskId, Limit.of(limit + 1))
+                : transitionRepository.findHistoryFrom(taskId, from.changedAt(), from.id(), Limit.of(limit + 2));
+        int start = from != null && !entries.isEmpty() && entries.get(0).getId() == from.id() ? 1 : 0;
+        int end = Math.min(entries.size(), start + limit);
+
+        Instant now = Instant.now();
+        List<TaskTransitionDto> transitions = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            TaskTransitionDto transition = toDto(entries.get(i), i + 1 < entries.size() ? entries.get(i + 1).getChangedAt() : now);
+            if (i > 0) {
+                transition.setFromStatus(statusName(entries.get(i - 1).getStatus()));
+            }
+            transitions.add(transition);
+        }
+
+        if (entries.size() <= end) {
+            return new TaskHistoryPage(transitions, null);
+        }
+        TaskStatusTransition last = entries.get(end - 1);
+        return new TaskHistoryPage(transitions, new TaskHistoryCursor(last.getChangedAt(), last.getId()).encode());
+    }
+
+    /**
+     * Tasks currently in the given status with how long they have been in it, longest first.
+     *
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit the maximum number of entries to return
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "time-in-status"})
+    public TaskHistoryPage getTimeInStatus(TaskStatus status, String cursor, int limit) {
+        if (status == null) {
+            throw new IllegalArgumentException("Task status cannot be null");
+        }
+        checkPageSize(limit);
+        // The cursor is the last row's entry time and task id; the first page starts before any entry
+        TaskHistoryCursor after = cursor == null
+                ? new TaskHistoryCursor(Instant.EPOCH, Integer.MIN_VALUE)
+                : TaskHistoryCursor.decode(cursor);
+        List<TaskCurrentStatus> rows = taskShards.mergeSorted(taskShards.fanOut(shard ->
+                        currentStatusRepository.findInStatus(status, after.changedAt(), (int) after.id(), Limit.of(limit + 1))),
+                CURRENT_ORDER, TaskCurrentStatus::getTaskId, limit + 1);
+
+        Instant now = Instant.now();
+        int end = Math.min(rows.size(), limit);
+        List<TaskTransitionDto> transitions = new ArrayList<>(end);
+        for (int i = 0; i < end; i++) {
+            TaskCurrentStatus row = rows.get(i);
+            TaskTransitionDto transition = new TaskTransitionDto();
+            transition.setTaskId(row.getTaskId());
+            transition.setToStatus(row.getStatus().name());
+            transition.setChangedAt(row.getEnteredAt());
+            transition.setSecondsInStatus(Duration.between(row.getEnteredAt(), now).getSeconds());
+            transitions.add(transition);
+        }
+
+        if (rows.size() <= limit) {
+            return new TaskHistoryPage(transitions, null);
+        }
+        TaskCurrentStatus last = rows.get(limit - 1);
+        return new TaskHistoryPage(transitions, new TaskHistoryCursor(last.getEnteredAt(), last.getTaskId()).encode());
+    }
+
+    private static TaskTransitionDto toDto(TaskStatusTransition entry, Instant leftAt) {
+        TaskTransitionDto transition = new TaskTransitionDto();
+        transition.setTaskId(entry.getTaskId());
+        transition.setToStatus(statusName(entry.getStatus()));
+        transition.setChangedAt(entry.getChangedAt());
+        if (entry.getStatus() != null) {
+            transition.setSecondsInStatus(Duration.between(entry.getChangedAt(), leftAt).getSeconds());
+        }
+        return transition;
+    }
+
+    private static String statusName(TaskStatus status) {
+        return status == null ? DELETED : status.name();
+    }
+
+    private static void checkPageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+}
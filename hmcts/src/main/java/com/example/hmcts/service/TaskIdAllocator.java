@@ -0,0 +1,93 @@
+package com.example.hmcts.service;
+
+import com.example.hmcts.model.TaskIdBlock;
+import com.example.hmcts.repository.TaskIdBlockRepository;
+import com.example.hmcts.repository.TaskRepository;
+import com.example.hmcts.shard.TaskShards;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out task ids that are unique across all shards and instances, so a task's id can decide its
+ * shard before it is written.
+ * <p>
+ * Ids are reserved from the task_id_block row on the home shard in blocks of the block size, one short
+ * transaction per block, and handed out from memory in between. Ids left in a block when the instance
+ * stops are never used. The first block starts after the highest task id already in use.
+ */
+@Component
+public class TaskIdAllocator {
+
+    static final String TASK_IDS = "task";
+
+    private final TaskIdBlockRepository blockRepository;
+    private final TaskRepository taskRepository;
+    private final TaskShards taskShards;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock; the block is used up when next reaches end
+    private int next;
+    private int end;
+
+    public TaskIdAllocator(TaskIdBlockRepository blockRepository, TaskRepository taskRepository,
+                           TaskShards taskShards, PlatformTransactionManager transactionManager,
+                           @Value("${hmcts.task-ids.block-size:100}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Task id block size must be positive");
+        }
+        this.blockRepository = blockRepository;
+        this.taskRepository = taskRepository;
+        this.taskShards = taskShards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * The next unused task id. Call outside any transaction: reserving a block takes a connection of its own.
+     */
+    public int nextId() {
+        lock.lock();
+        try {
+            if (next == end) {
+                next = reserveBlock();
+                end = next + blockSize;
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int reserveBlock() {
+        try {
+            return tryReserveBlock();
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance made the first reservation at the same moment; take the block after its one
+            return tryReserveBlock();
+        }
+    }
+
+    private int tryReserveBlock() {
+        Integer start = taskShards.onHome(() -> transactionTemplate.execute(status ->
+                blockRepository.advance(TASK_IDS, blockSize) == 0
+                        ? null
+                        : blockRepository.findNextId(TASK_IDS) - blockSize));
+        if (start != null) {
+            return start;
+        }
+
+        int first = Collections.max(taskShards.fanOut(shard -> taskRepository.findMaxTaskId())) + 1;
+        taskShards.onHome(() -> transactionTemplate.execute(status ->
+                blockRepository.saveAndFlush(new TaskIdBlock(TASK_IDS, first + blockSize))));
+        return first;
+    }
+}
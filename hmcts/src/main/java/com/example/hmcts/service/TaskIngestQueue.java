@@ -0,0 +1,319 @@
+package com.example.hmcts.service;
+
+import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.exception.TaskIngestQueueFullException;
+import com.example.hmcts.service.TaskBatchResult.Outcome;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind queue for task creation, enabled with hmcts.ingest.enabled=true.
+ * <p>
+ * Submitted tasks are validated, given a tracking id and put on a bounded queue; when the queue is
+ * full the submission is refused rather than blocking the request. One writer thread takes whatever
+ * has queued up, up to the maximum batch size, and creates it through {@link TaskBatchService}, so a
+ * burst of requests is committed in a few multi-row transactions instead of one transaction each.
+ * <p>
+ * Items whose write fails are retried with a growing delay, capped at the maximum retry delay.
+ * <p>
+ * By default the queue is held in memory only: tasks accepted but not yet written are lost if the
+ * process dies, and a task still failing after the maximum number of attempts is reported as failed.
+ * Setting hmcts.ingest.journal.directory also records each task in a {@link TaskJournal} before it is
+ * acknowledged, and a journaled task is never given up on: its batch is retried until every task in it
+ * is created or rejected as invalid, and only then checkpointed. The journal is replayed on the next
+ * start. Either way, on a graceful shutdown the writer empties the queue before stopping, unless the
+ * database is refusing writes; journaled tasks it could not write are then left for the next start.
+ */
+@Component
+@ConditionalOnProperty(name = "hmcts.ingest.enabled", havingValue = "true")
+public class TaskIngestQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskIngestQueue.class);
+
+    private static final long POLL_MILLIS = 100;
+    // Statuses outlive their queue slot; keep enough for several full queues
+    private static final int TRACKED_PER_QUEUE_SLOT = 10;
+
+    /**
+     * A task waiting to be written. sequence is its journal sequence number, or 0 without a journal.
+     */
+    private record QueuedTask(long sequence, String trackingId, TaskRequestDto request) {
+    }
+
+    private final TaskBatchService taskBatchService;
+    private final int maxBatchSize;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+    private final TaskJournal journal;
+    private final List<QueuedTask> recovered = new ArrayList<>();
+    private final BlockingQueue<QueuedTask> queue;
+    // Keeps journal order and queue order the same, so each committed batch can be checkpointed
+    private final ReentrantLock submitLock = new ReentrantLock();
+    private final Cache<String, TaskIngestStatus> statuses;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-ingest");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter checkpointFailures;
+    private volatile boolean running = true;
+
+    public TaskIngestQueue(TaskBatchService taskBatchService, MeterRegistry meterRegistry, ObjectMapper objectMapper,
+                           @Value("${hmcts.ingest.queue-capacity:10000}") int queueCapacity,
+                           @Value("${hmcts.ingest.max-batch-size:500}") int maxBatchSize,
+                           @Value("${hmcts.ingest.max-attempts:5}") int maxAttempts,
+                           @Value("${hmcts.ingest.retry-delay:PT1S}") Duration retryDelay,
+                           @Value("${hmcts.ingest.max-retry-delay:PT1M}") Duration maxRetryDelay,
+                           @Value("${hmcts.ingest.status-retention:PT1H}") Duration statusRetention,
+                           @Value("${hmcts.ingest.journal.directory:}") String journalDirectory,
+                           @Value("${hmcts.ingest.journal.segment-size:64MB}") DataSize journalSegmentSize)
+            throws IOException {
+        this.taskBatchService = taskBatchService;
+        this.maxBatchSize = maxBatchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(statusRetention)
+                .maximumSize((long) queueCapacity * TRACKED_PER_QUEUE_SLOT)
+                .build();
+
+        if (journalDirectory.isBlank()) {
+            this.journal = null;
+        } else {
+            this.journal = new TaskJournal(Path.of(journalDirectory), Math.toIntExact(journalSegmentSize.toBytes()),
+                    objectMapper);
+            for (TaskJournal.Entry entry : journal.recover()) {
+                recovered.add(new QueuedTask(entry.sequence(), entry.trackingId(), entry.request()));
+                statuses.put(entry.trackingId(), TaskIngestStatus.QUEUED);
+            }
+        }
+
+        Gauge.builder("tasks.ingest.queue.size", queue, BlockingQueue::size)
+                .description("Tasks accepted for asynchronous creation and not yet written")
+                .baseUnit("tasks")
+                .register(meterRegistry);
+        this.checkpointFailures = Counter.builder("tasks.ingest.journal.checkpoint.failures")
+                .description("Journal checkpoints that failed and were left to the next batch's")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the writer once the application is ready, so tasks replayed from the journal are
+     * created with every change listener in place.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writer.execute(this::writeLoop);
+    }
+
+    /**
+     * Validates the task and queues it for creation.
+     *
+     * @param taskRequestDto the task to create
+     * @return the tracking id to poll with {@link #getStatus(String)}
+     * @throws IllegalArgumentException if the task is invalid or too large to journal
+     * @throws TaskIngestQueueFullException if the queue has no room or is shutting down
+     */
+    public String submit(TaskRequestDto taskRequestDto) {
+        TaskService.validateTaskData(taskRequestDto);
+        if (!running) {
+            throw new TaskIngestQueueFullException("Ingest queue is shutting down");
+        }
+
+        String trackingId = UUID.randomUUID().toString();
+        // Recorded before the task is queued so the writer's result can never be overwritten by it
+        statuses.put(trackingId, TaskIngestStatus.QUEUED);
+        long sequence = 0;
+        submitLock.lock();
+        try {
+            // Only the writer removes from the queue, so there is still room when the task is added below
+            if (queue.remainingCapacity() == 0) {
+                statuses.invalidate(trackingId);
+                throw new TaskIngestQueueFullException("Ingest queue is full");
+            }
+            if (journal != null) {
+                sequence = journal.append(trackingId, taskRequestDto);
+            }
+            queue.add(new QueuedTask(sequence, trackingId, taskRequestDto));
+        } finally {
+            submitLock.unlock();
+        }
+        if (journal != null) {
+            // Acknowledge only once the task is on disk; concurrent submissions share the fsync
+            journal.sync(sequence);
+        }
+        return trackingId;
+    }
+
+    /**
+     * The progress of a submitted task, empty when the tracking id is unknown or has expired.
+     */
+    public Optional<TaskIngestStatus> getStatus(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    private void writeLoop() {
+        // Tasks replayed from the journal were accepted before anything now in the queue
+        for (int from = 0; from < recovered.size(); from += maxBatchSize) {
+            if (!write(recovered.subList(from, Math.min(from + maxBatchSize, recovered.size())))) {
+                return;
+            }
+        }
+        recovered.clear();
+
+        List<QueuedTask> batch = new ArrayList<>(maxBatchSize);
+        // Keep going after shutdown is requested until everything already accepted is written
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedTask first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            if (!write(batch)) {
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Creates a batch, retrying the tasks whose write failed, then checkpoints it.
+     *
+     * @return false if the writer should stop: shutdown came while journaled tasks were still failing
+     */
+    private boolean write(List<QueuedTask> batch) {
+        List<QueuedTask> pending = batch;
+        boolean stopping = false;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            List<QueuedTask> failed = new ArrayList<>();
+            String error = null;
+            try {
+                List<TaskRequestDto> requests = new ArrayList<>(pending.size());
+                pending.forEach(queued -> requests.add(queued.request()));
+                // Validated when accepted; the due date may have passed while the task was queued or journaled
+                List<TaskBatchResult> results = taskBatchService.createTasks(requests, TaskService::checkTaskFields);
+                for (int i = 0; i < pending.size(); i++) {
+                    if (results.get(i).outcome() == Outcome.FAILED) {
+                        failed.add(pending.get(i));
+                        error = results.get(i).error();
+                    } else {
+                        statuses.put(pending.get(i).trackingId(), TaskIngestStatus.from(results.get(i)));
+                    }
+                }
+            } catch (RuntimeException ex) {
+                failed = pending;
+                error = ex.getMessage();
+            }
+
+            if (failed.isEmpty()) {
+                break;
+            }
+            boolean retry = pause(retryDelay(attempt));
+            if (journal == null && (!retry || attempt >= maxAttempts)) {
+                String lastError = error;
+                failed.forEach(queued -> statuses.put(queued.trackingId(), TaskIngestStatus.failed(lastError)));
+                break;
+            }
+            if (journal != null && !retry) {
+                // Journaled again after everything still queued, so the next start replays them without
+                // replaying the tasks of this batch that were created
+                long sequence = 0;
+                for (QueuedTask queued : failed) {
+                    sequence = journal.append(queued.trackingId(), queued.request());
+                }
+                journal.sync(sequence);
+                stopping = true;
+                break;
+            }
+            pending = failed;
+        }
+
+        if (journal != null) {
+            // Every task in the batch is now created, rejected as invalid or journaled again
+            checkpoint(batch.get(batch.size() - 1).sequence());
+        }
+        return !stopping;
+    }
+
+    /**
+     * Checkpoints the journal, keeping the writer running if that fails. A later checkpoint covers the
+     * same entries; until one succeeds, a restart replays them and creates those tasks again.
+     */
+    private void checkpoint(long sequence) {
+        try {
+            journal.checkpoint(sequence);
+        } catch (UncheckedIOException ex) {
+            checkpointFailures.increment();
+            log.warn("Could not checkpoint the task ingest journal at sequence {}", sequence, ex);
+        }
+    }
+
+    private Duration retryDelay(int attempt) {
+        Duration delay = retryDelay.multipliedBy(attempt);
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+
+    /**
+     * Waits before a retry, cut short by shutdown.
+     *
+     * @return false if the writer is shutting down or was interrupted
+     */
+    private boolean pause(Duration delay) {
+        long deadline = System.nanoTime() + delay.toNanos();
+        try {
+            for (long left = delay.toNanos(); running && left > 0; left = deadline - System.nanoTime()) {
+                TimeUnit.NANOSECONDS.sleep(Math.min(left, TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS)));
+            }
+            return running;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException, IOException {
+        running = false;
+        writer.shutdown();
+        if (writer.awaitTermination(30, TimeUnit.SECONDS) && journal != null) {
+            journal.close();
+        }
+    }
+}
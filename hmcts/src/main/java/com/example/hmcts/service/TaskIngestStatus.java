@@ -0,0 +1,29 @@
+package com.example.hmcts.service;
+
+/**
+ * Progress of a task submitted for asynchronous creation. taskId is set once the task is created,
+ * and error when it was not.
+ */
+public record TaskIngestStatus(State state, Integer taskId, String error) {
+
+    public enum State {
+        QUEUED,
+        CREATED,
+        INVALID,
+        FAILED
+    }
+
+    static final TaskIngestStatus QUEUED = new TaskIngestStatus(State.QUEUED, null, null);
+
+    static TaskIngestStatus from(TaskBatchResult result) {
+        return switch (result.outcome()) {
+            case CREATED -> new TaskIngestStatus(State.CREATED, result.taskId(), null);
+            case INVALID -> new TaskIngestStatus(State.INVALID, null, result.error());
+            default -> failed(result.error());
+        };
+    }
+
+    static TaskIngestStatus failed(String error) {
+        return new TaskIngestStatus(State.FAILED, null, error);
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.hmcts.service;
+
+import com.example.hmcts.dto.TaskRequestDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of tasks accepted by {@link TaskIngestQueue} but not yet committed to the database.
+ * <p>
+ * Entries are appended to fixed-size memory-mapped segment files and numbered with increasing sequence
+ * numbers. {@link #sync(long)} makes an entry durable; callers waiting at the same time share one
+ * force of the mapping, so a burst of submissions pays for a few fsyncs rather than one each. Once
+ * entries are in the database their sequence number is recorded with {@link #checkpoint(long)}, and
+ * segments holding only checkpointed entries are deleted.
+ * <p>
+ * On startup, entries after the checkpoint are returned by {@link #recover()} for writing again.
+ * An entry committed to the database just before a crash, but not yet checkpointed, is therefore
+ * written twice: delivery is at-least-once.
+ * <p>
+ * Each record is laid out as [payload length][sequence][JSON payload][CRC32 of sequence and payload].
+ * Segments are zero-filled when mapped, so a zero length marks the end of the written records, and a
+ * bad checksum marks a record torn by a crash.
+ */
+final class TaskJournal implements AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int RECORD_OVERHEAD = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    record Entry(long sequence, String trackingId, TaskRequestDto request) {
+    }
+
+    private record Payload(String trackingId, TaskRequestDto request) {
+    }
+
+    /**
+     * A segment that is no longer appended to, with the sequence number of its last entry.
+     */
+    private record ClosedSegment(Path path, long lastSequence) {
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ObjectMapper objectMapper;
+    private final FileChannel checkpointChannel;
+    private final Deque<ClosedSegment> closedSegments = new ArrayDeque<>();
+    private final List<Entry> recovered = new ArrayList<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    private Path currentPath;
+    private FileChannel currentChannel;
+    private MappedByteBuffer current;
+    private long nextSequence;
+    private volatile long durableSequence;
+
+    TaskJournal(Path directory, int segmentSize, ObjectMapper objectMapper) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.objectMapper = objectMapper;
+        Files.createDirectories(directory);
+
+        this.checkpointChannel = FileChannel.open(directory.resolve(CHECKPOINT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long checkpoint = readCheckpoint();
+        long lastSequence = checkpoint;
+        for (Path segment : listSegments()) {
+            long segmentLast = readSegment(segment, checkpoint);
+            if (segmentLast <= checkpoint) {
+                Files.delete(segment);
+            } else {
+                closedSegments.addLast(new ClosedSegment(segment, segmentLast));
+                lastSequence = segmentLast;
+            }
+        }
+        this.nextSequence = lastSequence + 1;
+        this.durableSequence = lastSequence;
+        // Appends always start a fresh segment, so a record torn by a crash is never written after
+        openSegment();
+    }
+
+    /**
+     * Entries that were journaled but not checkpointed when the journal was last closed, in sequence order.
+     */
+    List<Entry> recover() {
+        return List.copyOf(recovered);
+    }
+
+    /**
+     * Appends an entry. It is not durable until {@link #sync(long)} returns for its sequence number.
+     *
+     * @return the entry's sequence number
+     * @throws IllegalArgumentException if the entry is larger than a segment
+     */
+    long append(String trackingId, TaskRequestDto request) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(new Payload(trackingId, request));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        int recordSize = RECORD_OVERHEAD + payload.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Task is too large to journal");
+        }
+
+        appendLock.lock();
+        try {
+            // Leave room for the zero length that marks the end of the segment
+            if (current.remaining() < recordSize + Integer.BYTES) {
+                rollSegment();
+            }
+            long sequence = nextSequence++;
+            CRC32 crc = new CRC32();
+            crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+            crc.update(payload);
+            current.putInt(payload.length).putLong(sequence).put(payload).putInt((int) crc.getValue());
+            return sequence;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the entry with the given sequence number, and every entry before it, is on disk.
+     * Whoever forces the mapping covers everything appended so far, so concurrent callers mostly find
+     * their entry already durable once they get the lock.
+     */
+    void sync(long sequence) {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            MappedByteBuffer segment;
+            long appended;
+            appendLock.lock();
+            try {
+                segment = current;
+                appended = nextSequence - 1;
+            } finally {
+                appendLock.unlock();
+            }
+            // Earlier segments were forced when they were closed
+            segment.force();
+            durableSequence = appended;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Records that every entry up to the given sequence number is in the database, and deletes the
+     * segments that hold nothing newer.
+     */
+    void checkpoint(long sequence) {
+        try {
+            checkpointChannel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence), 0);
+            checkpointChannel.force(true);
+
+            appendLock.lock();
+            try {
+                while (!closedSegments.isEmpty() && closedSegments.peekFirst().lastSequence() <= sequence) {
+                    Files.deleteIfExists(closedSegments.removeFirst().path());
+                }
+            } finally {
+                appendLock.unlock();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        if (checkpointChannel.read(buffer, 0) < Long.BYTES) {
+            return 0;
+        }
+        return buffer.getLong(0);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            // Zero-padded first sequence numbers make name order sequence order
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Collects the segment's entries after the checkpoint into {@link #recovered}.
+     *
+     * @return the sequence number of the segment's last intact entry, or 0 if it has none
+     */
+    private long readSegment(Path segment, long checkpoint) throws IOException {
+        long lastSequence = 0;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            while (buffer.remaining() >= RECORD_OVERHEAD) {
+                int length = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining() - Long.BYTES - Integer.BYTES) {
+                    break;
+                }
+                long sequence = buffer.getLong();
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                CRC32 crc = new CRC32();
+                crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+                crc.update(payload);
+                if (buffer.getInt() != (int) crc.getValue()) {
+                    break;
+                }
+                lastSequence = sequence;
+                if (sequence > checkpoint) {
+                    Payload entry = objectMapper.readValue(payload, Payload.class);
+                    recovered.add(new Entry(sequence, entry.trackingId(), entry.request()));
+                }
+            }
+        }
+        return lastSequence;
+    }
+
+    private void openSegment() throws IOException {
+        currentPath = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        currentChannel = FileChannel.open(currentPath,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        current = currentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private void rollSegment() throws IOException {
+        current.force();
+        currentChannel.close();
+        closedSegments.addLast(new ClosedSegment(currentPath, nextSequence - 1));
+        openSegment();
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            current.force();
+            currentChannel.close();
+            checkpointChannel.close();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.hmcts.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Task meters that cannot be expressed with {@code @Timed}.
+ * Operation latency is recorded as tasks.operation by annotations on the services; cache, connection pool,
+ * repository call and HTTP metrics are bound by Spring Boot.
+ */
+@Component
+public class TaskMetrics {
+
+    private final DistributionSummary listSize;
+    private final Counter overdue;
+
+    public TaskMetrics(MeterRegistry meterRegistry) {
+        this.listSize = DistributionSummary.builder("tasks.list.size")
+                .description("Number of tasks returned per list page")
+                .baseUnit("tasks")
+                .register(meterRegistry);
+        this.overdue = Counter.builder("tasks.overdue")
+                .description("Open tasks found past their due date by the overdue sweeper")
+                .baseUnit("tasks")
+                .register(meterRegistry);
+    }
+
+    public void recordListSize(int size) {
+        listSize.record(size);
+    }
+
+    public void recordOverdue(int count) {
+        overdue.increment(count);
+    }
+}
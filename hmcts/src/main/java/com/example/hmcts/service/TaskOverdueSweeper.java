@@ -0,0 +1,65 @@
+package com.example.hmcts.service;
+
+import com.example.hmcts.dto.TaskResponseDto;
+import com.example.hmcts.event.TaskOverdueEvent;
+import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.repository.TaskRepository;
+import com.example.hmcts.shard.TaskShards;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Periodically publishes a {@link TaskOverdueEvent} for each open task whose due date has passed since
+ * the previous sweep. Each sweep reads only the tasks due inside that window, with a range scan per
+ * open status on the (task_status, due_datetime, task_id) index, so its cost follows the number of
+ * tasks falling due rather than the size of the table.
+ * <p>
+ * The first window starts when the application does; tasks already overdue at startup are listed by
+ * GET /task/overdue but are not announced again.
+ */
+@Component
+public class TaskOverdueSweeper {
+
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskMetrics taskMetrics;
+    private final TaskShards taskShards;
+    private LocalDateTime lastSweep = LocalDateTime.now();
+
+    public TaskOverdueSweeper(TaskRepository taskRepository, ApplicationEventPublisher eventPublisher,
+                              TaskMetrics taskMetrics, TaskShards taskShards) {
+        this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.taskMetrics = taskMetrics;
+        this.taskShards = taskShards;
+    }
+
+    @Scheduled(fixedDelayString = "${hmcts.overdue.sweep-interval:PT1M}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime after = lastSweep;
+        List<TaskResponseDto> overdue = taskShards.mergeSorted(taskShards.fanOut(shard -> {
+            List<TaskResponseDto> tasks = new ArrayList<>();
+            for (TaskStatus status : TaskService.OPEN_STATUSES) {
+                // Strictly after the previous sweep's end, so no task is announced twice
+                tasks.addAll(taskRepository.findResponsesDueBetween(status, after, Integer.MAX_VALUE, now,
+                        Limit.unlimited()));
+            }
+            tasks.sort(TaskService.DUE_ORDER);
+            return tasks;
+        }), TaskService.DUE_ORDER, TaskResponseDto::getTaskId, Integer.MAX_VALUE);
+        overdue.forEach(task -> eventPublisher.publishEvent(new TaskOverdueEvent(task)));
+        taskMetrics.recordOverdue(overdue.size());
+        lastSweep = now;
+    }
+
+    LocalDateTime getLastSweep() {
+        return lastSweep;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.hmcts.service;
+
+import com.example.hmcts.dto.TaskResponseDto;
+
+import java.util.List;
+
+/**
+ * One keyset page of tasks. nextCursor is null when there are no further rows.
+ */
+public record TaskPage(List<TaskResponseDto> tasks, String nextCursor) {
+}
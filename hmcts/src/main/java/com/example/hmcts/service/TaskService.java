@@ -1,104 +1,415 @@
 package com.example.hmcts.service;
 
+import com.example.hmcts.config.CacheConfig;
 import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.dto.TaskResponseDto;
+import com.example.hmcts.event.TaskChangedEvent;
 import com.example.hmcts.exception.TaskNotFoundException;
+import com.example.hmcts.exception.TaskVersionMismatchException;
 import com.example.hmcts.model.Task;
 import com.example.hmcts.model.TaskStatus;
 import com.example.hmcts.repository.TaskRepository;
+import com.example.hmcts.search.TaskSearchIndex;
+import com.example.hmcts.shard.TaskShards;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class TaskService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+    public static final int DEFAULT_DUE_WITHIN_HOURS = 24;
+    public static final int MAX_DUE_WITHIN_HOURS = 24 * 30;
+    /** Statuses of tasks that can still become overdue. */
+    static final Set<TaskStatus> OPEN_STATUSES =
+            Collections.unmodifiableSet(EnumSet.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS));
+    static final String OPERATION_TIMER = "tasks.operation";
+    /** The order of task lists, matching their keyset cursors. */
+    static final Comparator<TaskResponseDto> DUE_ORDER =
+            Comparator.comparing(TaskResponseDto::getDueDateTime).thenComparingInt(TaskResponseDto::getTaskId);
+
     private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskMetrics taskMetrics;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskIdAllocator taskIdAllocator;
+    private final TaskShards taskShards;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, ApplicationEventPublisher eventPublisher,
+                       TaskMetrics taskMetrics, TaskSearchIndex taskSearchIndex, TaskIdAllocator taskIdAllocator,
+                       TaskShards taskShards, PlatformTransactionManager transactionManager) {
         this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.taskMetrics = taskMetrics;
+        this.taskSearchIndex = taskSearchIndex;
+        this.taskIdAllocator = taskIdAllocator;
+        this.taskShards = taskShards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Transactional
-    public void deleteTask(int taskId) {
-        Task existingTask = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + taskId));
-        taskRepository.delete(existingTask);
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#taskId")
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "delete"})
+    public void deleteTask(int taskId, Long expectedVersion) {
+        taskShards.bind(taskId);
+        int deleted = expectedVersion == null
+                ? taskRepository.deleteIfExists(taskId)
+                : taskRepository.deleteAtVersion(taskId, expectedVersion);
+        if (deleted == 0) {
+            throw missingOrStale(taskId, expectedVersion);
+        }
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(taskId));
     }
 
     @Transactional
-    public Task updateTask(int taskId, TaskRequestDto taskRequestDto) {
-        validateTaskData(taskRequestDto);
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#taskId")
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "update"})
+    public Task updateTask(int taskId, TaskRequestDto taskRequestDto, Long expectedVersion) {
+        return updateTask(taskId, taskRequestDto, checkTaskData(taskRequestDto), expectedVersion);
+    }
+
+    /**
+     * As {@link #updateTask(int, TaskRequestDto, Long)}, for a caller that has already checked the request
+     * with {@link #checkTaskData} and passes the result instead of having the request checked again.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#taskId")
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "update"})
+    public Task updateTask(int taskId, TaskRequestDto taskRequestDto, TaskDataCheck check, Long expectedVersion) {
+        requireValid(check);
+        taskShards.bind(taskId);
 
         Task existingTask = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + taskId));
+        checkVersion(existingTask, expectedVersion);
 
+        TaskStatus previousStatus = existingTask.getTaskStatus();
+        existingTask.setPreviousStatus(previousStatus);
         setTaskFields(existingTask, taskRequestDto);
-        return taskRepository.save(existingTask);
+        Task savedTask = taskRepository.save(existingTask);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(savedTask, previousStatus));
+        return savedTask;
     }
 
     @Transactional
-    public Task updateTaskStatus(int taskId, TaskStatus taskStatus) {
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#taskId")
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "update_status"})
+    public Task updateTaskStatus(int taskId, TaskStatus taskStatus, Long expectedVersion) {
         if (taskStatus == null) {
             throw new IllegalArgumentException("Task status cannot be null");
         }
+        taskShards.bind(taskId);
 
-        Task existingTask = taskRepository.findById(taskId)
+        Instant now = Instant.now();
+        int updated = expectedVersion == null
+                ? taskRepository.updateStatus(taskId, taskStatus, now)
+                : taskRepository.updateStatusAtVersion(taskId, taskStatus, expectedVersion, now);
+        if (updated == 0) {
+            throw missingOrStale(taskId, expectedVersion);
+        }
+        // MySQL has no UPDATE ... RETURNING, so the response is read back by primary key. The row is
+        // already locked by the UPDATE, so it carries the status the UPDATE replaced.
+        Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + taskId));
-        existingTask.setTaskStatus(taskStatus);
-        return taskRepository.save(existingTask);
+        eventPublisher.publishEvent(TaskChangedEvent.statusChanged(task, task.getPreviousStatus()));
+        return task;
+    }
+
+    @Transactional(readOnly = true)
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "list"})
+    public TaskPage getTasks(TaskStatus status, LocalDateTime dueFrom, LocalDateTime dueTo, String cursor, int limit) {
+        checkPageSize(limit);
+        if (dueFrom != null && dueTo != null && !dueFrom.isBefore(dueTo)) {
+            throw new IllegalArgumentException("dueFrom must be before dueTo");
+        }
+
+        TaskCursor after = startAt(TaskCursor.before(dueFrom == null ? TaskRepository.MIN_DUE_DATE_TIME : dueFrom), cursor);
+        LocalDateTime until = dueTo == null ? TaskRepository.MAX_DUE_DATE_TIME : dueTo;
+        // Fetch one extra row to learn whether another page exists without a count query. Each shard
+        // returns its first rows after the cursor and the page is the first rows of them all.
+        List<TaskResponseDto> tasks = taskShards.mergeSorted(taskShards.fanOut(shard -> status == null
+                        ? taskRepository.findResponsePage(after.dueDateTime(), after.taskId(), until, Limit.of(limit + 1))
+                        : taskRepository.findResponsePageByStatus(status, after.dueDateTime(), after.taskId(), until,
+                                Limit.of(limit + 1))),
+                DUE_ORDER, TaskResponseDto::getTaskId, limit + 1);
+        taskMetrics.recordListSize(Math.min(tasks.size(), limit));
+        return toPage(tasks, limit);
+    }
+
+    /**
+     * One page of the open tasks falling due within the next few hours, earliest first.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "due"})
+    public TaskPage getTasksDueWithin(int hours, String cursor, int limit) {
+        if (hours < 1 || hours > MAX_DUE_WITHIN_HOURS) {
+            throw new IllegalArgumentException("Due window must be between 1 and " + MAX_DUE_WITHIN_HOURS + " hours");
+        }
+        checkPageSize(limit);
+        LocalDateTime now = LocalDateTime.now();
+        // Strictly after now; a cursor that has since fallen into the past restarts the list at now
+        TaskCursor after = startAt(new TaskCursor(now, Integer.MAX_VALUE), cursor);
+        return toPage(findOpenDueBetween(after, now.plusHours(hours), limit + 1), limit);
+    }
+
+    /**
+     * One page of the open tasks whose due date has passed, most overdue first.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "overdue"})
+    public TaskPage getOverdueTasks(String cursor, int limit) {
+        checkPageSize(limit);
+        TaskCursor after = startAt(TaskCursor.before(TaskRepository.MIN_DUE_DATE_TIME), cursor);
+        return toPage(findOpenDueBetween(after, LocalDateTime.now(), limit + 1), limit);
+    }
+
+    /**
+     * The open tasks after the position and due at or before until, earliest first. Each open status is
+     * read with a range scan of its own on every shard and the scans merged.
+     */
+    private List<TaskResponseDto> findOpenDueBetween(TaskCursor after, LocalDateTime until, int limit) {
+        return taskShards.mergeSorted(taskShards.fanOut(shard -> {
+            List<TaskResponseDto> tasks = new ArrayList<>();
+            for (TaskStatus status : OPEN_STATUSES) {
+                tasks.addAll(taskRepository.findResponsesDueBetween(status, after.dueDateTime(), after.taskId(), until,
+                        Limit.of(limit)));
+            }
+            tasks.sort(DUE_ORDER);
+            return tasks.size() <= limit ? tasks : tasks.subList(0, limit);
+        }), DUE_ORDER, TaskResponseDto::getTaskId, limit);
+    }
+
+    /**
+     * The position a page starts after: the cursor, unless there is none or it lies before the start
+     * of the listing's range.
+     */
+    private static TaskCursor startAt(TaskCursor start, String cursor) {
+        if (cursor == null) {
+            return start;
+        }
+        TaskCursor after = TaskCursor.decode(cursor);
+        int order = after.dueDateTime().compareTo(start.dueDateTime());
+        return order < 0 || (order == 0 && after.taskId() < start.taskId()) ? start : after;
+    }
+
+    /**
+     * Cuts rows read with one extra row, to tell whether there is another page, down to a page.
+     */
+    private static TaskPage toPage(List<TaskResponseDto> tasks, int limit) {
+        if (tasks.size() <= limit) {
+            return new TaskPage(tasks, null);
+        }
+        List<TaskResponseDto> page = tasks.subList(0, limit);
+        TaskResponseDto last = page.get(limit - 1);
+        return new TaskPage(page, new TaskCursor(last.getDueDateTime(), last.getTaskId()).encode());
+    }
+
+    /**
+     * Finds tasks whose title or description contain words starting with each word of the query,
+     * best match first. Matching ids come from the in-memory index; only those rows are read.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "search"})
+    public List<TaskResponseDto> searchTasks(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Search limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+
+        List<Integer> taskIds = taskSearchIndex.search(query, limit);
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, List<Integer>> idsByShard = taskShards.groupByShard(taskIds);
+        Map<Integer, TaskResponseDto> tasksById = new HashMap<>();
+        taskShards.fanOut(shard -> idsByShard.containsKey(shard)
+                        ? taskRepository.findResponsesByIds(idsByShard.get(shard))
+                        : List.<TaskResponseDto>of())
+                .forEach(tasks -> tasks.forEach(task -> tasksById.put(task.getTaskId(), task)));
+        // Keep the index's ranking; ids whose rows have since been deleted are dropped
+        return taskIds.stream()
+                .map(tasksById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Hands every task to the consumer, shard by shard and in id order within each shard. Rows are
+     * projected rather than loaded as entities, so the persistence context stays empty however many
+     * rows are exported.
+     */
+    @Transactional(readOnly = true)
+    public void exportTasks(Consumer<TaskResponseDto> consumer) {
+        taskShards.forEachShard(shard -> {
+            try (Stream<TaskResponseDto> tasks = taskRepository.streamAllResponses()) {
+                tasks.filter(task -> taskShards.owns(shard, task.getTaskId())).forEach(consumer);
+            }
+        });
     }
 
-    public List<Task> getAllTasks() {
-        return taskRepository.findAll();
+    /**
+     * Read-through cached view of a task. Loads are computed atomically per id, and evictions from the
+     * mutating methods run after commit, so a concurrent load cannot re-cache a superseded value.
+     * Deliberately not read-only: with read replicas configured, a load from a lagging replica would
+     * be cached long after the replica caught up, so cache misses are read from the primary.
+     */
+    @Cacheable(cacheNames = CacheConfig.TASKS_CACHE, sync = true)
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "get"})
+    @Transactional
+    public TaskResponseDto getTaskResponseById(int taskId) {
+        taskShards.bind(taskId);
+        return taskRepository.findResponseById(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + taskId));
     }
 
     public Task getTaskById(int taskId) {
-        return taskRepository.findById(taskId)
+        return taskShards.onShard(taskShards.shardOf(taskId), () -> taskRepository.findById(taskId))
                 .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + taskId));
     }
 
-    @Transactional
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "create"})
     public Task createTask(TaskRequestDto taskRequestDto) {
-        validateTaskData(taskRequestDto);
+        return createTask(taskRequestDto, checkTaskData(taskRequestDto));
+    }
+
+    /**
+     * As {@link #createTask(TaskRequestDto)}, for a caller that has already checked the request with
+     * {@link #checkTaskData} and passes the result instead of having the request checked again.
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = {"operation", "create"})
+    public Task createTask(TaskRequestDto taskRequestDto, TaskDataCheck check) {
+        requireValid(check);
 
-        Task task = new Task();
-        setTaskFields(task, taskRequestDto);
-        return taskRepository.save(task);
+        // Taken before the transaction, so reserving a new block of ids never waits for a second connection
+        int taskId = taskIdAllocator.nextId();
+        return transactionTemplate.execute(status -> {
+            taskShards.bind(taskId);
+            Task task = new Task();
+            task.setTaskId(taskId);
+            setTaskFields(task, taskRequestDto);
+            Task savedTask = taskRepository.save(task);
+            eventPublisher.publishEvent(TaskChangedEvent.created(savedTask));
+            return savedTask;
+        });
     }
 
-    private void validateTaskData(TaskRequestDto taskRequestDto) {
+    private static void checkPageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Rejects the change when the caller's expected version (from If-Match) is stale.
+     * A null expected version means the write is unconditional; concurrent writers are still
+     * caught at flush time by the entity's @Version column.
+     */
+    private void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && task.getVersion() != expectedVersion) {
+            throw new TaskVersionMismatchException("Task " + task.getTaskId() + " is at version "
+                    + task.getVersion() + ", expected " + expectedVersion);
+        }
+    }
+
+    /**
+     * The error for a conditional write that matched no row. Only then is the task looked up, to tell a
+     * stale If-Match version (412) from a missing task (404).
+     */
+    private RuntimeException missingOrStale(int taskId, Long expectedVersion) {
+        if (expectedVersion != null && taskRepository.existsById(taskId)) {
+            return new TaskVersionMismatchException("Task " + taskId + " is not at expected version " + expectedVersion);
+        }
+        return new TaskNotFoundException("Task not found with id: " + taskId);
+    }
+
+    /**
+     * Throws the first failed check of {@link #checkTaskData} for callers that have not checked the request
+     * themselves.
+     */
+    static void validateTaskData(TaskRequestDto taskRequestDto) {
+        requireValid(checkTaskData(taskRequestDto));
+    }
+
+    private static void requireValid(TaskDataCheck check) {
+        if (!check.isValid()) {
+            throw new IllegalArgumentException(check.message());
+        }
+    }
+
+    /**
+     * The checks of {@link #validateTaskData} without the exception, for callers that report a
+     * rejected request rather than fail on it. The due date is compared with a clock read at most
+     * once per millisecond, so a valid request allocates nothing here.
+     */
+    public static TaskDataCheck checkTaskData(TaskRequestDto taskRequestDto) {
+        TaskDataCheck check = checkTaskFields(taskRequestDto);
+        if (check.isValid() && taskRequestDto.getDueDateTime().isBefore(CoarseClock.now())) {
+            return TaskDataCheck.PAST_DUE_DATE;
+        }
+        return check;
+    }
+
+    /**
+     * Checks everything {@link #checkTaskData} does except that the due date is in the future,
+     * for tasks that were accepted earlier and are only being written now.
+     */
+    public static TaskDataCheck checkTaskFields(TaskRequestDto taskRequestDto) {
         if (taskRequestDto == null) {
-            throw new IllegalArgumentException("Task data cannot be null");
+            return TaskDataCheck.MISSING_DATA;
         }
 
-        if (taskRequestDto.getTaskTitle() == null) {
-            throw new IllegalArgumentException("Task title cannot be null");
+        String taskTitle = taskRequestDto.getTaskTitle();
+        if (taskTitle == null) {
+            return TaskDataCheck.MISSING_TITLE;
         }
-        if (taskRequestDto.getTaskTitle().isBlank()) {
-            throw new IllegalArgumentException("Task title cannot be empty");
+        if (taskTitle.isBlank()) {
+            return TaskDataCheck.BLANK_TITLE;
         }
-        if (taskRequestDto.getTaskTitle().length() > 50) {
-            throw new IllegalArgumentException("Task title exceeds maximum length of 50 characters");
+        if (taskTitle.length() > 50) {
+            return TaskDataCheck.TITLE_TOO_LONG;
         }
 
         if (taskRequestDto.getTaskStatus() == null) {
-            throw new IllegalArgumentException("Task status cannot be null");
+            return TaskDataCheck.MISSING_STATUS;
         }
 
         if (taskRequestDto.getDueDateTime() == null) {
-            throw new IllegalArgumentException("Due date cannot be null");
-        }
-        if (taskRequestDto.getDueDateTime().isBefore(LocalDateTime.now())) {
-            throw new IllegalArgumentException("Due date must be in the future");
+            return TaskDataCheck.MISSING_DUE_DATE;
         }
+        return TaskDataCheck.VALID;
     }
 
-    private void setTaskFields(Task task, TaskRequestDto taskRequestDto) {
+    static void setTaskFields(Task task, TaskRequestDto taskRequestDto) {
         task.setTaskTitle(taskRequestDto.getTaskTitle());
         task.setTaskDescription(taskRequestDto.getTaskDescription());
         task.setTaskStatus(taskRequestDto.getTaskStatus());
@@ -0,0 +1,116 @@
+package com.example.hmcts.service;
+
+import com.example.hmcts.dto.TaskStatsDto;
+import com.example.hmcts.event.TaskChangedEvent;
+import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.repository.TaskRepository;
+import com.example.hmcts.repository.TaskStatusCount;
+import com.example.hmcts.shard.TaskShards;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Task counts per status and overdue, kept in memory so the status board is answered without a query.
+ * <p>
+ * Status counts are LongAdders moved by each committed change, using the status the change left. They
+ * are recounted with one GROUP BY on the first refresh and then once every reconcile interval, to
+ * correct drift such as a change committing while a recount runs. A delete does not say which status it
+ * removed, so it has the next refresh recount instead.
+ * <p>
+ * Overdue changes with the clock rather than with writes, so it is recounted on every refresh with a
+ * range count over the (task_status, due_datetime) index, which reads only the overdue rows.
+ * <p>
+ * With several shards both counts are summed over the shards, counted at once.
+ */
+@Component
+public class TaskStatistics {
+
+    private final TaskRepository taskRepository;
+    private final TaskShards taskShards;
+    private final Duration reconcileInterval;
+    private final Map<TaskStatus, LongAdder> statusCounts = new EnumMap<>(TaskStatus.class);
+    private volatile Instant lastReconciled = Instant.MIN;
+    private volatile boolean reconcileDue;
+    private volatile long overdue;
+
+    public TaskStatistics(TaskRepository taskRepository, TaskShards taskShards,
+                          @Value("${hmcts.stats.reconcile-interval:PT5M}") Duration reconcileInterval) {
+        this.taskRepository = taskRepository;
+        this.taskShards = taskShards;
+        this.reconcileInterval = reconcileInterval;
+        for (TaskStatus status : TaskStatus.values()) {
+            statusCounts.put(status, new LongAdder());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChanged(TaskChangedEvent change) {
+        switch (change.type()) {
+            case CREATED -> statusCounts.get(change.task().getTaskStatus()).increment();
+            case UPDATED, STATUS_CHANGED -> {
+                if (change.previousStatus() != change.task().getTaskStatus()) {
+                    statusCounts.get(change.previousStatus()).decrement();
+                    statusCounts.get(change.task().getTaskStatus()).increment();
+                }
+            }
+            case DELETED -> reconcileDue = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${hmcts.stats.refresh-interval:PT10S}")
+    public void refresh() {
+        Instant now = Instant.now();
+        if (reconcileDue || !now.isBefore(lastReconciled.plus(reconcileInterval))) {
+            // Cleared first, so a delete committing during the recount has the next refresh count again
+            reconcileDue = false;
+            reconcileStatusCounts();
+            lastReconciled = now;
+        }
+        LocalDateTime until = LocalDateTime.now();
+        overdue = taskShards.fanOut(shard -> taskRepository.countDueBefore(TaskService.OPEN_STATUSES, until)).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    private void reconcileStatusCounts() {
+        // Corrected by the difference from the counts seen before the GROUP BY rather than reset to its
+        // result, so a change applied during the recount is kept. One that commits while the query runs
+        // may be counted twice until the next reconcile.
+        Map<TaskStatus, Long> before = new EnumMap<>(TaskStatus.class);
+        statusCounts.forEach((status, count) -> before.put(status, count.sum()));
+        Map<TaskStatus, Long> counted = new EnumMap<>(TaskStatus.class);
+        for (List<TaskStatusCount> shardCounts : taskShards.fanOut(shard -> taskRepository.countByStatus())) {
+            for (TaskStatusCount statusCount : shardCounts) {
+                counted.merge(statusCount.status(), statusCount.count(), Long::sum);
+            }
+        }
+        statusCounts.forEach((status, count) -> count.add(counted.getOrDefault(status, 0L) - before.get(status)));
+    }
+
+    public TaskStatsDto getStats() {
+        Map<TaskStatus, Long> countsByStatus = new EnumMap<>(TaskStatus.class);
+        long total = 0;
+        for (Map.Entry<TaskStatus, LongAdder> entry : statusCounts.entrySet()) {
+            long count = entry.getValue().sum();
+            countsByStatus.put(entry.getKey(), count);
+            total += count;
+        }
+
+        TaskStatsDto statsDto = new TaskStatsDto();
+        statsDto.setCountsByStatus(countsByStatus);
+        statsDto.setTotal(total);
+        statsDto.setOverdue(overdue);
+        return statsDto;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.hmcts.shard;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread's database work goes to, read by {@link ShardRoutingDataSource} when a
+ * connection is first used. No shard means the home shard.
+ * <p>
+ * A transaction takes its physical connection at its first statement, so the shard must be chosen
+ * before then and stays fixed for the rest of the transaction.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * The shard chosen for the current thread, or null for the home shard.
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs work against the given shard, then restores the previous choice.
+     */
+    public static <T> T callOn(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Sends the rest of the current transaction to the given shard, restoring the previous choice when
+     * the transaction completes. Binding it again to the same shard does nothing.
+     *
+     * @throws IllegalStateException if there is no transaction, or it is already bound to another shard
+     */
+    public static void bindToTransaction(int shard) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Shard " + shard + " can only be bound inside a transaction");
+        }
+        Integer bound = (Integer) TransactionSynchronizationManager.getResource(ShardContext.class);
+        if (bound != null) {
+            if (bound != shard) {
+                throw new IllegalStateException("Transaction is bound to shard " + bound + ", not shard " + shard);
+            }
+            return;
+        }
+
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        TransactionSynchronizationManager.bindResource(ShardContext.class, shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(ShardContext.class);
+                restore(previous);
+            }
+
+            @Override
+            public void resume() {
+                CURRENT.set(shard);
+                TransactionSynchronizationManager.bindResource(ShardContext.class, shard);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ShardContext.class);
+                restore(previous);
+            }
+        });
+    }
+
+    private static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.hmcts.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections to the shard chosen in the {@link ShardContext}, or to the home shard when none
+ * is chosen. Shards are numbered by their position in the list, the home shard being shard 0.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < this.shards.size(); i++) {
+            targets.put(i, this.shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(this.shards.get(0));
+        // A shard number with no data source is a bug, never a reason to write to the home shard
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    /**
+     * Closes the pools of the other shards; the home shard's pool is a bean of its own.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource shard : shards.subList(1, shards.size())) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
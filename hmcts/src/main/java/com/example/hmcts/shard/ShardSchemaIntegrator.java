@@ -0,0 +1,38 @@
+package com.example.hmcts.shard;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+
+/**
+ * Applies the schema action configured for Hibernate (spring.jpa.hibernate.ddl-auto) to every shard
+ * beside the home shard, which Hibernate looks after itself. Dropping the schema at shutdown, as
+ * create-drop does, is left to the home shard.
+ */
+public class ShardSchemaIntegrator implements Integrator {
+
+    private final int shardCount;
+
+    public ShardSchemaIntegrator(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        for (int shard = 1; shard < shardCount; shard++) {
+            ShardContext.callOn(shard, () -> {
+                SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(),
+                        sessionFactory.getProperties(), action -> {
+                        });
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.hmcts.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Settings under hmcts.sharding.
+ *
+ * @param shards the shards beside the home shard configured under spring.datasource, numbered from 1 in order
+ * @param buckets how many buckets task ids are hashed into; fixed once tasks have been written
+ * @param maximumPoolSize the connection pool size of each listed shard
+ */
+@ConfigurationProperties("hmcts.sharding")
+public record ShardingProperties(List<Shard> shards,
+                                 @DefaultValue("1024") int buckets,
+                                 @DefaultValue("10") int maximumPoolSize) {
+
+    /**
+     * @param url the shard's JDBC URL
+     * @param username the shard user, the home shard's when not set
+     * @param password the shard password, the home shard's when not set
+     */
+    public record Shard(String url, String username, String password) {
+    }
+
+    public ShardingProperties {
+        shards = shards == null ? List.of() : List.copyOf(shards);
+    }
+}
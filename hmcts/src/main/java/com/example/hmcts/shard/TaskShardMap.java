@@ -0,0 +1,182 @@
+package com.example.hmcts.shard;
+
+import com.example.hmcts.exception.TaskShardMovedException;
+import com.example.hmcts.model.TaskShardBucket;
+import com.example.hmcts.repository.TaskShardBucketRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Which shard owns each bucket of task ids. A task's bucket is its id modulo the bucket count, and the
+ * task lives on the bucket's owner.
+ * <p>
+ * Ownership is stored on the shards themselves, each listing the buckets it owns in task_shard_bucket, so
+ * a bucket's rows and its ownership move together. This instance keeps a copy of the map, read at startup
+ * and refreshed every refresh interval; the copy can be one interval behind a move made elsewhere, which
+ * {@link #checkOwned} catches before a write lands on the old owner. Should a bucket be listed on two shards,
+ * as after a move interrupted between its two commits, the lower-numbered shard is taken to own it.
+ * <p>
+ * When no shard owns any bucket, as on first start, the buckets are dealt out round-robin.
+ */
+public class TaskShardMap {
+
+    private final TaskShardBucketRepository bucketRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate transactionTemplate;
+    private final int shardCount;
+    private final int buckets;
+    private volatile int[] owners;
+
+    public TaskShardMap(TaskShardBucketRepository bucketRepository, PlatformTransactionManager transactionManager,
+                        int shardCount, int buckets) {
+        if (buckets < 1) {
+            throw new IllegalArgumentException("Bucket count must be positive");
+        }
+        this.bucketRepository = bucketRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shardCount = shardCount;
+        this.buckets = buckets;
+    }
+
+    @PostConstruct
+    public void load() {
+        int[] read = readOwners();
+        if (Arrays.stream(read).allMatch(owner -> owner < 0)) {
+            seed();
+            read = readOwners();
+        }
+        List<Integer> unowned = new ArrayList<>();
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            if (read[bucket] < 0) {
+                unowned.add(bucket);
+            }
+        }
+        if (!unowned.isEmpty()) {
+            throw new IllegalStateException(unowned.size() + " task buckets are owned by no shard, starting with "
+                    + unowned.get(0) + "; was a shard that owns buckets removed from hmcts.sharding.shards?");
+        }
+        owners = read;
+    }
+
+    /**
+     * Re-reads ownership from every shard. If a shard cannot be read the previous map is kept.
+     */
+    @Scheduled(fixedDelayString = "${hmcts.sharding.refresh-interval:PT1S}")
+    public void refresh() {
+        int[] read = readOwners();
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            if (read[bucket] < 0) {
+                // Moved between the reads of its two shards; picked up at the next refresh
+                read[bucket] = owners[bucket];
+            }
+        }
+        owners = read;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public int bucketOf(int taskId) {
+        return Math.floorMod(taskId, buckets);
+    }
+
+    public int shardOf(int taskId) {
+        return owners[bucketOf(taskId)];
+    }
+
+    public int ownerOf(int bucket) {
+        return owners[bucket];
+    }
+
+    /**
+     * The number of buckets each shard owns, by shard number.
+     */
+    public int[] bucketCounts() {
+        int[] counts = new int[shardCount];
+        for (int owner : owners) {
+            counts[owner]++;
+        }
+        return counts;
+    }
+
+    /**
+     * The shards listing the bucket, lowest first, read from the shards rather than this instance's copy.
+     */
+    public List<Integer> readOwnersOf(int bucket) {
+        List<Integer> bucketOwners = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            boolean owned = ShardContext.callOn(shard, () -> readOnlyTransaction.execute(
+                    status -> bucketRepository.existsById(bucket)));
+            if (owned) {
+                bucketOwners.add(shard);
+            }
+        }
+        return bucketOwners;
+    }
+
+    /**
+     * Checks that the shard the current transaction is bound to still owns the tasks' buckets, and
+     * share-locks their ownership until the transaction ends so they cannot be moved away meanwhile.
+     *
+     * @throws TaskShardMovedException if a bucket has moved to another shard
+     */
+    public void checkOwned(int shard, Collection<Integer> taskIds) {
+        Set<Integer> wanted = taskIds.stream().map(this::bucketOf).collect(Collectors.toSet());
+        List<TaskShardBucket> owned = bucketRepository.lockForShare(wanted);
+        if (owned.size() < wanted.size()) {
+            throw new TaskShardMovedException("Tasks " + taskIds + " are no longer all on shard " + shard);
+        }
+    }
+
+    private int[] readOwners() {
+        int[] read = new int[buckets];
+        Arrays.fill(read, -1);
+        // Highest shard first, so a bucket listed twice ends up with the lower-numbered owner
+        for (int shard = shardCount - 1; shard >= 0; shard--) {
+            List<Integer> owned = ShardContext.callOn(shard, () -> readOnlyTransaction.execute(
+                    status -> bucketRepository.findOwnedBuckets()));
+            for (int bucket : owned) {
+                if (bucket >= buckets) {
+                    throw new IllegalStateException("Shard " + shard + " owns bucket " + bucket + " but only "
+                            + buckets + " are configured; hmcts.sharding.buckets cannot be changed once in use");
+                }
+                read[bucket] = shard;
+            }
+        }
+        return read;
+    }
+
+    private void seed() {
+        for (int shard = 0; shard < shardCount; shard++) {
+            List<TaskShardBucket> dealt = new ArrayList<>();
+            for (int bucket = shard; bucket < buckets; bucket += shardCount) {
+                dealt.add(new TaskShardBucket(bucket));
+            }
+            try {
+                ShardContext.callOn(shard, () -> transactionTemplate.execute(status -> bucketRepository.saveAll(dealt)));
+            } catch (DataIntegrityViolationException ex) {
+                // Another instance starting at the same time dealt this shard the same buckets
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.hmcts.shard;
+
+import com.example.hmcts.model.Task;
+import com.example.hmcts.model.TaskCurrentStatus;
+import com.example.hmcts.model.TaskOutboxMessage;
+import com.example.hmcts.model.TaskShardBucket;
+import com.example.hmcts.model.TaskStatusTransition;
+import com.example.hmcts.repository.TaskCurrentStatusRepository;
+import com.example.hmcts.repository.TaskOutboxRepository;
+import com.example.hmcts.repository.TaskRepository;
+import com.example.hmcts.repository.TaskShardBucketRepository;
+import com.example.hmcts.repository.TaskStatusTransitionRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves buckets of tasks between shards while the application keeps serving.
+ * <p>
+ * A move runs in a transaction on the source shard that first locks the bucket's ownership row there,
+ * waiting for writes to the bucket in flight and holding back new ones, which fail with a
+ * {@link com.example.hmcts.exception.TaskShardMovedException} once the move commits. The bucket's tasks,
+ * status history and waiting outbox messages are copied to the target shard, which takes ownership, in a
+ * transaction of its own; only once that has committed are they deleted from the source. Reads are never
+ * held back: until the source commits they are answered from the source.
+ * <p>
+ * A move that failed part way can be run again. Should it have failed between the two commits, the bucket
+ * is listed on both shards, the lower-numbered of which kept serving it, and running the move again
+ * finishes it from there.
+ */
+public class TaskShardRebalancer {
+
+    private final TaskShardMap shardMap;
+    private final TaskShardBucketRepository bucketRepository;
+    private final TaskRepository taskRepository;
+    private final TaskStatusTransitionRepository transitionRepository;
+    private final TaskCurrentStatusRepository currentStatusRepository;
+    private final TaskOutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public TaskShardRebalancer(TaskShardMap shardMap, TaskShardBucketRepository bucketRepository,
+                               TaskRepository taskRepository, TaskStatusTransitionRepository transitionRepository,
+                               TaskCurrentStatusRepository currentStatusRepository, TaskOutboxRepository outboxRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.shardMap = shardMap;
+        this.bucketRepository = bucketRepository;
+        this.taskRepository = taskRepository;
+        this.transitionRepository = transitionRepository;
+        this.currentStatusRepository = currentStatusRepository;
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Moves a bucket to the target shard.
+     *
+     * @return the number of tasks moved, 0 when the target already owned the bucket
+     */
+    public int moveBucket(int bucket, int target) {
+        if (bucket < 0 || bucket >= shardMap.getBuckets()) {
+            throw new IllegalArgumentException("Bucket must be between 0 and " + (shardMap.getBuckets() - 1));
+        }
+        if (target < 0 || target >= shardMap.getShardCount()) {
+            throw new IllegalArgumentException("Shard must be between 0 and " + (shardMap.getShardCount() - 1));
+        }
+
+        lock.lock();
+        try {
+            List<Integer> owners = shardMap.readOwnersOf(bucket);
+            if (owners.isEmpty()) {
+                throw new IllegalStateException("Bucket " + bucket + " is owned by no shard");
+            }
+            int source = owners.get(0);
+            int moved = source == target ? 0 : copyAndRemove(bucket, source, target);
+            // Copies left on further shards by an earlier move that failed between its commits
+            for (int owner : owners) {
+                if (owner != source && owner != target) {
+                    ShardContext.callOn(owner, () -> transactionTemplate.execute(status -> remove(bucket)));
+                }
+            }
+            shardMap.refresh();
+            return moved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves buckets from the shards owning most to those owning fewest until no two shards differ by more
+     * than one bucket, as after adding a shard.
+     *
+     * @return the number of buckets moved
+     */
+    public int rebalance() {
+        lock.lock();
+        try {
+            int moved = 0;
+            while (true) {
+                int[] counts = shardMap.bucketCounts();
+                int most = 0;
+                int fewest = 0;
+                for (int shard = 1; shard < counts.length; shard++) {
+                    most = counts[shard] > counts[most] ? shard : most;
+                    fewest = counts[shard] < counts[fewest] ? shard : fewest;
+                }
+                if (counts[most] - counts[fewest] <= 1) {
+                    return moved;
+                }
+                moveBucket(lastBucketOwnedBy(most), fewest);
+                moved++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int lastBucketOwnedBy(int shard) {
+        for (int bucket = shardMap.getBuckets() - 1; bucket >= 0; bucket--) {
+            if (shardMap.ownerOf(bucket) == shard) {
+                return bucket;
+            }
+        }
+        throw new IllegalStateException("Shard " + shard + " owns no bucket");
+    }
+
+    private int copyAndRemove(int bucket, int source, int target) {
+        int buckets = shardMap.getBuckets();
+        return ShardContext.callOn(source, () -> transactionTemplate.execute(status -> {
+            if (bucketRepository.lockForUpdate(bucket).isEmpty()) {
+                throw new IllegalStateException("Bucket " + bucket + " moved off shard " + source + " meanwhile");
+            }
+            List<Task> tasks = taskRepository.findInBucket(buckets, bucket);
+            List<TaskStatusTransition> transitions = transitionRepository.findInBucket(buckets, bucket);
+            List<TaskCurrentStatus> currentStatuses = currentStatusRepository.findInBucket(buckets, bucket);
+            List<TaskOutboxMessage> messages = outboxRepository.findInBucket(buckets, bucket);
+
+            ShardContext.callOn(target, () -> transactionTemplate.execute(targetStatus -> {
+                // Rows copied by an earlier attempt that failed before the source committed
+                remove(bucket);
+                tasks.forEach(taskRepository::insertCopy);
+                // History and outbox rows take new ids from the target; written in order, they keep their order
+                transitionRepository.saveAll(transitions.stream()
+                        .map(entry -> new TaskStatusTransition(entry.getTaskId(), entry.getStatus(), entry.getChangedAt()))
+                        .toList());
+                currentStatusRepository.saveAll(currentStatuses.stream()
+                        .map(row -> new TaskCurrentStatus(row.getTaskId(), row.getStatus(), row.getEnteredAt()))
+                        .toList());
+                outboxRepository.saveAll(messages.stream()
+                        .map(message -> new TaskOutboxMessage(message.getTaskId(), message.getTaskVersion(),
+                                message.getEventType(), message.getPayload(), message.getCreatedAt()))
+                        .toList());
+                bucketRepository.save(new TaskShardBucket(bucket));
+                return null;
+            }));
+
+            remove(bucket);
+            return tasks.size();
+        }));
+    }
+
+    /**
+     * Deletes a bucket's rows and ownership from the shard the current transaction is on.
+     */
+    private Void remove(int bucket) {
+        int buckets = shardMap.getBuckets();
+        bucketRepository.deleteAllByIdInBatch(List.of(bucket));
+        taskRepository.deleteInBucket(buckets, bucket);
+        transitionRepository.deleteInBucket(buckets, bucket);
+        currentStatusRepository.deleteInBucket(buckets, bucket);
+        outboxRepository.deleteInBucket(buckets, bucket);
+        return null;
+    }
+}
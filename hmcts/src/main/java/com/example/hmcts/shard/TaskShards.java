@@ -0,0 +1,227 @@
+package com.example.hmcts.shard;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * How the task services reach the shard holding a task, or all shards for queries across tasks.
+ * <p>
+ * Without hmcts.sharding.enabled there is a single shard, the data source under spring.datasource, and
+ * every method runs its work directly in the caller's transaction.
+ */
+@Component
+public class TaskShards {
+
+    private final TaskShardMap shardMap;
+    private final TransactionTemplate shardReadTransaction;
+    private final ExecutorService executor;
+
+    @Autowired
+    public TaskShards(ObjectProvider<TaskShardMap> shardMap, PlatformTransactionManager transactionManager) {
+        this(shardMap.getIfAvailable(), transactionManager);
+    }
+
+    private TaskShards(TaskShardMap shardMap, PlatformTransactionManager transactionManager) {
+        this.shardMap = shardMap;
+        if (shardMap == null) {
+            this.shardReadTransaction = null;
+            this.executor = null;
+        } else {
+            // Each shard's part of a query runs in a transaction of its own, on its own connection
+            this.shardReadTransaction = new TransactionTemplate(transactionManager);
+            this.shardReadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            this.shardReadTransaction.setReadOnly(true);
+            this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        }
+    }
+
+    /**
+     * A single shard, for tests of the services above.
+     */
+    public static TaskShards unsharded() {
+        return new TaskShards((TaskShardMap) null, null);
+    }
+
+    public int count() {
+        return shardMap == null ? 1 : shardMap.getShardCount();
+    }
+
+    public int shardOf(int taskId) {
+        return shardMap == null ? 0 : shardMap.shardOf(taskId);
+    }
+
+    /**
+     * Whether this instance's shard map places the task on the shard. A row read from any other shard is a
+     * copy left by a bucket move in progress.
+     */
+    public boolean owns(int shard, int taskId) {
+        return shardOf(taskId) == shard;
+    }
+
+    /**
+     * Sends the current transaction to the task's shard and holds the task's bucket there until it ends.
+     * Must come before the transaction's first statement.
+     *
+     * @throws com.example.hmcts.exception.TaskShardMovedException if the bucket has just moved to another shard
+     */
+    public void bind(int taskId) {
+        bind(shardOf(taskId), List.of(taskId));
+    }
+
+    /**
+     * Sends the current transaction to the given shard and holds the tasks' buckets there until it ends.
+     * The tasks must all be on the shard, as grouped by {@link #groupByShard}.
+     */
+    public void bind(int shard, Collection<Integer> taskIds) {
+        if (shardMap == null) {
+            return;
+        }
+        ShardContext.bindToTransaction(shard);
+        shardMap.checkOwned(shard, taskIds);
+    }
+
+    /**
+     * Runs work outside any transaction against the given shard.
+     */
+    public <T> T onShard(int shard, Supplier<T> work) {
+        return shardMap == null ? work.get() : ShardContext.callOn(shard, work);
+    }
+
+    /**
+     * Runs work outside any transaction against the home shard, which holds everything that is not
+     * split by task.
+     */
+    public <T> T onHome(Supplier<T> work) {
+        return onShard(0, work);
+    }
+
+    /**
+     * Runs a read-only query on every shard at once, each in a transaction of its own, and returns the
+     * results by shard number.
+     */
+    public <T> List<T> fanOut(IntFunction<T> query) {
+        if (shardMap == null) {
+            return List.of(query.apply(0));
+        }
+        List<Future<T>> futures = new ArrayList<>(count());
+        for (int shard = 0; shard < count(); shard++) {
+            int target = shard;
+            futures.add(executor.submit(() -> ShardContext.callOn(target,
+                    () -> shardReadTransaction.execute(status -> query.apply(target)))));
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted waiting for shards", ex);
+        } catch (ExecutionException ex) {
+            futures.forEach(future -> future.cancel(true));
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Runs read-only work against each shard in turn, each in a transaction of its own, for reads too
+     * large to collect from all shards at once.
+     */
+    public void forEachShard(IntConsumer work) {
+        if (shardMap == null) {
+            work.accept(0);
+            return;
+        }
+        for (int shard = 0; shard < count(); shard++) {
+            int target = shard;
+            ShardContext.callOn(target, () -> shardReadTransaction.execute(status -> {
+                work.accept(target);
+                return null;
+            }));
+        }
+    }
+
+    /**
+     * Task ids grouped by the shard holding them, in shard order, keeping the given order within each group.
+     */
+    public Map<Integer, List<Integer>> groupByShard(Collection<Integer> taskIds) {
+        Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+        for (int shard = 0; shard < count(); shard++) {
+            groups.put(shard, new ArrayList<>());
+        }
+        taskIds.forEach(taskId -> groups.get(shardOf(taskId)).add(taskId));
+        groups.values().removeIf(List::isEmpty);
+        return groups;
+    }
+
+    /**
+     * Merges rows read from every shard, each shard's rows already sorted by the comparator, into the first
+     * limit rows overall. Rows read from a shard that does not own them are dropped.
+     *
+     * @param perShard each shard's rows, by shard number
+     * @param taskId the task id of a row
+     */
+    public <T> List<T> mergeSorted(List<List<T>> perShard, Comparator<? super T> comparator,
+                                   ToIntFunction<? super T> taskId, int limit) {
+        if (perShard.size() == 1) {
+            List<T> rows = perShard.get(0);
+            return rows.size() <= limit ? rows : rows.subList(0, limit);
+        }
+
+        record Head<T>(T row, int shard, int index) {
+        }
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(perShard.size(),
+                (first, second) -> comparator.compare(first.row(), second.row()));
+        for (int shard = 0; shard < perShard.size(); shard++) {
+            if (!perShard.get(shard).isEmpty()) {
+                heads.add(new Head<>(perShard.get(shard).get(0), shard, 0));
+            }
+        }
+        List<T> merged = new ArrayList<>(Math.min(limit, perShard.stream().mapToInt(List::size).sum()));
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head<T> head = heads.poll();
+            if (owns(head.shard(), taskId.applyAsInt(head.row()))) {
+                merged.add(head.row());
+            }
+            List<T> rows = perShard.get(head.shard());
+            if (head.index() + 1 < rows.size()) {
+                heads.add(new Head<>(rows.get(head.index() + 1), head.shard(), head.index() + 1));
+            }
+        }
+        return merged;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
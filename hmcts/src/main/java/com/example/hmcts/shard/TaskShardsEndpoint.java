@@ -0,0 +1,59 @@
+package com.example.hmcts.shard;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Actuator endpoint showing how task buckets are spread over the shards and moving them:
+ * POST /actuator/taskshards evens the spread out, and POST /actuator/taskshards/{bucket} with a
+ * {"shard": n} body moves one bucket.
+ */
+@Endpoint(id = "taskshards")
+public class TaskShardsEndpoint {
+
+    private final TaskShardMap shardMap;
+    private final TaskShardRebalancer rebalancer;
+
+    /**
+     * @param buckets the number of buckets
+     * @param bucketsByShard the number of buckets each shard owns, by shard number
+     */
+    public record ShardsDescriptor(int buckets, List<Integer> bucketsByShard) {
+    }
+
+    public record MoveDescriptor(int bucket, int shard, int tasksMoved) {
+    }
+
+    public record RebalanceDescriptor(int bucketsMoved, List<Integer> bucketsByShard) {
+    }
+
+    public TaskShardsEndpoint(TaskShardMap shardMap, TaskShardRebalancer rebalancer) {
+        this.shardMap = shardMap;
+        this.rebalancer = rebalancer;
+    }
+
+    @ReadOperation
+    public ShardsDescriptor shards() {
+        return new ShardsDescriptor(shardMap.getBuckets(), bucketsByShard());
+    }
+
+    @WriteOperation
+    public RebalanceDescriptor rebalance() {
+        int moved = rebalancer.rebalance();
+        return new RebalanceDescriptor(moved, bucketsByShard());
+    }
+
+    @WriteOperation
+    public MoveDescriptor moveBucket(@Selector int bucket, int shard) {
+        return new MoveDescriptor(bucket, shard, rebalancer.moveBucket(bucket, shard));
+    }
+
+    private List<Integer> bucketsByShard() {
+        return Arrays.stream(shardMap.bucketCounts()).boxed().toList();
+    }
+}
@@ -10,6 +10,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 		"com.example.hmcts.controller",
 		"com.example.hmcts.service",
 		"com.example.hmcts.repository",
+		"com.example.hmcts.event",
+		"com.example.hmcts.search",
+		"com.example.hmcts.datasource",
+		"com.example.hmcts.admission",
+		"com.example.hmcts.idempotency",
+		"com.example.hmcts.outbox",
+		"com.example.hmcts.loadtest",
+		"com.example.hmcts.shard",
+		"com.example.hmcts.grpc",
 		"com.example.hmcts.integration"
 })
 @SpringBootTest
@@ -0,0 +1,91 @@
+package com.example.hmcts.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit, int minLimit, int maxLimit) {
+        return new AdaptiveConcurrencyLimiter(
+                new AdmissionProperties.Concurrency(initialLimit, minLimit, maxLimit, 2.0, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void testRefusesRequestsAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.release(10 * MILLIS);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void testLimitFallsWhenLatencyRisesAndRecovers() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20, 5, 40);
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(10 * MILLIS);
+        }
+        int steady = limiter.getLimit();
+
+        // The database slows down tenfold, for requests one after another
+        long now = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            now += 100 * MILLIS;
+            limiter.tryAcquire();
+            limiter.release(100 * MILLIS, now);
+        }
+        assertEquals(5, limiter.getLimit());
+        assertTrue(limiter.getLimit() < steady);
+
+        // Back to normal, with the service busy enough to use the limit
+        for (int i = 0; i < 200; i++) {
+            for (int j = 0; j < limiter.getLimit(); j++) {
+                limiter.tryAcquire();
+            }
+            limiter.release(10 * MILLIS);
+            while (limiter.getInFlight() > 0) {
+                limiter.release(10 * MILLIS);
+            }
+        }
+        assertTrue(limiter.getLimit() > 5);
+    }
+
+    @Test
+    void testCutsOncePerRoundTrip() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20, 5, 40);
+        long now = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            now += 10 * MILLIS;
+            limiter.tryAcquire();
+            limiter.release(10 * MILLIS, now);
+        }
+        int steady = limiter.getLimit();
+
+        // Twenty slow requests running side by side finish together: one cut, not twenty
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+        }
+        now += 100 * MILLIS;
+        for (int i = 0; i < 20; i++) {
+            limiter.release(100 * MILLIS, now + i);
+        }
+        int cut = limiter.getLimit();
+        assertEquals((int) (steady * 0.9), cut);
+
+        // A request admitted after the cut that is still slow cuts again
+        limiter.tryAcquire();
+        limiter.release(100 * MILLIS, now + 100 * MILLIS + 20);
+        assertEquals((int) (cut * 0.9), limiter.getLimit());
+    }
+}
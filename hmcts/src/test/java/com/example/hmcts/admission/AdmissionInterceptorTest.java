@@ -0,0 +1,95 @@
+package com.example.hmcts.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdmissionInterceptor interceptor(int concurrencyLimit) {
+        AdmissionProperties properties = new AdmissionProperties("X-Api-Key", Set.of("dashboard", "other"), 100,
+                new AdmissionProperties.RateLimit(100, 100),
+                Map.of("GET /task", new AdmissionProperties.RateLimit(1, 0.5)),
+                new AdmissionProperties.Concurrency(concurrencyLimit, concurrencyLimit, concurrencyLimit, 2.0,
+                        Duration.ofSeconds(2)));
+        return new AdmissionInterceptor(new ClientRateLimiter(properties),
+                new AdaptiveConcurrencyLimiter(properties.concurrency()), properties, meterRegistry);
+    }
+
+    private static MockHttpServletRequest request(String method, String pattern, String apiKey) {
+        return request(method, pattern, apiKey, "127.0.0.1");
+    }
+
+    private static MockHttpServletRequest request(String method, String pattern, String apiKey, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, pattern);
+        request.setRemoteAddr(remoteAddr);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        if (apiKey != null) {
+            request.addHeader("X-Api-Key", apiKey);
+        }
+        return request;
+    }
+
+    @Test
+    void testRateLimitsEachClientPerEndpoint() throws Exception {
+        AdmissionInterceptor interceptor = interceptor(10);
+
+        MockHttpServletRequest first = request("GET", "/task", "dashboard");
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), null));
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+
+        MockHttpServletResponse refused = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("GET", "/task", "dashboard"), refused, null));
+        assertEquals(429, refused.getStatus());
+        assertEquals("2", refused.getHeader("Retry-After"));
+        assertEquals(1, meterRegistry.get("tasks.admission.rejected")
+                .tags("reason", "rate_limit", "endpoint", "GET /task").counter().count());
+
+        // Other clients, and the same client on other endpoints, are unaffected
+        assertTrue(interceptor.preHandle(request("GET", "/task", "other"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("GET", "/task/{taskId}", "dashboard"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void testUnknownKeysAreLimitedByRemoteAddress() throws Exception {
+        AdmissionInterceptor interceptor = interceptor(10);
+
+        assertTrue(interceptor.preHandle(request("GET", "/task", "made-up-1", "10.0.0.1"), new MockHttpServletResponse(), null));
+
+        // A fresh key that was never issued does not buy a fresh bucket
+        MockHttpServletResponse refused = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("GET", "/task", "made-up-2", "10.0.0.1"), refused, null));
+        assertEquals(429, refused.getStatus());
+        assertFalse(interceptor.preHandle(request("GET", "/task", null, "10.0.0.1"), new MockHttpServletResponse(), null));
+
+        // An issued key, or another address, is charged separately
+        assertTrue(interceptor.preHandle(request("GET", "/task", "dashboard", "10.0.0.1"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("GET", "/task", "made-up-1", "10.0.0.2"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void testShedsLoadAboveConcurrencyLimit() throws Exception {
+        AdmissionInterceptor interceptor = interceptor(1);
+
+        MockHttpServletRequest running = request("GET", "/task/{taskId}", "a");
+        assertTrue(interceptor.preHandle(running, new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse refused = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("GET", "/task/{taskId}", "b"), refused, null));
+        assertEquals(503, refused.getStatus());
+        assertEquals("2", refused.getHeader("Retry-After"));
+
+        interceptor.afterCompletion(running, new MockHttpServletResponse(), null, null);
+        assertTrue(interceptor.preHandle(request("GET", "/task/{taskId}", "b"), new MockHttpServletResponse(), null));
+    }
+}
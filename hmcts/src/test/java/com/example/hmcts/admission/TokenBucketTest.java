@@ -0,0 +1,45 @@
+package com.example.hmcts.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testAllowsBurstThenRefills() {
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        // Empty: the next token arrives after half a second at two tokens a second
+        assertEquals(SECOND / 2, bucket.tryConsume(0));
+
+        assertEquals(0, bucket.tryConsume(SECOND / 2));
+        assertTrue(bucket.tryConsume(SECOND / 2) > 0);
+    }
+
+    @Test
+    void testRefillIsCappedAtCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+
+        long later = 60 * SECOND;
+        assertEquals(0, bucket.tryConsume(later));
+        assertEquals(0, bucket.tryConsume(later));
+        assertTrue(bucket.tryConsume(later) > 0);
+    }
+
+    @Test
+    void testEarlierClockReadingDoesNotRemoveTokens() {
+        TokenBucket bucket = new TokenBucket(1, 1, SECOND);
+
+        assertEquals(0, bucket.tryConsume(SECOND));
+        // A thread that read the clock before the last update sees no refill rather than a negative one
+        assertEquals(SECOND, bucket.tryConsume(SECOND - 1000));
+    }
+}
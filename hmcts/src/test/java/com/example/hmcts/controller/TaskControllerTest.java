@@ -1,29 +1,63 @@
 package com.example.hmcts.controller;
 
+import com.example.hmcts.config.WireFormatConfig;
 import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.dto.TaskResponseDto;
+import com.example.hmcts.dto.TaskStatsDto;
+import com.example.hmcts.dto.TaskTransitionDto;
+import com.example.hmcts.event.TaskEventBroadcaster;
+import com.example.hmcts.exception.TaskNotFoundException;
+import com.example.hmcts.idempotency.IdempotencyStore;
+import com.example.hmcts.exception.TaskVersionMismatchException;
 import com.example.hmcts.model.Task;
 import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.repository.IdempotencyRecordRepository;
+import com.example.hmcts.service.TaskBatchResult;
+import com.example.hmcts.service.TaskBatchService;
+import com.example.hmcts.service.TaskDataCheck;
+import com.example.hmcts.service.TaskHistoryPage;
+import com.example.hmcts.service.TaskHistoryService;
+import com.example.hmcts.service.TaskPage;
 import com.example.hmcts.service.TaskService;
+import com.example.hmcts.service.TaskStatistics;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TaskController.class)
+@Import({IdempotencyStore.class, WireFormatConfig.class})
 public class TaskControllerTest {
 
     @Autowired
@@ -32,9 +66,27 @@ public class TaskControllerTest {
     @MockBean
     private TaskService taskService;
 
+    @MockBean
+    private TaskBatchService taskBatchService;
+
+    @MockBean
+    private TaskStatistics taskStatistics;
+
+    @MockBean
+    private TaskHistoryService taskHistoryService;
+
+    @MockBean
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    @MockBean
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
     private Task testTask;
     private TaskRequestDto testTaskRequestDto;
     private LocalDateTime futureDate;
@@ -61,7 +113,7 @@ public class TaskControllerTest {
 
     @Test
     void testCreateTask() throws Exception {
-        when(taskService.createTask(any(TaskRequestDto.class))).thenReturn(testTask);
+        when(taskService.createTask(any(TaskRequestDto.class), eq(TaskDataCheck.VALID))).thenReturn(testTask);
 
         mockMvc.perform(post("/task")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -72,9 +124,56 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.taskStatus", is("TODO")));
     }
 
+    @Test
+    void testCreateTask_Cbor() throws Exception {
+        when(taskService.createTask(any(TaskRequestDto.class), eq(TaskDataCheck.VALID))).thenReturn(testTask);
+        ObjectMapper cborMapper = cborConverter.getObjectMapper();
+
+        MvcResult result = mockMvc.perform(post("/task")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(testTaskRequestDto)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        TaskResponseDto created = cborMapper.readValue(result.getResponse().getContentAsByteArray(), TaskResponseDto.class);
+        assertEquals(1, created.getTaskId());
+        assertEquals("TODO", created.getTaskStatus());
+        assertEquals(futureDate, created.getDueDateTime());
+        verify(taskService).createTask(argThat(request -> futureDate.equals(request.getDueDateTime())), eq(TaskDataCheck.VALID));
+    }
+
+    @Test
+    void testCreateTask_IdempotencyKeyReplaysOriginalResponse() throws Exception {
+        when(taskService.createTask(any(TaskRequestDto.class), eq(TaskDataCheck.VALID))).thenReturn(testTask);
+        String body = objectMapper.writeValueAsString(testTaskRequestDto);
+        // The store outlives this test in the cached context, so each run needs a key of its own
+        String key = UUID.randomUUID().toString();
+
+        mockMvc.perform(post("/task").header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+        mockMvc.perform(post("/task").header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.taskId", is(1)));
+
+        verify(taskService, times(1)).createTask(any(TaskRequestDto.class), eq(TaskDataCheck.VALID));
+
+        // The same key with a different task is refused
+        testTaskRequestDto.setTaskTitle("Another Task");
+        mockMvc.perform(post("/task").header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testTaskRequestDto)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
     @Test
     void testGetTaskById() throws Exception {
-        when(taskService.getTaskById(1)).thenReturn(testTask);
+        when(taskService.getTaskResponseById(1)).thenReturn(TaskResponseDto.fromTask(testTask));
 
         mockMvc.perform(get("/task/1"))
                 .andExpect(status().isOk())
@@ -82,20 +181,231 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.taskTitle", is("Test Task")));
     }
 
+    @Test
+    void testGetTaskById_NotModified() throws Exception {
+        testTask.setVersion(3);
+        when(taskService.getTaskResponseById(1)).thenReturn(TaskResponseDto.fromTask(testTask));
+
+        mockMvc.perform(get("/task/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+
+        mockMvc.perform(get("/task/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/task/1").header("If-None-Match", "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskId", is(1)));
+    }
+
+    @Test
+    void testGetTaskById_NotFound() throws Exception {
+        when(taskService.getTaskResponseById(99)).thenThrow(new TaskNotFoundException("Task not found with id: 99"));
+
+        mockMvc.perform(get("/task/99"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testGetAllTasks() throws Exception {
-        when(taskService.getAllTasks()).thenReturn(Arrays.asList(testTask));
+        when(taskService.getTasks(isNull(), isNull(), isNull(), isNull(), eq(TaskService.DEFAULT_PAGE_SIZE)))
+                .thenReturn(new TaskPage(Arrays.asList(TaskResponseDto.fromTask(testTask)), "next"));
 
         mockMvc.perform(get("/task"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(1)))
+                .andExpect(jsonPath("$.tasks[0].taskId", is(1)))
+                .andExpect(jsonPath("$.tasks[0].taskTitle", is("Test Task")))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+    }
+
+    @Test
+    void testGetAllTasks_NotModified() throws Exception {
+        TaskResponseDto testResponseDto = TaskResponseDto.fromTask(testTask);
+        when(taskService.getTasks(isNull(), isNull(), isNull(), isNull(), eq(TaskService.DEFAULT_PAGE_SIZE)))
+                .thenReturn(new TaskPage(Arrays.asList(testResponseDto), null));
+
+        String eTag = mockMvc.perform(get("/task"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/task").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        testResponseDto.setVersion(testResponseDto.getVersion() + 1);
+        mockMvc.perform(get("/task").header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testGetAllTasksWithFilters() throws Exception {
+        when(taskService.getTasks(eq(TaskStatus.TODO), eq(LocalDateTime.of(2030, 1, 1, 0, 0)), isNull(), eq("abc"), eq(10)))
+                .thenReturn(new TaskPage(Arrays.asList(TaskResponseDto.fromTask(testTask)), null));
+
+        mockMvc.perform(get("/task")
+                        .param("status", "TODO")
+                        .param("dueFrom", "2030-01-01T00:00:00")
+                        .param("cursor", "abc")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void testGetAllTasksInvalidCursor() throws Exception {
+        when(taskService.getTasks(isNull(), isNull(), isNull(), eq("bad"), eq(TaskService.DEFAULT_PAGE_SIZE)))
+                .thenThrow(new IllegalArgumentException("Invalid cursor: bad"));
+
+        mockMvc.perform(get("/task").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetTasksDueAndOverdue() throws Exception {
+        when(taskService.getTasksDueWithin(6, null, TaskService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TaskPage(List.of(TaskResponseDto.fromTask(testTask)), "next"));
+        when(taskService.getOverdueTasks("next", 5)).thenReturn(new TaskPage(List.of(), null));
+
+        mockMvc.perform(get("/task/due").param("within", "6"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(1)))
+                .andExpect(jsonPath("$.tasks[0].taskId", is(1)))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+
+        mockMvc.perform(get("/task/overdue").param("cursor", "next").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(0)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void testGetTaskStats() throws Exception {
+        TaskStatsDto statsDto = new TaskStatsDto();
+        statsDto.setCountsByStatus(Map.of(TaskStatus.TODO, 2L, TaskStatus.IN_PROGRESS, 1L, TaskStatus.COMPLETED, 0L));
+        statsDto.setTotal(3);
+        statsDto.setOverdue(1);
+        when(taskStatistics.getStats()).thenReturn(statsDto);
+
+        mockMvc.perform(get("/task/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.countsByStatus.TODO", is(2)))
+                .andExpect(jsonPath("$.total", is(3)))
+                .andExpect(jsonPath("$.overdue", is(1)));
+    }
+
+    @Test
+    void testGetTaskHistory() throws Exception {
+        TaskTransitionDto created = new TaskTransitionDto();
+        created.setTaskId(1);
+        created.setToStatus("TODO");
+        created.setChangedAt(Instant.parse("2030-01-01T09:00:00Z"));
+        created.setSecondsInStatus(60L);
+        TaskTransitionDto started = new TaskTransitionDto();
+        started.setTaskId(1);
+        started.setFromStatus("TODO");
+        started.setToStatus("IN_PROGRESS");
+        started.setChangedAt(Instant.parse("2030-01-01T09:01:00Z"));
+        when(taskHistoryService.getHistory(1, null, TaskService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TaskHistoryPage(List.of(created, started), "next"));
+
+        mockMvc.perform(get("/task/1/history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transitions", hasSize(2)))
+                .andExpect(jsonPath("$.transitions[0].fromStatus").doesNotExist())
+                .andExpect(jsonPath("$.transitions[0].secondsInStatus", is(60)))
+                .andExpect(jsonPath("$.transitions[1].fromStatus", is("TODO")))
+                .andExpect(jsonPath("$.transitions[1].toStatus", is("IN_PROGRESS")))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+    }
+
+    @Test
+    void testGetTimeInStatus() throws Exception {
+        when(taskHistoryService.getTimeInStatus(TaskStatus.IN_PROGRESS, null, 10))
+                .thenReturn(new TaskHistoryPage(List.of(), null));
+
+        mockMvc.perform(get("/task/time-in-status").param("status", "IN_PROGRESS").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transitions", hasSize(0)));
+
+        mockMvc.perform(get("/task/time-in-status"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSearchTasks() throws Exception {
+        when(taskService.searchTasks("hear", TaskService.DEFAULT_SEARCH_LIMIT))
+                .thenReturn(List.of(TaskResponseDto.fromTask(testTask)));
+
+        mockMvc.perform(get("/task/search").param("q", "hear"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].taskId", is(1)))
-                .andExpect(jsonPath("$[0].taskTitle", is("Test Task")));
+                .andExpect(jsonPath("$[0].taskId", is(1)));
+
+        mockMvc.perform(get("/task/search"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testExportTasks() throws Exception {
+        Task second = new Task(2, "Second Task", null, TaskStatus.IN_PROGRESS, futureDate);
+        doAnswer(invocation -> {
+            Consumer<TaskResponseDto> consumer = invocation.getArgument(0);
+            consumer.accept(TaskResponseDto.fromTask(testTask));
+            consumer.accept(TaskResponseDto.fromTask(second));
+            return null;
+        }).when(taskService).exportTasks(any());
+
+        MvcResult result = mockMvc.perform(get("/task/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1, objectMapper.readTree(lines[0]).get("taskId").asInt());
+        assertEquals("Second Task", objectMapper.readTree(lines[1]).get("taskTitle").asText());
+    }
+
+    @Test
+    void testExportTasks_CborSequence() throws Exception {
+        Task second = new Task(2, "Second Task", null, TaskStatus.IN_PROGRESS, futureDate);
+        doAnswer(invocation -> {
+            Consumer<TaskResponseDto> consumer = invocation.getArgument(0);
+            consumer.accept(TaskResponseDto.fromTask(testTask));
+            consumer.accept(TaskResponseDto.fromTask(second));
+            return null;
+        }).when(taskService).exportTasks(any());
+
+        MvcResult result = mockMvc.perform(get("/task/export").accept(WireFormatConfig.APPLICATION_CBOR_SEQ))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(WireFormatConfig.APPLICATION_CBOR_SEQ));
+
+        List<TaskResponseDto> exported = cborConverter.getObjectMapper().readerFor(TaskResponseDto.class)
+                .<TaskResponseDto>readValues(result.getResponse().getContentAsByteArray()).readAll();
+        assertEquals(List.of(1, 2), exported.stream().map(TaskResponseDto::getTaskId).toList());
+        assertEquals("Second Task", exported.get(1).getTaskTitle());
+    }
+
+    @Test
+    void testStreamTaskEvents() throws Exception {
+        when(taskEventBroadcaster.subscribe("abc:3")).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/task/stream").header("Last-Event-ID", "abc:3"))
+                .andExpect(request().asyncStarted());
     }
 
     @Test
     void testUpdateTask() throws Exception {
-        when(taskService.updateTask(eq(1), any(TaskRequestDto.class))).thenReturn(testTask);
+        when(taskService.updateTask(eq(1), any(TaskRequestDto.class), eq(TaskDataCheck.VALID), isNull())).thenReturn(testTask);
 
         mockMvc.perform(put("/task/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -105,10 +415,30 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.taskTitle", is("Test Task")));
     }
 
+    @Test
+    void testCreateAndUpdateTask_InvalidRequest() throws Exception {
+        testTaskRequestDto.setTaskTitle(" ");
+        mockMvc.perform(post("/task")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testTaskRequestDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Task title cannot be empty"));
+
+        testTaskRequestDto.setTaskTitle("Test Task");
+        testTaskRequestDto.setDueDateTime(LocalDateTime.now().minusDays(1));
+        mockMvc.perform(put("/task/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testTaskRequestDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Due date must be in the future"));
+
+        verifyNoInteractions(taskService);
+    }
+
     @Test
     void testUpdateTaskStatus() throws Exception {
         testTask.setTaskStatus(TaskStatus.COMPLETED);
-        when(taskService.updateTaskStatus(eq(1), eq(TaskStatus.COMPLETED))).thenReturn(testTask);
+        when(taskService.updateTaskStatus(eq(1), eq(TaskStatus.COMPLETED), isNull())).thenReturn(testTask);
 
         mockMvc.perform(patch("/task/1/status")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -117,9 +447,79 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.taskStatus", is("COMPLETED")));
     }
 
+    @Test
+    void testCreateTasksBatch() throws Exception {
+        when(taskBatchService.createTasks(any())).thenReturn(List.of(
+                new TaskBatchResult(0, TaskBatchResult.Outcome.CREATED, 1, testTask, null),
+                new TaskBatchResult(1, TaskBatchResult.Outcome.INVALID, null, null, "Task title cannot be null")));
+
+        mockMvc.perform(post("/task/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(testTaskRequestDto, new TaskRequestDto()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is(201)))
+                .andExpect(jsonPath("$[0].task.taskTitle", is("Test Task")))
+                .andExpect(jsonPath("$[1].status", is(400)))
+                .andExpect(jsonPath("$[1].error", is("Task title cannot be null")));
+    }
+
+    @Test
+    void testUpdateTaskStatusesBatch() throws Exception {
+        testTask.setTaskStatus(TaskStatus.COMPLETED);
+        when(taskBatchService.updateTaskStatuses(any())).thenReturn(List.of(
+                new TaskBatchResult(0, TaskBatchResult.Outcome.UPDATED, 1, testTask, null),
+                new TaskBatchResult(1, TaskBatchResult.Outcome.NOT_FOUND, 99, null, "Task not found with id: 99")));
+
+        mockMvc.perform(patch("/task/batch/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"taskId\":1,\"taskStatus\":\"COMPLETED\"},{\"taskId\":99,\"taskStatus\":\"TODO\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[0].task.taskStatus", is("COMPLETED")))
+                .andExpect(jsonPath("$[1].status", is(404)))
+                .andExpect(jsonPath("$[1].taskId", is(99)));
+    }
+
+    @Test
+    void testDeleteTasksBatch() throws Exception {
+        when(taskBatchService.deleteTasks(List.of(1))).thenReturn(List.of(
+                new TaskBatchResult(0, TaskBatchResult.Outcome.DELETED, 1, null, null)));
+
+        mockMvc.perform(delete("/task/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(204)))
+                .andExpect(jsonPath("$[0].taskId", is(1)));
+    }
+
+    @Test
+    void testUpdateTask_IfMatch() throws Exception {
+        when(taskService.updateTask(eq(1), any(TaskRequestDto.class), eq(TaskDataCheck.VALID), eq(2L)))
+                .thenThrow(new TaskVersionMismatchException("Task 1 is at version 3, expected 2"));
+
+        mockMvc.perform(put("/task/1")
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testTaskRequestDto)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(delete("/task/1").header("If-Match", "W/\"3\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void testDeleteTask() throws Exception {
         mockMvc.perform(delete("/task/1"))
                 .andExpect(status().isNoContent());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDeleteTask_NotFound() throws Exception {
+        doThrow(new TaskNotFoundException("Task not found with id: 99")).when(taskService).deleteTask(99, null);
+
+        mockMvc.perform(delete("/task/99"))
+                .andExpect(status().isNotFound());
+    }
+}
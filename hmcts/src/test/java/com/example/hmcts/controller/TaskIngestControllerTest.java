@@ -0,0 +1,89 @@
+package com.example.hmcts.controller;
+
+import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.exception.TaskIngestQueueFullException;
+import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.service.TaskIngestQueue;
+import com.example.hmcts.service.TaskIngestStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = TaskIngestController.class, properties = "hmcts.ingest.enabled=true")
+public class TaskIngestControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TaskIngestQueue taskIngestQueue;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private TaskRequestDto taskRequestDto;
+
+    @BeforeEach
+    void setUp() {
+        taskRequestDto = new TaskRequestDto();
+        taskRequestDto.setTaskTitle("Async Task");
+        taskRequestDto.setTaskStatus(TaskStatus.TODO);
+        taskRequestDto.setDueDateTime(LocalDateTime.now().plusDays(1));
+    }
+
+    @Test
+    void testSubmitTask() throws Exception {
+        when(taskIngestQueue.submit(any(TaskRequestDto.class))).thenReturn("abc");
+
+        mockMvc.perform(post("/task/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(taskRequestDto)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/task/async/abc"))
+                .andExpect(jsonPath("$.trackingId", is("abc")))
+                .andExpect(jsonPath("$.status", is("QUEUED")));
+    }
+
+    @Test
+    void testSubmitTask_QueueFull() throws Exception {
+        when(taskIngestQueue.submit(any(TaskRequestDto.class)))
+                .thenThrow(new TaskIngestQueueFullException("Ingest queue is full"));
+
+        mockMvc.perform(post("/task/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(taskRequestDto)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void testGetStatus() throws Exception {
+        when(taskIngestQueue.getStatus("abc"))
+                .thenReturn(Optional.of(new TaskIngestStatus(TaskIngestStatus.State.CREATED, 7, null)));
+        when(taskIngestQueue.getStatus("gone")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/task/async/abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("CREATED")))
+                .andExpect(jsonPath("$.taskId", is(7)))
+                .andExpect(jsonPath("$.error").doesNotExist());
+
+        mockMvc.perform(get("/task/async/gone"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.hmcts.datasource;
+
+import com.example.hmcts.datasource.ReplicaRoutingDataSource.Replica;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private static final Instant NOW = Instant.parse("2030-01-01T00:00:00Z");
+
+    private JdbcDataSource primary;
+    private JdbcDataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        routing = new ReplicaRoutingDataSource(primary, List.of(new Replica("replica-0", replica)),
+                Duration.ofSeconds(2), Clock.fixed(NOW, ZoneOffset.UTC));
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+    }
+
+    @Test
+    void testReadOnlyTransactionsUseCaughtUpReplica() {
+        replicate(NOW.toEpochMilli() - 500);
+
+        routing.checkReplicas();
+
+        assertTrue(routing.getReplicas().get(0).isHealthy());
+        assertEquals(500, routing.getReplicas().get(0).getLagMillis());
+        assertEquals("replica", readOnlyTransaction.execute(status -> whichDatabase()));
+        assertEquals("primary", transaction.execute(status -> whichDatabase()));
+    }
+
+    @Test
+    void testReadsStayOnPrimaryUntilReplicaChecked() {
+        replicate(NOW.toEpochMilli());
+
+        assertFalse(routing.getReplicas().get(0).isHealthy());
+        assertEquals("primary", readOnlyTransaction.execute(status -> whichDatabase()));
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToPrimary() {
+        replicate(NOW.toEpochMilli() - 10_000);
+
+        routing.checkReplicas();
+
+        assertFalse(routing.getReplicas().get(0).isHealthy());
+        assertEquals(10_000, routing.getReplicas().get(0).getLagMillis());
+        assertEquals("primary", readOnlyTransaction.execute(status -> whichDatabase()));
+
+        // Caught up again
+        replicate(NOW.toEpochMilli());
+        routing.checkReplicas();
+
+        assertEquals("replica", readOnlyTransaction.execute(status -> whichDatabase()));
+    }
+
+    @Test
+    void testUnreachableReplicaFallsBackToPrimary() {
+        JdbcDataSource missing = new JdbcDataSource();
+        // Nothing listens on port 1
+        missing.setURL("jdbc:h2:tcp://localhost:1/missing");
+        routing = new ReplicaRoutingDataSource(primary, List.of(new Replica("replica-0", missing)),
+                Duration.ofSeconds(2), Clock.fixed(NOW, ZoneOffset.UTC));
+
+        routing.checkReplicas();
+
+        assertFalse(routing.getReplicas().get(0).isHealthy());
+        assertEquals(-1, routing.getReplicas().get(0).getLagMillis());
+        assertEquals("primary", new JdbcTemplate(routing).queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    @Test
+    void testCheckWritesHeartbeatToPrimary() {
+        routing.checkReplicas();
+        routing.checkReplicas();
+
+        assertEquals(NOW.toEpochMilli(), new JdbcTemplate(primary).queryForObject(
+                "SELECT beat_millis FROM " + ReplicaRoutingDataSource.HEARTBEAT_TABLE + " WHERE id = 1", Long.class));
+    }
+
+    private String whichDatabase() {
+        return jdbc.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    /**
+     * Stands in for replication: puts the heartbeat the replica would have received.
+     */
+    private void replicate(long beatMillis) {
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("CREATE TABLE IF NOT EXISTS " + ReplicaRoutingDataSource.HEARTBEAT_TABLE
+                + " (id INT NOT NULL PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        replicaJdbc.update("MERGE INTO " + ReplicaRoutingDataSource.HEARTBEAT_TABLE
+                + " (id, beat_millis) KEY (id) VALUES (1, ?)", beatMillis);
+    }
+
+    private static JdbcDataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE marker (name VARCHAR(16))");
+        jdbc.update("INSERT INTO marker VALUES (?)", name);
+        return dataSource;
+    }
+}
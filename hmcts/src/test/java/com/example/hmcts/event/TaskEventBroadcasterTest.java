@@ -0,0 +1,86 @@
+package com.example.hmcts.event;
+
+import com.example.hmcts.dto.TaskResponseDto;
+import com.example.hmcts.model.Task;
+import com.example.hmcts.model.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskEventBroadcasterTest {
+
+    private TaskEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new TaskEventBroadcaster(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    private void publish(int taskId) {
+        Task task = new Task(taskId, "Task " + taskId, null, TaskStatus.TODO, LocalDateTime.now().plusDays(1));
+        broadcaster.onTaskChanged(TaskChangedEvent.created(task));
+    }
+
+    private List<TaskEventBroadcaster.BufferedEvent> eventsAfter(String lastEventId) {
+        return broadcaster.eventsAfter(lastEventId);
+    }
+
+    @Test
+    void testReplaysEventsAfterLastEventId() {
+        publish(1);
+        String afterFirst = broadcaster.currentEventId();
+        publish(2);
+        publish(3);
+
+        List<TaskEventBroadcaster.BufferedEvent> missed = eventsAfter(afterFirst);
+
+        assertEquals(2, missed.size());
+        assertEquals(2, missed.get(0).event().getTaskId());
+        assertEquals("CREATED", missed.get(0).event().getType());
+        assertEquals("Task 3", missed.get(1).event().getTask().getTaskTitle());
+        assertTrue(eventsAfter(broadcaster.currentEventId()).isEmpty());
+        assertTrue(eventsAfter(null).isEmpty());
+    }
+
+    @Test
+    void testResetWhenClientCannotBeCaughtUp() {
+        publish(1);
+        String afterFirst = broadcaster.currentEventId();
+        publish(2);
+        String afterSecond = broadcaster.currentEventId();
+        publish(3);
+        publish(4);
+        publish(5);
+
+        // Buffer holds events 3-5, so a client at 1 has missed event 2
+        assertNull(eventsAfter(afterFirst));
+        assertEquals(3, eventsAfter(afterSecond).size());
+        // Ids from another process or beyond the current sequence cannot be resumed
+        assertNull(eventsAfter("otherepoch:2"));
+        assertNull(eventsAfter(broadcaster.currentEventId().replace(":5", ":9")));
+        assertNull(eventsAfter("garbage"));
+    }
+
+    @Test
+    void testBuffersOverdueNotices() {
+        String before = broadcaster.currentEventId();
+        Task task = new Task(7, "Overdue", null, TaskStatus.TODO, LocalDateTime.now().minusMinutes(1));
+        broadcaster.onTaskOverdue(new TaskOverdueEvent(TaskResponseDto.fromTask(task)));
+
+        List<TaskEventBroadcaster.BufferedEvent> missed = eventsAfter(before);
+
+        assertEquals(1, missed.size());
+        assertEquals(TaskEventBroadcaster.OVERDUE, missed.get(0).event().getType());
+        assertEquals(7, missed.get(0).event().getTaskId());
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.hmcts.grpc;
+
+import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.dto.TaskResponseDto;
+import com.example.hmcts.dto.TaskStatusUpdateDto;
+import com.example.hmcts.exception.TaskNotFoundException;
+import com.example.hmcts.grpc.v1.BatchResult;
+import com.example.hmcts.grpc.v1.CreateTaskRequest;
+import com.example.hmcts.grpc.v1.GetTaskRequest;
+import com.example.hmcts.grpc.v1.ListTasksRequest;
+import com.example.hmcts.grpc.v1.Task;
+import com.example.hmcts.grpc.v1.TaskInput;
+import com.example.hmcts.grpc.v1.TaskServiceGrpc;
+import com.example.hmcts.grpc.v1.TaskStatus;
+import com.example.hmcts.grpc.v1.TaskStatusUpdate;
+import com.example.hmcts.service.TaskBatchResult;
+import com.example.hmcts.service.TaskBatchService;
+import com.example.hmcts.service.TaskDataCheck;
+import com.example.hmcts.service.TaskHistoryService;
+import com.example.hmcts.service.TaskPage;
+import com.example.hmcts.service.TaskService;
+import com.example.hmcts.service.TaskStatistics;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskGrpcServiceTest {
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private TaskBatchService taskBatchService;
+
+    @Mock
+    private TaskStatistics taskStatistics;
+
+    @Mock
+    private TaskHistoryService taskHistoryService;
+
+    private Server server;
+    private ManagedChannel channel;
+    private LocalDateTime futureDate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        TaskGrpcService service = new TaskGrpcService(taskService, taskBatchService, taskStatistics, taskHistoryService);
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).addService(service).build().start();
+        channel = InProcessChannelBuilder.forName(name).build();
+        futureDate = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow();
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private static TaskResponseDto responseDto(int taskId) {
+        return new TaskResponseDto(taskId, "Task " + taskId, null, com.example.hmcts.model.TaskStatus.TODO,
+                LocalDateTime.of(2030, 1, 1, 9, 0).plusMinutes(taskId), 0, null);
+    }
+
+    @Test
+    void testCreateTask() {
+        com.example.hmcts.model.Task task = new com.example.hmcts.model.Task(1, "Test Task", "Description",
+                com.example.hmcts.model.TaskStatus.TODO, futureDate);
+        when(taskService.createTask(any(TaskRequestDto.class), eq(TaskDataCheck.VALID))).thenReturn(task);
+
+        Task created = TaskServiceGrpc.newBlockingStub(channel).createTask(CreateTaskRequest.newBuilder()
+                .setTask(TaskInput.newBuilder()
+                        .setTaskTitle("Test Task")
+                        .setTaskDescription("Description")
+                        .setTaskStatus(TaskStatus.TODO)
+                        .setDueDateTime(TaskProtoMapper.toTimestamp(futureDate)))
+                .build());
+
+        assertEquals(1, created.getTaskId());
+        assertEquals(TaskStatus.TODO, created.getTaskStatus());
+        assertEquals(futureDate, TaskProtoMapper.toLocalDateTime(created.getDueDateTime()));
+        verify(taskService).createTask(argThat(requestDto -> requestDto.getTaskTitle().equals("Test Task")
+                && requestDto.getTaskStatus() == com.example.hmcts.model.TaskStatus.TODO
+                && requestDto.getDueDateTime().equals(futureDate)), eq(TaskDataCheck.VALID));
+    }
+
+    @Test
+    void testCreateTask_InvalidInput() {
+        StatusRuntimeException ex = assertThrows(StatusRuntimeException.class, () ->
+                TaskServiceGrpc.newBlockingStub(channel).createTask(CreateTaskRequest.newBuilder()
+                        .setTask(TaskInput.newBuilder()
+                                .setTaskTitle("Test Task")
+                                .setDueDateTime(TaskProtoMapper.toTimestamp(LocalDateTime.now().minusDays(1))))
+                        .build()));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, ex.getStatus().getCode());
+        // The first failed check, with the message REST answers with
+        assertEquals("Task status cannot be null", ex.getStatus().getDescription());
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void testGetTask_NotFound() {
+        when(taskService.getTaskResponseById(99)).thenThrow(new TaskNotFoundException("Task not found with id: 99"));
+
+        StatusRuntimeException ex = assertThrows(StatusRuntimeException.class, () ->
+                TaskServiceGrpc.newBlockingStub(channel).getTask(GetTaskRequest.newBuilder().setTaskId(99).build()));
+
+        assertEquals(Status.Code.NOT_FOUND, ex.getStatus().getCode());
+        assertEquals("Task not found with id: 99", ex.getStatus().getDescription());
+    }
+
+    @Test
+    void testListTasks_StreamsEveryPage() {
+        when(taskService.getTasks(isNull(), isNull(), isNull(), isNull(), eq(TaskService.MAX_PAGE_SIZE)))
+                .thenReturn(new TaskPage(List.of(responseDto(1), responseDto(2)), "cursor-2"));
+        when(taskService.getTasks(isNull(), isNull(), isNull(), eq("cursor-2"), eq(TaskService.MAX_PAGE_SIZE)))
+                .thenReturn(new TaskPage(List.of(responseDto(3)), null));
+
+        List<Integer> taskIds = new ArrayList<>();
+        TaskServiceGrpc.newBlockingStub(channel).listTasks(ListTasksRequest.getDefaultInstance())
+                .forEachRemaining(task -> taskIds.add(task.getTaskId()));
+
+        assertEquals(List.of(1, 2, 3), taskIds);
+        verify(taskService, times(2)).getTasks(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testListTasks_InvalidRange() {
+        when(taskService.getTasks(any(), any(), any(), any(), anyInt()))
+                .thenThrow(new IllegalArgumentException("dueFrom must be before dueTo"));
+
+        StatusRuntimeException ex = assertThrows(StatusRuntimeException.class, () ->
+                TaskServiceGrpc.newBlockingStub(channel).listTasks(ListTasksRequest.newBuilder()
+                        .setDueFrom(TaskProtoMapper.toTimestamp(futureDate))
+                        .setDueTo(TaskProtoMapper.toTimestamp(futureDate.minusHours(1)))
+                        .build()).hasNext());
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, ex.getStatus().getCode());
+    }
+
+    private List<Integer> updateTaskStatusesSuccessfully() {
+        List<Integer> chunkSizes = Collections.synchronizedList(new ArrayList<>());
+        when(taskBatchService.updateTaskStatuses(anyList())).thenAnswer(invocation -> {
+            List<TaskStatusUpdateDto> updates = invocation.getArgument(0);
+            chunkSizes.add(updates.size());
+            return IntStream.range(0, updates.size())
+                    .mapToObj(i -> updates.get(i).getTaskStatus() == null
+                            ? new TaskBatchResult(i, TaskBatchResult.Outcome.INVALID, updates.get(i).getTaskId(),
+                                    null, "Task status is required")
+                            : new TaskBatchResult(i, TaskBatchResult.Outcome.UPDATED, updates.get(i).getTaskId(),
+                                    new com.example.hmcts.model.Task(updates.get(i).getTaskId(), "Task", null,
+                                            updates.get(i).getTaskStatus(), futureDate), null))
+                    .toList();
+        });
+        return chunkSizes;
+    }
+
+    private StreamObserver<TaskStatusUpdate> updateTaskStatuses(List<BatchResult> results, CountDownLatch completed) {
+        return TaskServiceGrpc.newStub(channel).updateTaskStatuses(new StreamObserver<>() {
+            @Override
+            public void onNext(BatchResult result) {
+                results.add(result);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                completed.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                completed.countDown();
+            }
+        });
+    }
+
+    @Test
+    void testUpdateTaskStatuses_AppliesInChunks() throws InterruptedException {
+        List<Integer> chunkSizes = updateTaskStatusesSuccessfully();
+        int count = TaskGrpcService.STATUS_UPDATE_CHUNK_SIZE * 2 + 1;
+        List<BatchResult> results = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch completed = new CountDownLatch(1);
+
+        StreamObserver<TaskStatusUpdate> requests = updateTaskStatuses(results, completed);
+        for (int i = 0; i < count; i++) {
+            requests.onNext(TaskStatusUpdate.newBuilder()
+                    .setTaskId(100 + i)
+                    .setTaskStatus(i == count - 1 ? TaskStatus.TASK_STATUS_UNSPECIFIED : TaskStatus.COMPLETED)
+                    .build());
+        }
+        requests.onCompleted();
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(count, results.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals(100 + i, results.get(i).getTaskId());
+        }
+        assertEquals(BatchResult.Outcome.UPDATED, results.get(0).getOutcome());
+        assertEquals(TaskStatus.COMPLETED, results.get(0).getTask().getTaskStatus());
+        assertEquals(BatchResult.Outcome.INVALID, results.get(count - 1).getOutcome());
+        // However the updates were grouped, no chunk is larger than the configured size
+        assertEquals(count, chunkSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(chunkSizes.stream().allMatch(size -> size <= TaskGrpcService.STATUS_UPDATE_CHUNK_SIZE));
+    }
+
+    @Test
+    void testUpdateTaskStatuses_AnswersEachUpdateWithoutWaitingForMore() throws InterruptedException {
+        updateTaskStatusesSuccessfully();
+        List<BatchResult> results = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch completed = new CountDownLatch(1);
+
+        StreamObserver<TaskStatusUpdate> requests = updateTaskStatuses(results, completed);
+        for (int i = 0; i < 3; i++) {
+            requests.onNext(TaskStatusUpdate.newBuilder().setTaskId(100 + i).setTaskStatus(TaskStatus.COMPLETED).build());
+
+            // Answered while the stream is still open, as an interactive client needs
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (results.size() <= i && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(i + 1, results.size());
+            assertEquals(i, results.get(i).getIndex());
+        }
+        assertEquals(1, completed.getCount());
+
+        requests.onCompleted();
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        verify(taskBatchService, times(3)).updateTaskStatuses(anyList());
+    }
+}
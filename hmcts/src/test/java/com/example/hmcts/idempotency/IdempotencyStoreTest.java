@@ -0,0 +1,155 @@
+package com.example.hmcts.idempotency;
+
+import com.example.hmcts.dto.TaskResponseDto;
+import com.example.hmcts.exception.IdempotencyKeyReusedException;
+import com.example.hmcts.model.IdempotencyRecord;
+import com.example.hmcts.model.Task;
+import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyStoreTest {
+
+    private static final TypeReference<TaskResponseDto> TASK_RESPONSE_TYPE = new TypeReference<>() {
+    };
+
+    @Mock
+    private IdempotencyRecordRepository recordRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private IdempotencyStore newStore(boolean databaseEnabled) {
+        return new IdempotencyStore(recordRepository, objectMapper, Duration.ofHours(1), 100, databaseEnabled);
+    }
+
+    private static ResponseEntity<TaskResponseDto> created(int taskId) {
+        TaskResponseDto responseDto = TaskResponseDto.fromTask(
+                new Task(taskId, "Task", null, TaskStatus.TODO, LocalDateTime.of(2030, 1, 1, 9, 0)));
+        return ResponseEntity.status(HttpStatus.CREATED).eTag("\"0\"").body(responseDto);
+    }
+
+    @Test
+    void testReplaysResponseForRepeatedKey() {
+        IdempotencyStore store = newStore(false);
+        AtomicInteger runs = new AtomicInteger();
+
+        ResponseEntity<TaskResponseDto> first = store.execute("key", "create", "request", TASK_RESPONSE_TYPE,
+                () -> created(runs.incrementAndGet()));
+        ResponseEntity<TaskResponseDto> retry = store.execute("key", "create", "request", TASK_RESPONSE_TYPE,
+                () -> created(runs.incrementAndGet()));
+
+        assertEquals(1, runs.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody().getTaskId(), retry.getBody().getTaskId());
+        assertEquals("\"0\"", retry.getHeaders().getETag());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyStore.REPLAYED));
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED));
+
+        // Keys are scoped to the operation, and requests without a key always run
+        store.execute("key", "create-batch", "request", TASK_RESPONSE_TYPE, () -> created(runs.incrementAndGet()));
+        store.execute(null, "create", "request", TASK_RESPONSE_TYPE, () -> created(runs.incrementAndGet()));
+        assertEquals(3, runs.get());
+        verifyNoInteractions(recordRepository);
+    }
+
+    @Test
+    void testRejectsKeyReusedWithDifferentRequest() {
+        IdempotencyStore store = newStore(false);
+        store.execute("key", "create", "request", TASK_RESPONSE_TYPE, () -> created(1));
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> store.execute("key", "create", "other request", TASK_RESPONSE_TYPE, () -> created(2)));
+        assertThrows(IllegalArgumentException.class,
+                () -> store.execute(" ", "create", "request", TASK_RESPONSE_TYPE, () -> created(3)));
+    }
+
+    @Test
+    void testFailuresAreNotStored() {
+        IdempotencyStore store = newStore(false);
+
+        assertThrows(IllegalArgumentException.class, () -> store.execute("key", "create", "request", TASK_RESPONSE_TYPE,
+                () -> {
+                    throw new IllegalArgumentException("Task title cannot be empty");
+                }));
+        ResponseEntity<TaskResponseDto> retry = store.execute("key", "create", "request", TASK_RESPONSE_TYPE,
+                () -> created(1));
+
+        assertEquals(1, retry.getBody().getTaskId());
+        assertNull(retry.getHeaders().getFirst(IdempotencyStore.REPLAYED));
+    }
+
+    @Test
+    void testCoalescesConcurrentRequests() throws Exception {
+        IdempotencyStore store = newStore(false);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<TaskResponseDto>> first = executor.submit(() ->
+                    store.execute("key", "create", "request", TASK_RESPONSE_TYPE, () -> {
+                        running.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                        return created(runs.incrementAndGet());
+                    }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            Future<ResponseEntity<TaskResponseDto>> second = executor.submit(() ->
+                    store.execute("key", "create", "request", TASK_RESPONSE_TYPE, () -> created(runs.incrementAndGet())));
+
+            release.countDown();
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).getBody().getTaskId());
+            assertEquals(1, second.get(5, TimeUnit.SECONDS).getBody().getTaskId());
+            assertEquals(1, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDatabaseTierStoresAndReplaysResponses() {
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        newStore(true).execute("key", "create", "request", TASK_RESPONSE_TYPE, () -> created(7));
+        verify(recordRepository).save(saved.capture());
+        assertEquals("create:key", saved.getValue().getIdempotencyKey());
+        assertEquals(201, saved.getValue().getStatusCode());
+
+        // A fresh store, as on another instance, finds the response in the database
+        when(recordRepository.findById("create:key")).thenReturn(Optional.of(saved.getValue()));
+        ResponseEntity<TaskResponseDto> retry = newStore(true).execute("key", "create", "request", TASK_RESPONSE_TYPE,
+                () -> created(8));
+
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(7, retry.getBody().getTaskId());
+        assertEquals(LocalDateTime.of(2030, 1, 1, 9, 0), retry.getBody().getDueDateTime());
+        assertEquals(List.of("\"0\""), retry.getHeaders().get("ETag"));
+        verify(recordRepository, times(1)).save(any());
+    }
+}
@@ -1,24 +1,36 @@
 package com.example.hmcts.integration;
 
 import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.model.TaskOutboxMessage;
 import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.outbox.InMemoryTaskOutboxSink;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+        "hmcts.ingest.enabled=true",
+        "hmcts.outbox.enabled=true",
+        "hmcts.outbox.relay-interval=PT0.05S"
+})
 @AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
 public class TaskIntegrationTest {
 
     @Autowired
@@ -27,6 +39,18 @@ public class TaskIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private InMemoryTaskOutboxSink outboxSink;
+
+    @TestConfiguration
+    static class OutboxSinkConfig {
+
+        @Bean
+        InMemoryTaskOutboxSink inMemoryTaskOutboxSink() {
+            return new InMemoryTaskOutboxSink();
+        }
+    }
+
     @Test
     void testTaskCrudOperations() throws Exception {
         // Create a task request with future date
@@ -63,6 +87,22 @@ public class TaskIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.taskTitle", is("Updated Integration Test Task")));
 
+        // The cached copy from step 2 must have been evicted by the update
+        mockMvc.perform(get("/task/" + taskId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskTitle", is("Updated Integration Test Task")));
+
+        // The status board counts the new task without a refresh
+        mockMvc.perform(get("/task/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.countsByStatus.TODO", greaterThanOrEqualTo(1)));
+
+        // The search index follows the committed update
+        mockMvc.perform(get("/task/search").param("q", "updated integ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].taskId", hasItem(taskId)));
+
         // 4. Update task status
         mockMvc.perform(patch("/task/" + taskId + "/status")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -73,15 +113,172 @@ public class TaskIntegrationTest {
         // 5. Get all tasks (should include our task)
         mockMvc.perform(get("/task"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(greaterThanOrEqualTo(1))))
-                .andExpect(jsonPath("$[*].taskId", hasItem(taskId)));
+                .andExpect(jsonPath("$.tasks", hasSize(greaterThanOrEqualTo(1))))
+                .andExpect(jsonPath("$.tasks[*].taskId", hasItem(taskId)));
 
-        // 6. Delete the task
-        mockMvc.perform(delete("/task/" + taskId))
+        // 6. Conditional requests use the version-based ETag
+        String eTag = mockMvc.perform(get("/task/" + taskId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/task/" + taskId).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(delete("/task/" + taskId).header("If-Match", "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+
+        // 7. Delete the task
+        mockMvc.perform(delete("/task/" + taskId).header("If-Match", eTag))
                 .andExpect(status().isNoContent());
 
-// 7. Verify task is deleted - CORRECTED CODE
+// 8. Verify task is deleted - CORRECTED CODE
         mockMvc.perform(get("/task/" + taskId))
                 .andExpect(status().isNotFound()); // Expect 404 Not Found
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTaskBatchOperations() throws Exception {
+        TaskRequestDto first = new TaskRequestDto();
+        first.setTaskTitle("Batch Task 1");
+        first.setTaskStatus(TaskStatus.TODO);
+        first.setDueDateTime(LocalDateTime.now().plusDays(1));
+        TaskRequestDto second = new TaskRequestDto();
+        second.setTaskTitle("Batch Task 2");
+        second.setTaskStatus(TaskStatus.TODO);
+        second.setDueDateTime(LocalDateTime.now().plusDays(2));
+        TaskRequestDto invalid = new TaskRequestDto();
+
+        // 1. Create in one batch, the invalid item is reported without failing the others
+        MvcResult result = mockMvc.perform(post("/task/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(first, second, invalid))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(201)))
+                .andExpect(jsonPath("$[1].status", is(201)))
+                .andExpect(jsonPath("$[2].status", is(400)))
+                .andReturn();
+
+        String content = result.getResponse().getContentAsString();
+        int firstId = objectMapper.readTree(content).get(0).get("taskId").asInt();
+        int secondId = objectMapper.readTree(content).get(1).get("taskId").asInt();
+
+        // 2. Update statuses in one batch, after caching the current state
+        mockMvc.perform(get("/task/" + firstId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskStatus", is("TODO")));
+
+        mockMvc.perform(patch("/task/batch/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"taskId\":" + firstId + ",\"taskStatus\":\"COMPLETED\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(200)));
+
+        mockMvc.perform(get("/task/" + firstId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskStatus", is("COMPLETED")));
+
+        // 3. Delete in one batch
+        mockMvc.perform(delete("/task/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + firstId + "," + secondId + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(204)))
+                .andExpect(jsonPath("$[1].status", is(204)));
+
+        mockMvc.perform(get("/task/" + secondId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testMetricsExposedForPrometheus() throws Exception {
+        TaskRequestDto taskRequest = new TaskRequestDto();
+        taskRequest.setTaskTitle("Metrics Task");
+        taskRequest.setTaskStatus(TaskStatus.TODO);
+        taskRequest.setDueDateTime(LocalDateTime.now().plusDays(1));
+        mockMvc.perform(post("/task")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(taskRequest)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/task"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("tasks_operation_seconds_bucket{")))
+                .andExpect(content().string(containsString("operation=\"create\"")))
+                .andExpect(content().string(containsString("tasks_list_size_tasks_count")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count")))
+                .andExpect(content().string(containsString("cache_gets_total")))
+                .andExpect(content().string(containsString("hikaricp_connections")));
+    }
+
+    @Test
+    void testChangesAreRelayedFromOutboxInOrder() throws Exception {
+        TaskRequestDto taskRequest = new TaskRequestDto();
+        taskRequest.setTaskTitle("Outbox Task");
+        taskRequest.setTaskStatus(TaskStatus.TODO);
+        taskRequest.setDueDateTime(LocalDateTime.now().plusDays(1));
+
+        String content = mockMvc.perform(post("/task")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(taskRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        int taskId = objectMapper.readTree(content).get("taskId").asInt();
+        mockMvc.perform(patch("/task/" + taskId + "/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("\"IN_PROGRESS\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/task/" + taskId))
+                .andExpect(status().isNoContent());
+
+        // Wait for the relay to deliver all three changes
+        List<TaskOutboxMessage> relayed = List.of();
+        for (int attempt = 0; attempt < 100 && relayed.size() < 3; attempt++) {
+            Thread.sleep(50);
+            relayed = outboxSink.getPublished().stream()
+                    .filter(message -> message.getTaskId() == taskId)
+                    .toList();
+        }
+
+        assertEquals(List.of("CREATED", "STATUS_CHANGED", "DELETED"),
+                relayed.stream().map(TaskOutboxMessage::getEventType).toList());
+        assertEquals("IN_PROGRESS",
+                objectMapper.readTree(relayed.get(1).getPayload()).get("task").get("taskStatus").asText());
+
+        // The status history outlives the task
+        mockMvc.perform(get("/task/" + taskId + "/history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transitions[*].toStatus", contains("TODO", "IN_PROGRESS", "DELETED")))
+                .andExpect(jsonPath("$.transitions[1].fromStatus", is("TODO")));
+    }
+
+    @Test
+    void testAsyncIngest() throws Exception {
+        TaskRequestDto taskRequest = new TaskRequestDto();
+        taskRequest.setTaskTitle("Async Integration Task");
+        taskRequest.setTaskStatus(TaskStatus.TODO);
+        taskRequest.setDueDateTime(LocalDateTime.now().plusDays(1));
+
+        String location = mockMvc.perform(post("/task/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(taskRequest)))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader("Location");
+
+        // Poll until the background writer has committed the task
+        String status = "QUEUED";
+        int taskId = 0;
+        for (int attempt = 0; attempt < 100 && status.equals("QUEUED"); attempt++) {
+            Thread.sleep(50);
+            String content = mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            status = objectMapper.readTree(content).get("status").asText();
+            taskId = objectMapper.readTree(content).path("taskId").asInt();
+        }
+
+        assertEquals("CREATED", status);
+        mockMvc.perform(get("/task/" + taskId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskTitle", is("Async Integration Task")));
+    }
+}
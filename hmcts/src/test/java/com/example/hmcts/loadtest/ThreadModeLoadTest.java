@@ -0,0 +1,159 @@
+package com.example.hmcts.loadtest;
+
+import com.example.hmcts.HmctsApplication;
+import com.example.hmcts.repository.TaskRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the task API with and without virtual threads when more clients call it than there are
+ * request threads or database connections.
+ * Each client creates a task and reads it back through the real endpoints, so every request goes through
+ * TaskService and waits on the Hikari pool. The test records latency, how many requests waited for a
+ * connection at once and the longest wait, and reports them through JUnit.
+ * Run with: mvn test -Dtest=ThreadModeLoadTest -Dloadtest=true
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+public class ThreadModeLoadTest {
+
+    private static final int TOMCAT_MAX_THREADS = 16;
+    private static final int POOL_SIZE = 8;
+    private static final int CONCURRENT_CLIENTS = 400;
+    // Run first in each mode, so neither is measured while the JIT is still compiling the request path
+    private static final int WARMUP_CLIENTS = 100;
+    // Hikari's default, which applies in both modes since application.yml leaves it alone
+    private static final Duration CONNECTION_TIMEOUT = Duration.ofSeconds(30);
+
+    record Result(Duration elapsed, long medianMillis, long p99Millis, int peakActive, int peakWaiting,
+                  double maxAcquireMillis) {
+
+        String describe() {
+            return String.format("%d clients in %d ms, latency p50 %d ms p99 %d ms, peak connections %d, "
+                            + "peak waiting for a connection %d, longest wait %.1f ms", CONCURRENT_CLIENTS,
+                    elapsed.toMillis(), medianMillis, p99Millis, peakActive, peakWaiting, maxAcquireMillis);
+        }
+    }
+
+    @Test
+    void testVirtualThreadsQueueOnThePoolInsteadOfRequestThreads(TestReporter reporter) throws Exception {
+        Result platform = run(false);
+        reporter.publishEntry("platform threads", platform.describe());
+        Result virtual = run(true);
+        reporter.publishEntry("virtual threads", virtual.describe());
+
+        // The pool bounds database work either way
+        assertTrue(platform.peakActive() <= POOL_SIZE, platform.describe());
+        assertTrue(virtual.peakActive() <= POOL_SIZE, virtual.describe());
+        // Platform threads cap the requests that can wait for a connection; virtual threads do not
+        assertTrue(platform.peakWaiting() <= TOMCAT_MAX_THREADS, platform.describe());
+        // Even with every client waiting on the pool, no wait comes near the connection timeout
+        assertTrue(virtual.maxAcquireMillis() < CONNECTION_TIMEOUT.toMillis() / 10.0, virtual.describe());
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        // Passed as arguments, which take precedence over application.yml
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(HmctsApplication.class)
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "--server.tomcat.accept-count=" + CONCURRENT_CLIENTS,
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.threads.virtual.enabled=" + virtualThreads)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/task");
+            HikariPoolMXBean pool = context.getBean(HikariDataSource.class).getHikariPoolMXBean();
+
+            try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+                burst(client, uri, WARMUP_CLIENTS);
+
+                AtomicInteger peakActive = new AtomicInteger();
+                AtomicInteger peakWaiting = new AtomicInteger();
+                Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        peakActive.accumulateAndGet(pool.getActiveConnections(), Math::max);
+                        peakWaiting.accumulateAndGet(pool.getThreadsAwaitingConnection(), Math::max);
+                        try {
+                            Thread.sleep(1);
+                        } catch (InterruptedException ex) {
+                            return;
+                        }
+                    }
+                });
+                long start = System.nanoTime();
+                long[] latencies;
+                try {
+                    latencies = burst(client, uri, CONCURRENT_CLIENTS);
+                } finally {
+                    sampler.interrupt();
+                }
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+                sampler.join();
+
+                assertEquals(WARMUP_CLIENTS + CONCURRENT_CLIENTS, context.getBean(TaskRepository.class).count());
+                // Includes the warm-up, so it is an upper bound on the measured clients' waits
+                Timer acquire = context.getBean(MeterRegistry.class).get("hikaricp.connections.acquire").timer();
+                return new Result(elapsed,
+                        TimeUnit.NANOSECONDS.toMillis(latencies[CONCURRENT_CLIENTS / 2]),
+                        TimeUnit.NANOSECONDS.toMillis(latencies[CONCURRENT_CLIENTS * 99 / 100]),
+                        peakActive.get(), peakWaiting.get(), acquire.max(TimeUnit.MILLISECONDS));
+            }
+        }
+    }
+
+    /**
+     * Starts the clients at once, each creating a task and then reading it, and returns their latencies sorted.
+     */
+    private static long[] burst(HttpClient client, URI uri, int clients) throws Exception {
+        long[] latencies = new long[clients];
+        List<CompletableFuture<Void>> responses = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            int clientIndex = i;
+            long clientStart = System.nanoTime();
+            responses.add(client.sendAsync(createRequest(uri, clientIndex), HttpResponse.BodyHandlers.ofString())
+                    .thenCompose(created -> {
+                        assertEquals(201, created.statusCode(), created.body());
+                        String taskId = created.body().replaceAll(".*\"taskId\":(\\d+).*", "$1");
+                        return client.sendAsync(HttpRequest.newBuilder(uri.resolve("/task/" + taskId)).build(),
+                                HttpResponse.BodyHandlers.ofString());
+                    })
+                    .thenAccept(read -> {
+                        assertEquals(200, read.statusCode(), read.body());
+                        latencies[clientIndex] = System.nanoTime() - clientStart;
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static HttpRequest createRequest(URI uri, int clientIndex) {
+        String body = String.format("{\"taskTitle\":\"Load test %d\",\"taskStatus\":\"TODO\",\"dueDateTime\":\"%s\"}",
+                clientIndex, LocalDateTime.now().plusDays(1));
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
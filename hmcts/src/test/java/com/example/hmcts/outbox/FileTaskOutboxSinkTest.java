@@ -0,0 +1,46 @@
+package com.example.hmcts.outbox;
+
+import com.example.hmcts.model.TaskOutboxMessage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileTaskOutboxSinkTest {
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void testAppendsOneLinePerMessage() throws IOException {
+        Path file = directory.resolve("outbox/events.jsonl");
+        FileTaskOutboxSink sink = new FileTaskOutboxSink(file, objectMapper);
+        try {
+            sink.publish(List.of(new TaskOutboxMessage(1, 0, "CREATED", "{\"type\":\"CREATED\",\"taskId\":1}", Instant.now())));
+            sink.publish(List.of(new TaskOutboxMessage(1, 1, "DELETED", "{\"type\":\"DELETED\",\"taskId\":1}", Instant.now())));
+        } finally {
+            sink.close();
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(1, first.get("taskId").asInt());
+        assertEquals("CREATED", first.get("type").asText());
+        // The stored payload is embedded as JSON, not as an escaped string
+        assertEquals("CREATED", first.get("event").get("type").asText());
+        JsonNode second = objectMapper.readTree(lines.get(1));
+        assertEquals("DELETED", second.get("type").asText());
+        assertEquals(1, second.get("taskVersion").asLong());
+    }
+}
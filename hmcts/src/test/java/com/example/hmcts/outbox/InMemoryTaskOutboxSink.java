@@ -0,0 +1,23 @@
+package com.example.hmcts.outbox;
+
+import com.example.hmcts.model.TaskOutboxMessage;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps relayed messages in memory for tests to inspect.
+ */
+public class InMemoryTaskOutboxSink implements TaskOutboxSink {
+
+    private final List<TaskOutboxMessage> published = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(List<TaskOutboxMessage> messages) {
+        published.addAll(messages);
+    }
+
+    public List<TaskOutboxMessage> getPublished() {
+        return published;
+    }
+}
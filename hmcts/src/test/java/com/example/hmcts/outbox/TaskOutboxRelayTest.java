@@ -0,0 +1,111 @@
+package com.example.hmcts.outbox;
+
+import com.example.hmcts.model.TaskOutboxMessage;
+import com.example.hmcts.repository.TaskOutboxRepository;
+import com.example.hmcts.shard.TaskShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskOutboxRelayTest {
+
+    @Mock
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Mock
+    private TaskOutboxSink sink;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        TransactionStatus transaction = new SimpleTransactionStatus();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(transaction);
+        relay = new TaskOutboxRelay(taskOutboxRepository, sink, TaskShards.unsharded(), transactionManager, new SimpleMeterRegistry(), 2,
+                Duration.ofMinutes(1));
+    }
+
+    private static TaskOutboxMessage message(int taskId) {
+        return new TaskOutboxMessage(taskId, 0, "CREATED", "{}", Instant.now());
+    }
+
+    private static TaskOutboxMessage claimedMessage(int taskId) {
+        TaskOutboxMessage message = message(taskId);
+        ReflectionTestUtils.setField(message, "claimedUntil", Instant.now().plusSeconds(60));
+        return message;
+    }
+
+    @Test
+    void testRelaysBatchesUntilOutboxIsEmpty() throws IOException {
+        List<TaskOutboxMessage> full = List.of(message(1), message(2));
+        List<TaskOutboxMessage> partial = List.of(message(3));
+        when(taskOutboxRepository.findHead(Limit.of(2))).thenReturn(full, partial);
+
+        relay.relay();
+
+        verify(sink).publish(full);
+        verify(sink).publish(partial);
+        // Each batch is claimed and committed, published, then deleted: two transactions, none open while publishing
+        verify(taskOutboxRepository, times(2)).claim(anyCollection(), notNull());
+        verify(taskOutboxRepository, times(2)).deleteAllByIdInBatch(anyIterable());
+        verify(transactionManager, times(4)).commit(any());
+    }
+
+    @Test
+    void testFailedPublishReleasesBatch() throws IOException {
+        List<TaskOutboxMessage> batch = List.of(message(1));
+        when(taskOutboxRepository.findHead(Limit.of(2))).thenReturn(batch);
+        doThrow(new IOException("Sink unavailable")).when(sink).publish(batch);
+
+        assertThrows(RuntimeException.class, () -> relay.relay());
+
+        verify(taskOutboxRepository).claim(List.of(0L), null);
+        verify(taskOutboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void testWaitsBehindMessagesClaimedByAnotherRelay() throws IOException {
+        List<TaskOutboxMessage> head = List.of(message(1), claimedMessage(2));
+        when(taskOutboxRepository.findHead(Limit.of(2))).thenReturn(head, List.of(claimedMessage(2)));
+
+        relay.relay();
+
+        // Only the message before the claimed one is taken, and the run ends there
+        verify(sink).publish(head.subList(0, 1));
+        verify(sink, times(1)).publish(anyList());
+    }
+
+    @Test
+    void testEmptyOutboxPublishesNothing() {
+        when(taskOutboxRepository.findHead(Limit.of(2))).thenReturn(List.of());
+
+        relay.relay();
+
+        verifyNoInteractions(sink);
+    }
+}
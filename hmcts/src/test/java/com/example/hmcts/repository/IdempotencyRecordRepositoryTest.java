@@ -0,0 +1,41 @@
+package com.example.hmcts.repository;
+
+import com.example.hmcts.model.IdempotencyRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class IdempotencyRecordRepositoryTest {
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private static IdempotencyRecord record(String requestHash, String body) {
+        return new IdempotencyRecord("create:key", requestHash, 201, "{}", body, Instant.now());
+    }
+
+    @Test
+    void testSecondRecordForKeyIsRejectedNotMerged() {
+        recordRepository.saveAndFlush(record("first", "{\"taskId\":1}"));
+        entityManager.clear();
+
+        // As when another instance stored its response for the key first
+        assertThrows(DataIntegrityViolationException.class,
+                () -> recordRepository.saveAndFlush(record("second", "{\"taskId\":2}")));
+        entityManager.clear();
+
+        IdempotencyRecord stored = recordRepository.findById("create:key").orElseThrow();
+        assertEquals("first", stored.getRequestHash());
+        assertFalse(stored.isNew());
+    }
+}
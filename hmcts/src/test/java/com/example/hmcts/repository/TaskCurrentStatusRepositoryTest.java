@@ -0,0 +1,50 @@
+package com.example.hmcts.repository;
+
+import com.example.hmcts.model.TaskCurrentStatus;
+import com.example.hmcts.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class TaskCurrentStatusRepositoryTest {
+
+    private static final Instant START = Instant.parse("2030-01-01T09:00:00Z");
+
+    @Autowired
+    private TaskCurrentStatusRepository currentStatusRepository;
+
+    private void enter(int taskId, TaskStatus status, long minutes) {
+        currentStatusRepository.save(new TaskCurrentStatus(taskId, status, START.plusSeconds(minutes * 60)));
+    }
+
+    private List<Integer> findInStatus(TaskStatus status, Instant afterEnteredAt, int afterTaskId) {
+        return currentStatusRepository.findInStatus(status, afterEnteredAt, afterTaskId, Limit.of(10)).stream()
+                .map(TaskCurrentStatus::getTaskId)
+                .toList();
+    }
+
+    @Test
+    void testFindInStatusFollowsMovesAndRemovals() {
+        enter(1, TaskStatus.IN_PROGRESS, 0);
+        enter(2, TaskStatus.IN_PROGRESS, 10);
+        enter(3, TaskStatus.IN_PROGRESS, 20);
+        enter(4, TaskStatus.IN_PROGRESS, 10);
+        enter(5, TaskStatus.TODO, 5);
+
+        // Moved and removed as managed entities, as the history service does
+        currentStatusRepository.findById(1).orElseThrow().moveTo(TaskStatus.COMPLETED, START.plusSeconds(30 * 60));
+        currentStatusRepository.delete(currentStatusRepository.findById(4).orElseThrow());
+        currentStatusRepository.flush();
+
+        assertEquals(List.of(2, 3), findInStatus(TaskStatus.IN_PROGRESS, Instant.EPOCH, Integer.MIN_VALUE));
+        assertEquals(List.of(3), findInStatus(TaskStatus.IN_PROGRESS, START.plusSeconds(10 * 60), 2));
+        assertEquals(List.of(1), findInStatus(TaskStatus.COMPLETED, Instant.EPOCH, Integer.MIN_VALUE));
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.hmcts.repository;
 
+import com.example.hmcts.dto.TaskResponseDto;
 import com.example.hmcts.model.Task;
 import com.example.hmcts.model.TaskStatus;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +26,7 @@ public class TaskRepositoryTest {
     void testSaveTask() {
         // Create a new task
         Task task = new Task();
+        task.setTaskId(1);
         task.setTaskTitle("Repository Test Task");
         task.setTaskDescription("Testing JPA Repository");
         task.setTaskStatus(TaskStatus.TODO);
@@ -30,8 +35,8 @@ public class TaskRepositoryTest {
         // Save it
         Task savedTask = taskRepository.save(task);
 
-        // Verify it was saved with an ID
-        assertNotNull(savedTask.getTaskId());
+        // Verify it was saved under its assigned ID
+        assertEquals(1, savedTask.getTaskId());
         assertEquals("Repository Test Task", savedTask.getTaskTitle());
     }
 
@@ -39,6 +44,7 @@ public class TaskRepositoryTest {
     void testFindById() {
         // Create and save a task
         Task task = new Task();
+        task.setTaskId(2);
         task.setTaskTitle("Find By ID Test");
         task.setTaskStatus(TaskStatus.TODO);
         task.setDueDateTime(LocalDateTime.now().plusDays(1));
@@ -59,12 +65,14 @@ public class TaskRepositoryTest {
 
         // Create and save two tasks
         Task task1 = new Task();
+        task1.setTaskId(3);
         task1.setTaskTitle("Task 1");
         task1.setTaskStatus(TaskStatus.TODO);
         task1.setDueDateTime(LocalDateTime.now().plusDays(1));
         taskRepository.save(task1);
 
         Task task2 = new Task();
+        task2.setTaskId(4);
         task2.setTaskTitle("Task 2");
         task2.setTaskStatus(TaskStatus.IN_PROGRESS);
         task2.setDueDateTime(LocalDateTime.now().plusDays(2));
@@ -81,6 +89,7 @@ public class TaskRepositoryTest {
     void testUpdateTask() {
         // Create and save a task
         Task task = new Task();
+        task.setTaskId(5);
         task.setTaskTitle("Original Title");
         task.setTaskStatus(TaskStatus.TODO);
         task.setDueDateTime(LocalDateTime.now().plusDays(1));
@@ -100,6 +109,7 @@ public class TaskRepositoryTest {
     void testDeleteTask() {
         // Create and save a task
         Task task = new Task();
+        task.setTaskId(6);
         task.setTaskTitle("To Be Deleted");
         task.setTaskStatus(TaskStatus.TODO);
         task.setDueDateTime(LocalDateTime.now().plusDays(1));
@@ -112,4 +122,145 @@ public class TaskRepositoryTest {
         Optional<Task> deletedTask = taskRepository.findById(savedTask.getTaskId());
         assertFalse(deletedTask.isPresent());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindPage() {
+        taskRepository.deleteAll();
+        // Stored to the microsecond, so the cursors below match the rows exactly
+        LocalDateTime due = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime start = TaskRepository.MIN_DUE_DATE_TIME;
+        LocalDateTime end = TaskRepository.MAX_DUE_DATE_TIME;
+
+        Task first = taskRepository.save(new Task(1, "First", null, TaskStatus.TODO, due));
+        Task second = taskRepository.save(new Task(2, "Second", null, TaskStatus.IN_PROGRESS, due));
+        Task third = taskRepository.save(new Task(3, "Third", null, TaskStatus.TODO, due.plusDays(1)));
+
+        // First page, ordered by due date then id
+        List<TaskResponseDto> page = taskRepository.findResponsePage(start, Integer.MIN_VALUE, end, Limit.of(2));
+        assertEquals(List.of(first.getTaskId(), second.getTaskId()), page.stream().map(TaskResponseDto::getTaskId).toList());
+
+        // Next page continues after the last row of the previous one
+        page = taskRepository.findResponsePage(second.getDueDateTime(), second.getTaskId(), end, Limit.of(2));
+        assertEquals(List.of(third.getTaskId()), page.stream().map(TaskResponseDto::getTaskId).toList());
+        page = taskRepository.findResponsePage(first.getDueDateTime(), first.getTaskId(), end, Limit.of(2));
+        assertEquals(List.of(second.getTaskId(), third.getTaskId()), page.stream().map(TaskResponseDto::getTaskId).toList());
+
+        // Status and due date range filters
+        page = taskRepository.findResponsePageByStatus(TaskStatus.TODO, start, Integer.MIN_VALUE, end, Limit.of(10));
+        assertEquals(List.of(first.getTaskId(), third.getTaskId()), page.stream().map(TaskResponseDto::getTaskId).toList());
+        page = taskRepository.findResponsePageByStatus(TaskStatus.TODO, first.getDueDateTime(), first.getTaskId(), end, Limit.of(10));
+        assertEquals(List.of(third.getTaskId()), page.stream().map(TaskResponseDto::getTaskId).toList());
+        page = taskRepository.findResponsePage(due.plusHours(1), Integer.MIN_VALUE, end, Limit.of(10));
+        assertEquals(List.of(third.getTaskId()), page.stream().map(TaskResponseDto::getTaskId).toList());
+        page = taskRepository.findResponsePage(start, Integer.MIN_VALUE, due.plusHours(1), Limit.of(10));
+        assertEquals(List.of(first.getTaskId(), second.getTaskId()), page.stream().map(TaskResponseDto::getTaskId).toList());
+    }
+
+    @Test
+    void testConditionalStatusUpdateAndDelete() {
+        Task task = new Task();
+        task.setTaskId(7);
+        task.setTaskTitle("Single Statement Task");
+        task.setTaskStatus(TaskStatus.TODO);
+        task.setDueDateTime(LocalDateTime.now().plusDays(1));
+        Task savedTask = taskRepository.saveAndFlush(task);
+        int taskId = savedTask.getTaskId();
+        long version = savedTask.getVersion();
+
+        // A stale version matches no row
+        assertEquals(0, taskRepository.updateStatusAtVersion(taskId, TaskStatus.COMPLETED, version + 1, Instant.now()));
+        assertEquals(1, taskRepository.updateStatusAtVersion(taskId, TaskStatus.COMPLETED, version, Instant.now()));
+
+        // The same statement keeps the status it replaced
+        Task updatedTask = taskRepository.findById(taskId).orElseThrow();
+        assertEquals(TaskStatus.COMPLETED, updatedTask.getTaskStatus());
+        assertEquals(TaskStatus.TODO, updatedTask.getPreviousStatus());
+        assertEquals(version + 1, updatedTask.getVersion());
+
+        assertEquals(1, taskRepository.updateStatus(taskId, TaskStatus.IN_PROGRESS, Instant.now()));
+        assertEquals(TaskStatus.COMPLETED, taskRepository.findById(taskId).orElseThrow().getPreviousStatus());
+        assertEquals(0, taskRepository.updateStatus(Integer.MAX_VALUE, TaskStatus.IN_PROGRESS, Instant.now()));
+
+        assertEquals(0, taskRepository.deleteAtVersion(taskId, version));
+        assertEquals(1, taskRepository.deleteAtVersion(taskId, version + 2));
+        assertFalse(taskRepository.existsById(taskId));
+        assertEquals(0, taskRepository.deleteIfExists(taskId));
+    }
+
+    @Test
+    void testDeleteByIds() {
+        Task task = new Task(8, "Batch Deleted Task", null, TaskStatus.TODO, LocalDateTime.now().plusDays(1));
+        taskRepository.saveAndFlush(task);
+
+        assertEquals(List.of(8), taskRepository.findExistingIds(List.of(8, Integer.MAX_VALUE)));
+        assertEquals(1, taskRepository.deleteByIds(List.of(8, Integer.MAX_VALUE)));
+        assertTrue(taskRepository.findExistingIds(List.of(8)).isEmpty());
+    }
+
+    @Test
+    void testFindResponseById() {
+        Task savedTask = taskRepository.saveAndFlush(
+                new Task(1, "Projected", "Read without hydration", TaskStatus.IN_PROGRESS, LocalDateTime.now().plusDays(1)));
+
+        TaskResponseDto response = taskRepository.findResponseById(savedTask.getTaskId()).orElseThrow();
+
+        assertEquals("Projected", response.getTaskTitle());
+        assertEquals("Read without hydration", response.getTaskDescription());
+        assertEquals("IN_PROGRESS", response.getTaskStatus());
+        assertEquals(savedTask.getVersion(), response.getVersion());
+        assertTrue(taskRepository.findResponseById(savedTask.getTaskId() + 1000).isEmpty());
+    }
+
+    @Test
+    void testFindResponsesDueBetween() {
+        taskRepository.deleteAll();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        Task overdue = taskRepository.save(new Task(1, "Overdue", null, TaskStatus.IN_PROGRESS, now.minusHours(2)));
+        taskRepository.save(new Task(2, "Done", null, TaskStatus.COMPLETED, now.minusHours(1)));
+        Task dueSoon = taskRepository.save(new Task(3, "Due soon", null, TaskStatus.TODO, now.plusHours(1)));
+        Task alsoDueSoon = taskRepository.save(new Task(5, "Also due soon", null, TaskStatus.TODO, now.plusHours(1)));
+        taskRepository.save(new Task(4, "Due later", null, TaskStatus.TODO, now.plusDays(2)));
+
+        List<TaskResponseDto> due = taskRepository.findResponsesDueBetween(TaskStatus.TODO, now, Integer.MAX_VALUE,
+                now.plusHours(24), Limit.of(10));
+        assertEquals(List.of(dueSoon.getTaskId(), alsoDueSoon.getTaskId()),
+                due.stream().map(TaskResponseDto::getTaskId).toList());
+
+        // Continues after a keyset position between two tasks due at the same time
+        due = taskRepository.findResponsesDueBetween(TaskStatus.TODO, dueSoon.getDueDateTime(), dueSoon.getTaskId(),
+                now.plusHours(24), Limit.of(10));
+        assertEquals(List.of(alsoDueSoon.getTaskId()), due.stream().map(TaskResponseDto::getTaskId).toList());
+
+        // From the start of the range lists everything overdue in the status
+        due = taskRepository.findResponsesDueBetween(TaskStatus.IN_PROGRESS, TaskRepository.MIN_DUE_DATE_TIME,
+                Integer.MIN_VALUE, now, Limit.of(10));
+        assertEquals(List.of(overdue.getTaskId()), due.stream().map(TaskResponseDto::getTaskId).toList());
+        assertTrue(taskRepository.findResponsesDueBetween(TaskStatus.TODO, TaskRepository.MIN_DUE_DATE_TIME,
+                Integer.MIN_VALUE, now, Limit.of(10)).isEmpty());
+    }
+
+    @Test
+    void testBucketQueriesAndInsertCopy() {
+        taskRepository.deleteAll();
+        assertEquals(0, taskRepository.findMaxTaskId());
+        LocalDateTime due = LocalDateTime.now().plusDays(1);
+
+        taskRepository.save(new Task(3, "Bucket 3", null, TaskStatus.TODO, due));
+        taskRepository.save(new Task(4, "Bucket 0", null, TaskStatus.TODO, due));
+        Task copied = taskRepository.saveAndFlush(new Task(7, "Bucket 3 again", null, TaskStatus.TODO, due));
+        assertEquals(7, taskRepository.findMaxTaskId());
+
+        // Ids hash to buckets by their remainder
+        assertEquals(List.of(3, 7), taskRepository.findInBucket(4, 3).stream().map(Task::getTaskId).toList());
+        assertEquals(2, taskRepository.deleteInBucket(4, 3));
+        assertEquals(List.of(4), taskRepository.findAll().stream().map(Task::getTaskId).toList());
+
+        // A copy keeps the version and modification time it was read with
+        assertEquals(1, taskRepository.insertCopy(copied));
+        Task reinserted = taskRepository.findById(7).orElseThrow();
+        assertEquals("Bucket 3 again", reinserted.getTaskTitle());
+        assertEquals(copied.getVersion(), reinserted.getVersion());
+        assertEquals(copied.getLastModified(), reinserted.getLastModified());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.hmcts.repository;
+
+import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.model.TaskStatusTransition;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class TaskStatusTransitionRepositoryTest {
+
+    private static final Instant START = Instant.parse("2030-01-01T09:00:00Z");
+
+    @Autowired
+    private TaskStatusTransitionRepository transitionRepository;
+
+    private TaskStatusTransition enter(int taskId, TaskStatus status, long minutes) {
+        return transitionRepository.save(new TaskStatusTransition(taskId, status, START.plusSeconds(minutes * 60)));
+    }
+
+    @Test
+    void testFindHistoryFromCursorInclusive() {
+        TaskStatusTransition created = enter(1, TaskStatus.TODO, 0);
+        TaskStatusTransition started = enter(1, TaskStatus.IN_PROGRESS, 5);
+        TaskStatusTransition completed = enter(1, TaskStatus.COMPLETED, 10);
+        // Changed in the same instant, so ordered after by id
+        TaskStatusTransition reopened = enter(1, TaskStatus.TODO, 10);
+        enter(2, TaskStatus.TODO, 1);
+
+        assertEquals(List.of(created.getId(), started.getId(), completed.getId(), reopened.getId()),
+                transitionRepository.findHistory(1, Limit.of(10)).stream()
+                        .map(TaskStatusTransition::getId).toList());
+        assertEquals(List.of(started.getId(), completed.getId(), reopened.getId()),
+                transitionRepository.findHistoryFrom(1, started.getChangedAt(), started.getId(), Limit.of(10)).stream()
+                        .map(TaskStatusTransition::getId).toList());
+        assertEquals(List.of(reopened.getId()),
+                transitionRepository.findHistoryFrom(1, reopened.getChangedAt(), reopened.getId(), Limit.of(10)).stream()
+                        .map(TaskStatusTransition::getId).toList());
+    }
+}
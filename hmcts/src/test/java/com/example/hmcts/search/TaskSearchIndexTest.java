@@ -0,0 +1,76 @@
+package com.example.hmcts.search;
+
+import com.example.hmcts.event.TaskChangedEvent;
+import com.example.hmcts.model.Task;
+import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.repository.TaskRepository;
+import com.example.hmcts.shard.TaskShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class TaskSearchIndexTest {
+
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex(mock(TaskRepository.class), TaskShards.unsharded(), mock(PlatformTransactionManager.class));
+        index.index(1, 0, "Review hearing bundle", "Check the bundle before the hearing");
+        index.index(2, 0, "File witness statement", "Statement for the hearing");
+        index.index(3, 0, "Book interpreter", null);
+    }
+
+    @Test
+    void testPrefixMatchingAndRanking() {
+        // Both mention hearings, but task 1 has the word in its title
+        assertEquals(List.of(1, 2), index.search("hear", 10));
+        assertEquals(List.of(3), index.search("INTERP", 10));
+        assertEquals(List.of(1), index.search("hear", 1));
+    }
+
+    @Test
+    void testEveryWordMustMatch() {
+        assertEquals(List.of(2), index.search("hearing, witness!", 10));
+        assertTrue(index.search("hearing interpreter", 10).isEmpty());
+        assertTrue(index.search("  ?! ", 10).isEmpty());
+    }
+
+    @Test
+    void testExactMatchOutranksPrefixMatch() {
+        index.index(4, 0, "Bundles", null);
+        index.index(5, 0, "Bundle", null);
+
+        // Task 1 has the exact word in both its title and its description, so it stays on top
+        assertEquals(List.of(1, 5, 4), index.search("bundle", 10));
+    }
+
+    @Test
+    void testFollowsCommittedChanges() {
+        Task task = new Task(2, "Order transcript", null, TaskStatus.TODO, LocalDateTime.now().plusDays(1));
+        task.setVersion(1);
+        index.onTaskChanged(TaskChangedEvent.updated(task, TaskStatus.TODO));
+
+        assertTrue(index.search("witness", 10).isEmpty());
+        assertEquals(List.of(2), index.search("transcript", 10));
+
+        index.onTaskChanged(TaskChangedEvent.deleted(1));
+        assertTrue(index.search("bundle", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testOlderVersionDoesNotReplaceNewerEntry() {
+        index.index(3, 2, "Book courtroom", null);
+        index.index(3, 1, "Book interpreter", null);
+
+        assertEquals(List.of(3), index.search("courtroom", 10));
+        assertTrue(index.search("interpreter", 10).isEmpty());
+    }
+}
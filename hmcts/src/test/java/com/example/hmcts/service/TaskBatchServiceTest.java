@@ -0,0 +1,186 @@
+package com.example.hmcts.service;
+
+import com.example.hmcts.config.CacheConfig;
+import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.dto.TaskStatusUpdateDto;
+import com.example.hmcts.event.TaskChangedEvent;
+import com.example.hmcts.model.Task;
+import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.repository.TaskRepository;
+import com.example.hmcts.service.TaskBatchResult.Outcome;
+import com.example.hmcts.shard.TaskShards;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskBatchServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskIdAllocator taskIdAllocator;
+
+    @Spy
+    private TaskShards taskShards = TaskShards.unsharded();
+
+    @InjectMocks
+    private TaskBatchService taskBatchService;
+
+    private LocalDateTime futureDate;
+
+    @BeforeEach
+    void setUp() {
+        futureDate = LocalDateTime.now().plusDays(1);
+    }
+
+    private TaskRequestDto request(String title) {
+        TaskRequestDto taskRequestDto = new TaskRequestDto();
+        taskRequestDto.setTaskTitle(title);
+        taskRequestDto.setTaskStatus(TaskStatus.TODO);
+        taskRequestDto.setDueDateTime(futureDate);
+        return taskRequestDto;
+    }
+
+    @Test
+    void testCreateTasks() {
+        when(taskIdAllocator.nextId()).thenReturn(1, 2);
+
+        List<TaskBatchResult> results = taskBatchService.createTasks(List.of(request("First"), request(""), request("Third")));
+
+        assertEquals(3, results.size());
+        assertEquals(Outcome.CREATED, results.get(0).outcome());
+        assertEquals(1, results.get(0).taskId());
+        assertEquals(Outcome.INVALID, results.get(1).outcome());
+        assertEquals("Task title cannot be empty", results.get(1).error());
+        assertEquals(Outcome.CREATED, results.get(2).outcome());
+        assertEquals("Third", results.get(2).task().getTaskTitle());
+        verify(taskRepository, times(1)).saveAll(anyIterable());
+    }
+
+    @Test
+    void testCreateTasks_ChunksLargeBatches() {
+        List<TaskRequestDto> requests = new ArrayList<>(Collections.nCopies(TaskBatchService.CHUNK_SIZE + 1, request("Task")));
+
+        taskBatchService.createTasks(requests);
+
+        verify(taskRepository, times(2)).saveAll(anyIterable());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void testCreateTasks_FailedChunk() {
+        when(taskRepository.saveAll(anyIterable())).thenThrow(new DataIntegrityViolationException("constraint"));
+
+        List<TaskBatchResult> results = taskBatchService.createTasks(List.of(request("First")));
+
+        assertEquals(Outcome.FAILED, results.get(0).outcome());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void testCreateTasks_RejectsOversizedBatch() {
+        List<TaskRequestDto> requests = Collections.nCopies(TaskBatchService.MAX_BATCH_SIZE + 1, request("Task"));
+
+        assertThrows(IllegalArgumentException.class, () -> taskBatchService.createTasks(requests));
+        assertThrows(IllegalArgumentException.class, () -> taskBatchService.createTasks(List.of()));
+    }
+
+    @Test
+    void testUpdateTaskStatuses() {
+        Task task = new Task(1, "Task", null, TaskStatus.TODO, futureDate);
+        when(taskRepository.findAllById(Set.of(1, 2))).thenReturn(List.of(task));
+
+        TaskStatusUpdateDto found = new TaskStatusUpdateDto();
+        found.setTaskId(1);
+        found.setTaskStatus(TaskStatus.COMPLETED);
+        TaskStatusUpdateDto missing = new TaskStatusUpdateDto();
+        missing.setTaskId(2);
+        missing.setTaskStatus(TaskStatus.COMPLETED);
+        TaskStatusUpdateDto invalid = new TaskStatusUpdateDto();
+        invalid.setTaskId(3);
+
+        List<TaskBatchResult> results = taskBatchService.updateTaskStatuses(List.of(found, missing, invalid));
+
+        assertEquals(Outcome.UPDATED, results.get(0).outcome());
+        assertEquals(TaskStatus.COMPLETED, task.getTaskStatus());
+        assertEquals(Outcome.NOT_FOUND, results.get(1).outcome());
+        assertEquals(Outcome.INVALID, results.get(2).outcome());
+        verify(entityManager).flush();
+    }
+
+    @Test
+    void testDeleteTasks() {
+        when(taskRepository.deleteByIds(Set.of(1, 2))).thenReturn(2);
+        when(cacheManager.getCache(CacheConfig.TASKS_CACHE)).thenReturn(cache);
+
+        List<TaskBatchResult> results = taskBatchService.deleteTasks(List.of(1, 2));
+
+        assertEquals(Outcome.DELETED, results.get(0).outcome());
+        assertEquals(Outcome.DELETED, results.get(1).outcome());
+        verify(taskRepository, never()).findExistingIds(any());
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(1));
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(2));
+        verify(cache).evict(1);
+        verify(cache).evict(2);
+    }
+
+    @Test
+    void testDeleteTasks_SomeNotFound() {
+        SimpleTransactionStatus firstAttempt = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(firstAttempt, new SimpleTransactionStatus());
+        when(taskRepository.deleteByIds(Set.of(1, 2))).thenReturn(1);
+        when(taskRepository.findExistingIds(Set.of(1, 2))).thenReturn(List.of(1));
+        when(cacheManager.getCache(CacheConfig.TASKS_CACHE)).thenReturn(cache);
+
+        List<TaskBatchResult> results = taskBatchService.deleteTasks(List.of(1, 2));
+
+        assertEquals(Outcome.DELETED, results.get(0).outcome());
+        assertEquals(Outcome.NOT_FOUND, results.get(1).outcome());
+        // The short DELETE is rolled back and the existing ids deleted again
+        assertTrue(firstAttempt.isRollbackOnly());
+        verify(taskRepository).deleteByIds(Set.of(1));
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(1));
+        verify(eventPublisher, never()).publishEvent(TaskChangedEvent.deleted(2));
+        verify(cache).evict(1);
+        verify(cache, never()).evict(2);
+    }
+}
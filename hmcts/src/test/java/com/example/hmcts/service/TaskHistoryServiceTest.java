@@ -0,0 +1,196 @@
+package com.example.hmcts.service;
+
+import com.example.hmcts.dto.TaskTransitionDto;
+import com.example.hmcts.event.TaskChangedEvent;
+import com.example.hmcts.model.Task;
+import com.example.hmcts.model.TaskCurrentStatus;
+import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.model.TaskStatusTransition;
+import com.example.hmcts.repository.TaskCurrentStatusRepository;
+import com.example.hmcts.repository.TaskStatusTransitionRepository;
+import com.example.hmcts.shard.TaskShards;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskHistoryServiceTest {
+
+    private static final Instant START = Instant.parse("2030-01-01T09:00:00Z");
+
+    @Mock
+    private TaskStatusTransitionRepository transitionRepository;
+
+    @Mock
+    private TaskCurrentStatusRepository currentStatusRepository;
+
+    @Spy
+    private TaskShards taskShards = TaskShards.unsharded();
+
+    @InjectMocks
+    private TaskHistoryService taskHistoryService;
+
+    private static Task task(int taskId, TaskStatus status) {
+        return new Task(taskId, "Task", null, status, LocalDateTime.now().plusDays(1));
+    }
+
+    private static TaskStatusTransition entry(long id, TaskStatus status, long minutes) {
+        TaskStatusTransition entry = new TaskStatusTransition(1, status, START.plusSeconds(minutes * 60));
+        ReflectionTestUtils.setField(entry, "id", id);
+        return entry;
+    }
+
+    /**
+     * Publishes the changes inside a simulated transaction, then commits or rolls it back.
+     */
+    private static void inTransaction(boolean commit, Runnable changes) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changes.run();
+            if (commit) {
+                TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            }
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    commit ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecordsATransactionsChangesTogether() {
+        TaskCurrentStatus started = new TaskCurrentStatus(1, TaskStatus.TODO, START);
+        TaskCurrentStatus removed = new TaskCurrentStatus(3, TaskStatus.TODO, START);
+        when(currentStatusRepository.findAllById(Set.of(1, 3, 4))).thenReturn(List.of(started, removed));
+
+        inTransaction(true, () -> {
+            taskHistoryService.onTaskChanged(TaskChangedEvent.created(task(2, TaskStatus.TODO)));
+            taskHistoryService.onTaskChanged(TaskChangedEvent.statusChanged(task(1, TaskStatus.IN_PROGRESS), TaskStatus.TODO));
+            taskHistoryService.onTaskChanged(TaskChangedEvent.statusChanged(task(1, TaskStatus.COMPLETED), TaskStatus.IN_PROGRESS));
+            taskHistoryService.onTaskChanged(TaskChangedEvent.deleted(3));
+            taskHistoryService.onTaskChanged(TaskChangedEvent.updated(task(4, TaskStatus.IN_PROGRESS), TaskStatus.TODO));
+            // Nothing is written until the commit
+            verifyNoInteractions(transitionRepository, currentStatusRepository);
+        });
+
+        ArgumentCaptor<List<TaskStatusTransition>> entries = ArgumentCaptor.forClass(List.class);
+        verify(transitionRepository).saveAll(entries.capture());
+        assertEquals(Arrays.asList(TaskStatus.TODO, TaskStatus.IN_PROGRESS, TaskStatus.COMPLETED, null, TaskStatus.IN_PROGRESS),
+                entries.getValue().stream().map(TaskStatusTransition::getStatus).toList());
+        // One read for the rows of the tasks not created here; the rest are inserted, moved in place or removed
+        verify(currentStatusRepository, times(1)).findAllById(any());
+        assertEquals(TaskStatus.COMPLETED, started.getStatus());
+        ArgumentCaptor<List<TaskCurrentStatus>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(currentStatusRepository).saveAll(inserted.capture());
+        assertEquals(Set.of(2, 4), inserted.getValue().stream().map(TaskCurrentStatus::getTaskId).collect(Collectors.toSet()));
+        verify(currentStatusRepository).deleteAll(List.of(removed));
+        assertFalse(TransactionSynchronizationManager.hasResource(TaskHistoryService.class));
+    }
+
+    @Test
+    void testRolledBackChangesAreNotRecorded() {
+        inTransaction(false, () ->
+                taskHistoryService.onTaskChanged(TaskChangedEvent.statusChanged(task(1, TaskStatus.COMPLETED), TaskStatus.TODO)));
+
+        verifyNoInteractions(transitionRepository, currentStatusRepository);
+        assertFalse(TransactionSynchronizationManager.hasResource(TaskHistoryService.class));
+    }
+
+    @Test
+    void testIgnoresChangesThatKeepTheStatus() {
+        inTransaction(true, () -> {
+            taskHistoryService.onTaskChanged(TaskChangedEvent.updated(task(1, TaskStatus.TODO), TaskStatus.TODO));
+            taskHistoryService.onTaskChanged(TaskChangedEvent.statusChanged(task(1, TaskStatus.COMPLETED), TaskStatus.COMPLETED));
+        });
+
+        verifyNoInteractions(transitionRepository, currentStatusRepository);
+    }
+
+    @Test
+    void testHistoryPagesCarryFromStatusAndDurations() {
+        TaskStatusTransition created = entry(1, TaskStatus.TODO, 0);
+        TaskStatusTransition started = entry(2, TaskStatus.IN_PROGRESS, 5);
+        TaskStatusTransition completed = entry(3, TaskStatus.COMPLETED, 65);
+        TaskStatusTransition deleted = entry(4, null, 70);
+        when(transitionRepository.findHistory(1, Limit.of(3)))
+                .thenReturn(List.of(created, started, completed));
+
+        TaskHistoryPage first = taskHistoryService.getHistory(1, null, 2);
+
+        assertEquals(2, first.transitions().size());
+        assertNull(first.transitions().get(0).getFromStatus());
+        assertEquals(300L, first.transitions().get(0).getSecondsInStatus());
+        assertEquals("TODO", first.transitions().get(1).getFromStatus());
+        // The entry read past the page ends the time spent in its last status
+        assertEquals(3600L, first.transitions().get(1).getSecondsInStatus());
+        assertNotNull(first.nextCursor());
+
+        // The next page starts by re-reading the cursor's entry for its status
+        when(transitionRepository.findHistoryFrom(1, started.getChangedAt(), 2L, Limit.of(4)))
+                .thenReturn(List.of(started, completed, deleted));
+
+        TaskHistoryPage second = taskHistoryService.getHistory(1, first.nextCursor(), 2);
+
+        List<TaskTransitionDto> transitions = second.transitions();
+        assertEquals(List.of("IN_PROGRESS", "COMPLETED"), transitions.stream().map(TaskTransitionDto::getFromStatus).toList());
+        assertEquals(List.of("COMPLETED", TaskHistoryService.DELETED),
+                transitions.stream().map(TaskTransitionDto::getToStatus).toList());
+        assertEquals(300L, transitions.get(0).getSecondsInStatus());
+        assertNull(transitions.get(1).getSecondsInStatus());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void testTimeInStatusCountsUpToNow() {
+        TaskCurrentStatus longest = new TaskCurrentStatus(2, TaskStatus.IN_PROGRESS, Instant.now().minusSeconds(300));
+        TaskCurrentStatus started = new TaskCurrentStatus(1, TaskStatus.IN_PROGRESS, Instant.now().minusSeconds(120));
+        when(currentStatusRepository.findInStatus(TaskStatus.IN_PROGRESS, Instant.EPOCH, Integer.MIN_VALUE, Limit.of(2)))
+                .thenReturn(List.of(longest, started));
+
+        TaskHistoryPage first = taskHistoryService.getTimeInStatus(TaskStatus.IN_PROGRESS, null, 1);
+
+        assertEquals(1, first.transitions().size());
+        assertEquals(2, first.transitions().get(0).getTaskId());
+        assertTrue(first.transitions().get(0).getSecondsInStatus() >= 300);
+        assertNotNull(first.nextCursor());
+
+        // The next page starts after the last row's entry time and task id
+        when(currentStatusRepository.findInStatus(TaskStatus.IN_PROGRESS, longest.getEnteredAt(), 2, Limit.of(2)))
+                .thenReturn(List.of(started));
+
+        TaskHistoryPage second = taskHistoryService.getTimeInStatus(TaskStatus.IN_PROGRESS, first.nextCursor(), 1);
+
+        assertEquals(1, second.transitions().get(0).getTaskId());
+        assertTrue(second.transitions().get(0).getSecondsInStatus() >= 120);
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> taskHistoryService.getHistory(1, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> taskHistoryService.getHistory(1, "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> taskHistoryService.getTimeInStatus(null, null, 10));
+        verifyNoInteractions(transitionRepository, currentStatusRepository);
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.hmcts.service;
+
+import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.exception.TaskIngestQueueFullException;
+import com.example.hmcts.model.Task;
+import com.example.hmcts.model.TaskStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskIngestQueueTest {
+
+    @Mock
+    private TaskBatchService taskBatchService;
+
+    @TempDir
+    private Path journalDirectory;
+
+    private TaskIngestQueue taskIngestQueue;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() throws InterruptedException, IOException {
+        taskIngestQueue.shutdown();
+    }
+
+    private TaskIngestQueue newQueue(int capacity, String journal) throws IOException {
+        taskIngestQueue = new TaskIngestQueue(taskBatchService, meterRegistry,
+                new ObjectMapper().findAndRegisterModules(), capacity, 10, 3, Duration.ofMillis(10),
+                Duration.ofMillis(50), Duration.ofMinutes(1), journal, DataSize.ofKilobytes(64));
+        return taskIngestQueue;
+    }
+
+    private void createTasksSuccessfully() {
+        when(taskBatchService.createTasks(anyList(), any())).thenAnswer(invocation -> {
+            List<TaskRequestDto> requests = invocation.getArgument(0);
+            List<TaskBatchResult> results = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) {
+                Task task = new Task(100 + i, requests.get(i).getTaskTitle(), null, TaskStatus.TODO, LocalDateTime.now());
+                results.add(TaskBatchResult.applied(i, TaskBatchResult.Outcome.CREATED, task));
+            }
+            return results;
+        });
+    }
+
+    private static TaskRequestDto request(String title) {
+        TaskRequestDto taskRequestDto = new TaskRequestDto();
+        taskRequestDto.setTaskTitle(title);
+        taskRequestDto.setTaskStatus(TaskStatus.TODO);
+        taskRequestDto.setDueDateTime(LocalDateTime.now().plusDays(1));
+        return taskRequestDto;
+    }
+
+    private TaskIngestStatus awaitCompletion(String trackingId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        TaskIngestStatus status = taskIngestQueue.getStatus(trackingId).orElseThrow();
+        while (status.state() == TaskIngestStatus.State.QUEUED && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            status = taskIngestQueue.getStatus(trackingId).orElseThrow();
+        }
+        return status;
+    }
+
+    @Test
+    void testQueuedTasksAreCreatedAndTracked() throws Exception {
+        createTasksSuccessfully();
+        newQueue(10, "").start();
+
+        String trackingId = taskIngestQueue.submit(request("Queued"));
+        TaskIngestStatus status = awaitCompletion(trackingId);
+
+        assertEquals(TaskIngestStatus.State.CREATED, status.state());
+        assertEquals(100, status.taskId());
+        assertTrue(taskIngestQueue.getStatus("unknown").isEmpty());
+    }
+
+    @Test
+    void testInvalidTaskIsRejectedBeforeQueueing() throws IOException {
+        newQueue(10, "").start();
+
+        assertThrows(IllegalArgumentException.class, () -> taskIngestQueue.submit(request(" ")));
+        verifyNoInteractions(taskBatchService);
+    }
+
+    @Test
+    void testFullQueueRefusesSubmissions() throws Exception {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskBatchService.createTasks(anyList(), any())).thenAnswer(invocation -> {
+            writerBlocked.countDown();
+            release.await();
+            throw new IllegalStateException("Database unavailable");
+        });
+        newQueue(1, "").start();
+
+        String first = taskIngestQueue.submit(request("Taken by the writer"));
+        assertTrue(writerBlocked.await(5, TimeUnit.SECONDS));
+        String second = taskIngestQueue.submit(request("Fills the queue"));
+
+        assertThrows(TaskIngestQueueFullException.class, () -> taskIngestQueue.submit(request("No room")));
+
+        release.countDown();
+        assertEquals(TaskIngestStatus.State.FAILED, awaitCompletion(first).state());
+        assertEquals("Database unavailable", awaitCompletion(second).error());
+        // Each batch was tried the configured number of times before giving up
+        verify(taskBatchService, times(6)).createTasks(anyList(), any());
+    }
+
+    @Test
+    void testJournaledTasksAreReplayedAfterRestart() throws Exception {
+        // The writer is never started, as if the process died before the database caught up
+        newQueue(10, journalDirectory.toString());
+        String first = taskIngestQueue.submit(request("Journaled 1"));
+        String second = taskIngestQueue.submit(request("Journaled 2"));
+        taskIngestQueue.shutdown();
+
+        createTasksSuccessfully();
+        newQueue(10, journalDirectory.toString());
+        assertEquals(TaskIngestStatus.State.QUEUED, taskIngestQueue.getStatus(first).orElseThrow().state());
+        taskIngestQueue.start();
+
+        assertEquals(TaskIngestStatus.State.CREATED, awaitCompletion(first).state());
+        assertEquals(TaskIngestStatus.State.CREATED, awaitCompletion(second).state());
+        taskIngestQueue.shutdown();
+
+        // Checkpointed after the commit, so a further restart has nothing to replay
+        newQueue(10, journalDirectory.toString());
+        assertTrue(taskIngestQueue.getStatus(first).isEmpty());
+    }
+
+    @Test
+    void testWriterKeepsRunningWhenCheckpointFails() throws Exception {
+        createTasksSuccessfully();
+        newQueue(10, journalDirectory.toString()).start();
+        // Closed under the journal, so every checkpoint fails
+        TaskJournal journal = (TaskJournal) ReflectionTestUtils.getField(taskIngestQueue, "journal");
+        ((FileChannel) ReflectionTestUtils.getField(journal, "checkpointChannel")).close();
+
+        String first = taskIngestQueue.submit(request("Checkpoint fails"));
+        assertEquals(TaskIngestStatus.State.CREATED, awaitCompletion(first).state());
+        String second = taskIngestQueue.submit(request("Written after the failure"));
+
+        assertEquals(TaskIngestStatus.State.CREATED, awaitCompletion(second).state());
+        assertTrue(meterRegistry.get("tasks.ingest.journal.checkpoint.failures").counter().count() >= 1);
+    }
+
+    @Test
+    void testJournaledTasksAreRetriedUntilCreated() throws Exception {
+        when(taskBatchService.createTasks(anyList(), any()))
+                .thenThrow(new IllegalStateException("Database unavailable"))
+                .thenThrow(new IllegalStateException("Database unavailable"))
+                .thenThrow(new IllegalStateException("Database unavailable"))
+                .thenThrow(new IllegalStateException("Database unavailable"))
+                .thenAnswer(invocation -> List.of(TaskBatchResult.applied(0, TaskBatchResult.Outcome.CREATED,
+                        new Task(100, "Journaled", null, TaskStatus.TODO, LocalDateTime.now()))));
+        newQueue(10, journalDirectory.toString()).start();
+
+        String trackingId = taskIngestQueue.submit(request("Journaled"));
+
+        // Past the configured attempts, which only bound retries of tasks held in memory
+        assertEquals(TaskIngestStatus.State.CREATED, awaitCompletion(trackingId).state());
+        verify(taskBatchService, times(5)).createTasks(anyList(), any());
+        taskIngestQueue.shutdown();
+
+        newQueue(10, journalDirectory.toString());
+        assertTrue(taskIngestQueue.getStatus(trackingId).isEmpty());
+    }
+
+    @Test
+    void testJournaledTasksStillFailingAtShutdownAreReplayed() throws Exception {
+        CountDownLatch attempted = new CountDownLatch(1);
+        when(taskBatchService.createTasks(anyList(), any())).thenAnswer(invocation -> {
+            List<TaskRequestDto> requests = invocation.getArgument(0);
+            attempted.countDown();
+            // The first task of the batch is created and the second keeps failing
+            List<TaskBatchResult> results = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) {
+                results.add(requests.get(i).getTaskTitle().equals("Created")
+                        ? TaskBatchResult.applied(i, TaskBatchResult.Outcome.CREATED,
+                                new Task(100, "Created", null, TaskStatus.TODO, LocalDateTime.now()))
+                        : TaskBatchResult.rejected(i, TaskBatchResult.Outcome.FAILED, null, "Database unavailable"));
+            }
+            return results;
+        });
+        newQueue(10, journalDirectory.toString());
+        String created = taskIngestQueue.submit(request("Created"));
+        String failing = taskIngestQueue.submit(request("Failing"));
+        taskIngestQueue.start();
+        assertTrue(attempted.await(5, TimeUnit.SECONDS));
+        taskIngestQueue.shutdown();
+
+        newQueue(10, journalDirectory.toString());
+        assertTrue(taskIngestQueue.getStatus(created).isEmpty());
+        assertEquals(TaskIngestStatus.State.QUEUED, taskIngestQueue.getStatus(failing).orElseThrow().state());
+    }
+}
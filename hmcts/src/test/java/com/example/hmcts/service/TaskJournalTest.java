@@ -0,0 +1,118 @@
+package com.example.hmcts.service;
+
+import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.model.TaskStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskJournalTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private TaskJournal open() throws IOException {
+        return new TaskJournal(directory, SEGMENT_SIZE, objectMapper);
+    }
+
+    private static TaskRequestDto request(String title) {
+        TaskRequestDto taskRequestDto = new TaskRequestDto();
+        taskRequestDto.setTaskTitle(title);
+        taskRequestDto.setTaskStatus(TaskStatus.TODO);
+        taskRequestDto.setDueDateTime(LocalDateTime.of(2030, 1, 1, 9, 0));
+        return taskRequestDto;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("segment-")).count();
+        }
+    }
+
+    @Test
+    void testRecoversEntriesAfterCheckpoint() throws IOException {
+        try (TaskJournal journal = open()) {
+            assertTrue(journal.recover().isEmpty());
+            long first = journal.append("a", request("First"));
+            long second = journal.append("b", request("Second"));
+            journal.append("c", request("Third"));
+            journal.sync(second);
+            journal.checkpoint(first);
+        }
+
+        try (TaskJournal journal = open()) {
+            List<TaskJournal.Entry> recovered = journal.recover();
+            assertEquals(List.of("b", "c"), recovered.stream().map(TaskJournal.Entry::trackingId).toList());
+            assertEquals("Second", recovered.get(0).request().getTaskTitle());
+            assertEquals(LocalDateTime.of(2030, 1, 1, 9, 0), recovered.get(0).request().getDueDateTime());
+
+            // Numbering carries on after the recovered entries
+            assertEquals(recovered.get(1).sequence() + 1, journal.append("d", request("Fourth")));
+        }
+    }
+
+    @Test
+    void testRollsSegmentsAndDeletesCheckpointedOnes() throws IOException {
+        long last = 0;
+        try (TaskJournal journal = open()) {
+            for (int i = 0; i < 20; i++) {
+                last = journal.append("t" + i, request("Task " + i));
+            }
+            journal.sync(last);
+            assertTrue(segmentCount() > 1);
+
+            journal.checkpoint(last);
+            // Only the segment still being appended to is kept
+            assertEquals(1, segmentCount());
+        }
+
+        try (TaskJournal journal = open()) {
+            assertTrue(journal.recover().isEmpty());
+            assertEquals(last + 1, journal.append("next", request("Next")));
+        }
+    }
+
+    @Test
+    void testStopsAtTornRecord() throws IOException {
+        Path segment;
+        try (TaskJournal journal = open()) {
+            journal.append("a", request("Intact"));
+            journal.sync(journal.append("b", request("Torn")));
+            try (Stream<Path> files = Files.list(directory)) {
+                segment = files.filter(path -> path.getFileName().toString().startsWith("segment-")).findFirst().orElseThrow();
+            }
+        }
+        // Corrupt the first payload byte of the second record, as a crash part-way through writing it would
+        byte[] bytes = Files.readAllBytes(segment);
+        int second = ByteBuffer.wrap(bytes).getInt(0) + Integer.BYTES + Long.BYTES + Integer.BYTES;
+        bytes[second + Integer.BYTES + Long.BYTES] ^= 0x7f;
+        Files.write(segment, bytes);
+
+        try (TaskJournal journal = open()) {
+            assertEquals(List.of("a"), journal.recover().stream().map(TaskJournal.Entry::trackingId).toList());
+        }
+    }
+
+    @Test
+    void testRejectsEntryLargerThanSegment() throws IOException {
+        try (TaskJournal journal = open()) {
+            TaskRequestDto large = request("Large");
+            large.setTaskDescription("x".repeat(SEGMENT_SIZE));
+            assertThrows(IllegalArgumentException.class, () -> journal.append("large", large));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.hmcts.service;
+
+import com.example.hmcts.dto.TaskResponseDto;
+import com.example.hmcts.event.TaskOverdueEvent;
+import com.example.hmcts.model.Task;
+import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.repository.TaskRepository;
+import com.example.hmcts.shard.TaskShards;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskOverdueSweeperTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskMetrics taskMetrics;
+
+    @Spy
+    private TaskShards taskShards = TaskShards.unsharded();
+
+    @InjectMocks
+    private TaskOverdueSweeper sweeper;
+
+    @Test
+    void testSweepPublishesTasksFallingDueSinceLastSweep() {
+        TaskResponseDto overdue = TaskResponseDto.fromTask(
+                new Task(1, "Overdue", null, TaskStatus.TODO, LocalDateTime.now().minusSeconds(1)));
+        LocalDateTime firstWindowStart = sweeper.getLastSweep();
+        when(taskRepository.findResponsesDueBetween(any(TaskStatus.class), eq(firstWindowStart), eq(Integer.MAX_VALUE),
+                any(LocalDateTime.class), eq(Limit.unlimited())))
+                .thenAnswer(invocation -> invocation.getArgument(0) == TaskStatus.TODO ? List.of(overdue) : List.of());
+
+        sweeper.sweep();
+
+        verify(eventPublisher).publishEvent(new TaskOverdueEvent(overdue));
+        verify(taskMetrics).recordOverdue(1);
+
+        // The next sweep starts where this one ended, so each task is announced once
+        LocalDateTime secondWindowStart = sweeper.getLastSweep();
+        assertFalse(secondWindowStart.isBefore(firstWindowStart));
+        when(taskRepository.findResponsesDueBetween(any(TaskStatus.class), eq(secondWindowStart), eq(Integer.MAX_VALUE),
+                any(LocalDateTime.class), eq(Limit.unlimited())))
+                .thenReturn(List.of());
+
+        sweeper.sweep();
+
+        verifyNoMoreInteractions(eventPublisher);
+        verify(taskMetrics).recordOverdue(0);
+        // One range scan per open status and sweep
+        verify(taskRepository, times(4)).findResponsesDueBetween(any(), any(), anyInt(), any(), any());
+        verify(taskRepository, never()).findResponsesDueBetween(eq(TaskStatus.COMPLETED), any(), anyInt(), any(), any());
+    }
+}
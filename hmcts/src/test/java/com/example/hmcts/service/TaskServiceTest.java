@@ -1,24 +1,38 @@
 package com.example.hmcts.service;
 
 import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.dto.TaskResponseDto;
+import com.example.hmcts.event.TaskChangedEvent;
 import com.example.hmcts.exception.TaskNotFoundException;
+import com.example.hmcts.exception.TaskVersionMismatchException;
 import com.example.hmcts.model.Task;
 import com.example.hmcts.model.TaskStatus;
 import com.example.hmcts.repository.TaskRepository;
+import com.example.hmcts.search.TaskSearchIndex;
+import com.example.hmcts.shard.TaskShards;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +41,24 @@ public class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskMetrics taskMetrics;
+
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    private TaskIdAllocator taskIdAllocator;
+
+    @Spy
+    private TaskShards taskShards = TaskShards.unsharded();
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -56,6 +88,7 @@ public class TaskServiceTest {
 
     @Test
     void testCreateTask() {
+        when(taskIdAllocator.nextId()).thenReturn(1);
         when(taskRepository.save(any(Task.class))).thenReturn(testTask);
 
         Task created = taskService.createTask(testTaskRequestDto);
@@ -63,7 +96,8 @@ public class TaskServiceTest {
         assertNotNull(created);
         assertEquals("Test Task", created.getTaskTitle());
         assertEquals(TaskStatus.TODO, created.getTaskStatus());
-        verify(taskRepository, times(1)).save(any(Task.class));
+        verify(taskRepository, times(1)).save(argThat(task -> task.getTaskId() == 1));
+        verify(eventPublisher).publishEvent(TaskChangedEvent.created(testTask));
     }
 
     @Test
@@ -77,6 +111,17 @@ public class TaskServiceTest {
         assertEquals("Test Task", found.getTaskTitle());
     }
 
+    @Test
+    void testGetTaskResponseById() {
+        when(taskRepository.findResponseById(1)).thenReturn(Optional.of(TaskResponseDto.fromTask(testTask)));
+
+        TaskResponseDto found = taskService.getTaskResponseById(1);
+
+        assertEquals(1, found.getTaskId());
+        assertEquals("TODO", found.getTaskStatus());
+        verify(taskRepository, never()).findById(anyInt());
+    }
+
     @Test
     void testGetTaskById_NotFound() {
         when(taskRepository.findById(99)).thenReturn(Optional.empty());
@@ -88,12 +133,145 @@ public class TaskServiceTest {
 
     @Test
     void testGetAllTasks() {
-        when(taskRepository.findAll()).thenReturn(Arrays.asList(testTask));
+        when(taskRepository.findResponsePage(eq(TaskRepository.MIN_DUE_DATE_TIME), eq(Integer.MIN_VALUE),
+                eq(TaskRepository.MAX_DUE_DATE_TIME), eq(Limit.of(3))))
+                .thenReturn(Arrays.asList(TaskResponseDto.fromTask(testTask)));
+
+        TaskPage page = taskService.getTasks(null, null, null, null, 2);
+
+        assertNotNull(page);
+        assertEquals(1, page.tasks().size());
+        assertNull(page.nextCursor());
+        verify(taskMetrics).recordListSize(1);
+    }
+
+    @Test
+    void testGetAllTasks_NextCursor() {
+        TaskResponseDto first = TaskResponseDto.fromTask(testTask);
+        TaskResponseDto second = TaskResponseDto.fromTask(new Task(2, "Second", null, TaskStatus.TODO, futureDate.plusHours(1)));
+        TaskResponseDto third = TaskResponseDto.fromTask(new Task(3, "Third", null, TaskStatus.TODO, futureDate.plusHours(2)));
+        when(taskRepository.findResponsePage(eq(TaskRepository.MIN_DUE_DATE_TIME), eq(Integer.MIN_VALUE),
+                eq(TaskRepository.MAX_DUE_DATE_TIME), eq(Limit.of(3))))
+                .thenReturn(Arrays.asList(first, second, third));
+
+        TaskPage page = taskService.getTasks(null, null, null, null, 2);
+
+        assertEquals(2, page.tasks().size());
+        assertEquals(new TaskCursor(second.getDueDateTime(), 2), TaskCursor.decode(page.nextCursor()));
 
-        List<Task> tasks = taskService.getAllTasks();
+        when(taskRepository.findResponsePage(eq(second.getDueDateTime()), eq(2), eq(TaskRepository.MAX_DUE_DATE_TIME), eq(Limit.of(3))))
+                .thenReturn(List.of(third));
 
-        assertNotNull(tasks);
-        assertEquals(1, tasks.size());
+        TaskPage next = taskService.getTasks(null, null, null, page.nextCursor(), 2);
+
+        assertEquals(1, next.tasks().size());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    void testGetAllTasks_StatusAndRange() {
+        when(taskRepository.findResponsePageByStatus(eq(TaskStatus.TODO), eq(futureDate), eq(Integer.MIN_VALUE),
+                eq(futureDate.plusDays(1)), eq(Limit.of(11))))
+                .thenReturn(List.of(TaskResponseDto.fromTask(testTask)));
+
+        // A cursor from before dueFrom restarts the page at dueFrom
+        String staleCursor = new TaskCursor(futureDate.minusDays(1), 7).encode();
+        TaskPage page = taskService.getTasks(TaskStatus.TODO, futureDate, futureDate.plusDays(1), staleCursor, 10);
+
+        assertEquals(1, page.tasks().size());
+        verify(taskRepository, never()).findResponsePage(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void testGetAllTasks_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasks(null, null, null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasks(null, null, null, "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTasks(null, futureDate, futureDate.minusDays(1), null, 10));
+    }
+
+    @Test
+    void testGetTasksDueWithin() {
+        TaskResponseDto dueSoon = TaskResponseDto.fromTask(testTask);
+        TaskResponseDto inProgress = TaskResponseDto.fromTask(
+                new Task(2, "In progress", null, TaskStatus.IN_PROGRESS, futureDate.plusHours(1)));
+        when(taskRepository.findResponsesDueBetween(any(TaskStatus.class), any(LocalDateTime.class), eq(Integer.MAX_VALUE),
+                any(LocalDateTime.class), eq(Limit.of(2))))
+                .thenAnswer(invocation -> {
+                    LocalDateTime after = invocation.getArgument(1);
+                    LocalDateTime until = invocation.getArgument(3);
+                    assertEquals(after.plusHours(48), until);
+                    return invocation.getArgument(0) == TaskStatus.TODO ? List.of(dueSoon) : List.of(inProgress);
+                });
+
+        // The scans of each open status are merged in due order
+        TaskPage page = taskService.getTasksDueWithin(48, null, 1);
+
+        assertEquals(List.of(dueSoon), page.tasks());
+        assertEquals(new TaskCursor(dueSoon.getDueDateTime(), 1), TaskCursor.decode(page.nextCursor()));
+        verify(taskRepository, never()).findResponsesDueBetween(eq(TaskStatus.COMPLETED), any(), anyInt(), any(), any());
+
+        when(taskRepository.findResponsesDueBetween(any(TaskStatus.class), eq(dueSoon.getDueDateTime()), eq(1),
+                any(LocalDateTime.class), eq(Limit.of(2))))
+                .thenAnswer(invocation -> invocation.getArgument(0) == TaskStatus.TODO ? List.of() : List.of(inProgress));
+
+        TaskPage next = taskService.getTasksDueWithin(48, page.nextCursor(), 1);
+
+        assertEquals(List.of(inProgress), next.tasks());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    void testGetOverdueTasks() {
+        when(taskRepository.findResponsesDueBetween(any(TaskStatus.class), eq(TaskRepository.MIN_DUE_DATE_TIME),
+                eq(Integer.MIN_VALUE), any(LocalDateTime.class), eq(Limit.of(11))))
+                .thenReturn(List.of());
+
+        TaskPage page = taskService.getOverdueTasks(null, 10);
+
+        assertTrue(page.tasks().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testDueQueries_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksDueWithin(0, null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTasksDueWithin(TaskService.MAX_DUE_WITHIN_HOURS + 1, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> taskService.getOverdueTasks(null, TaskService.MAX_PAGE_SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> taskService.getOverdueTasks("not-a-cursor", 10));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void testSearchTasks() {
+        TaskResponseDto first = TaskResponseDto.fromTask(testTask);
+        TaskResponseDto second = TaskResponseDto.fromTask(new Task(2, "Second", null, TaskStatus.TODO, futureDate));
+        when(taskSearchIndex.search("test", 10)).thenReturn(List.of(2, 3, 1));
+        // Task 3 was deleted after it was indexed
+        when(taskRepository.findResponsesByIds(List.of(2, 3, 1))).thenReturn(List.of(first, second));
+
+        assertEquals(List.of(second, first), taskService.searchTasks("test", 10));
+    }
+
+    @Test
+    void testSearchTasks_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasks(" ", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.searchTasks("test", TaskService.MAX_SEARCH_LIMIT + 1));
+        verifyNoInteractions(taskSearchIndex);
+    }
+
+    @Test
+    void testExportTasks() {
+        TaskResponseDto first = TaskResponseDto.fromTask(testTask);
+        TaskResponseDto second = TaskResponseDto.fromTask(new Task(2, "Second", null, TaskStatus.TODO, futureDate));
+        when(taskRepository.streamAllResponses()).thenReturn(Stream.of(first, second));
+
+        List<TaskResponseDto> exported = new ArrayList<>();
+        taskService.exportTasks(exported::add);
+
+        assertEquals(List.of(first, second), exported);
     }
 
     @Test
@@ -102,7 +280,7 @@ public class TaskServiceTest {
         when(taskRepository.save(any(Task.class))).thenReturn(testTask);
 
         testTaskRequestDto.setTaskTitle("Updated Title");
-        Task updated = taskService.updateTask(1, testTaskRequestDto);
+        Task updated = taskService.updateTask(1, testTaskRequestDto, null);
 
         assertNotNull(updated);
         assertEquals("Updated Title", updated.getTaskTitle());
@@ -110,21 +288,85 @@ public class TaskServiceTest {
 
     @Test
     void testUpdateTaskStatus() {
+        testTask.setPreviousStatus(TaskStatus.TODO);
+        testTask.setTaskStatus(TaskStatus.COMPLETED);
+        when(taskRepository.updateStatus(eq(1), eq(TaskStatus.COMPLETED), any(Instant.class))).thenReturn(1);
         when(taskRepository.findById(1)).thenReturn(Optional.of(testTask));
-        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
 
-        Task updated = taskService.updateTaskStatus(1, TaskStatus.COMPLETED);
+        Task updated = taskService.updateTaskStatus(1, TaskStatus.COMPLETED, null);
 
-        assertNotNull(updated);
-        assertEquals(TaskStatus.COMPLETED, updated.getTaskStatus());
+        assertSame(testTask, updated);
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(taskRepository, never()).existsById(anyInt());
+        verify(eventPublisher).publishEvent(TaskChangedEvent.statusChanged(testTask, TaskStatus.TODO));
+    }
+
+    @Test
+    void testUpdateTaskStatus_NotFound() {
+        when(taskRepository.updateStatus(eq(99), eq(TaskStatus.COMPLETED), any(Instant.class))).thenReturn(0);
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.updateTaskStatus(99, TaskStatus.COMPLETED, null));
+        verify(taskRepository, never()).findById(anyInt());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
     void testDeleteTask() {
+        when(taskRepository.deleteIfExists(1)).thenReturn(1);
+
+        assertDoesNotThrow(() -> taskService.deleteTask(1, null));
+        verify(taskRepository, never()).findById(anyInt());
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(1));
+    }
+
+    @Test
+    void testDeleteTask_NotFound() {
+        when(taskRepository.deleteIfExists(99)).thenReturn(0);
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.deleteTask(99, null));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testConditionalWrites_VersionMismatch() {
+        testTask.setVersion(3);
         when(taskRepository.findById(1)).thenReturn(Optional.of(testTask));
-        doNothing().when(taskRepository).delete(any(Task.class));
+        when(taskRepository.updateStatusAtVersion(eq(1), eq(TaskStatus.COMPLETED), eq(2L), any(Instant.class)))
+                .thenReturn(0);
+        when(taskRepository.deleteAtVersion(1, 2L)).thenReturn(0);
+        when(taskRepository.existsById(1)).thenReturn(true);
+
+        assertThrows(TaskVersionMismatchException.class,
+                () -> taskService.updateTask(1, testTaskRequestDto, 2L));
+        assertThrows(TaskVersionMismatchException.class,
+                () -> taskService.updateTaskStatus(1, TaskStatus.COMPLETED, 2L));
+        assertThrows(TaskVersionMismatchException.class,
+                () -> taskService.deleteTask(1, 2L));
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testCheckTaskData() {
+        assertSame(TaskDataCheck.VALID, TaskService.checkTaskData(testTaskRequestDto));
+        assertSame(TaskDataCheck.MISSING_DATA, TaskService.checkTaskData(null));
+
+        testTaskRequestDto.setTaskTitle("x".repeat(51));
+        assertSame(TaskDataCheck.TITLE_TOO_LONG, TaskService.checkTaskData(testTaskRequestDto));
+
+        testTaskRequestDto.setTaskTitle("Test Task");
+        testTaskRequestDto.setDueDateTime(LocalDateTime.now().minusMinutes(1));
+        assertSame(TaskDataCheck.PAST_DUE_DATE, TaskService.checkTaskData(testTaskRequestDto));
+        assertSame(TaskDataCheck.VALID, TaskService.checkTaskFields(testTaskRequestDto));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> taskService.createTask(testTaskRequestDto));
+        assertEquals("Due date must be in the future", ex.getMessage());
 
-        assertDoesNotThrow(() -> taskService.deleteTask(1));
-        verify(taskRepository, times(1)).delete(any(Task.class));
+        // A caller's failed check is thrown as it is, without checking the request again
+        ex = assertThrows(IllegalArgumentException.class,
+                () -> taskService.updateTask(1, testTaskRequestDto, TaskDataCheck.BLANK_TITLE, null));
+        assertEquals("Task title cannot be empty", ex.getMessage());
+        verifyNoInteractions(taskIdAllocator, taskRepository);
     }
-}
\ No newline at end of file
+}
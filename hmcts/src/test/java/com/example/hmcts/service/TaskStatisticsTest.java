@@ -0,0 +1,115 @@
+package com.example.hmcts.service;
+
+import com.example.hmcts.dto.TaskStatsDto;
+import com.example.hmcts.event.TaskChangedEvent;
+import com.example.hmcts.model.Task;
+import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.repository.TaskRepository;
+import com.example.hmcts.repository.TaskStatusCount;
+import com.example.hmcts.shard.TaskShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskStatisticsTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskStatistics taskStatistics;
+
+    @BeforeEach
+    void setUp() {
+        taskStatistics = new TaskStatistics(taskRepository, TaskShards.unsharded(), Duration.ofMinutes(5));
+        when(taskRepository.countByStatus()).thenReturn(List.of(
+                new TaskStatusCount(TaskStatus.TODO, 4), new TaskStatusCount(TaskStatus.COMPLETED, 2)));
+        when(taskRepository.countDueBefore(eq(TaskService.OPEN_STATUSES), any(LocalDateTime.class))).thenReturn(1L);
+        taskStatistics.refresh();
+    }
+
+    private static Task task(int taskId, TaskStatus status) {
+        return new Task(taskId, "Task " + taskId, null, status, LocalDateTime.now().plusDays(1));
+    }
+
+    @Test
+    void testInitialRefreshCountsFromDatabase() {
+        TaskStatsDto stats = taskStatistics.getStats();
+
+        assertEquals(4L, stats.getCountsByStatus().get(TaskStatus.TODO));
+        assertEquals(0L, stats.getCountsByStatus().get(TaskStatus.IN_PROGRESS));
+        assertEquals(6, stats.getTotal());
+        assertEquals(1, stats.getOverdue());
+    }
+
+    @Test
+    void testCommittedChangesMoveCounters() {
+        taskStatistics.onTaskChanged(TaskChangedEvent.created(task(10, TaskStatus.IN_PROGRESS)));
+        taskStatistics.onTaskChanged(TaskChangedEvent.statusChanged(task(1, TaskStatus.COMPLETED), TaskStatus.TODO));
+
+        TaskStatsDto stats = taskStatistics.getStats();
+        assertEquals(3L, stats.getCountsByStatus().get(TaskStatus.TODO));
+        assertEquals(1L, stats.getCountsByStatus().get(TaskStatus.IN_PROGRESS));
+        assertEquals(3L, stats.getCountsByStatus().get(TaskStatus.COMPLETED));
+        assertEquals(7, stats.getTotal());
+
+        // Known deltas do not need a recount before the reconcile interval
+        taskStatistics.refresh();
+        verify(taskRepository, times(1)).countByStatus();
+    }
+
+    @Test
+    void testDeleteRecountsOnNextRefresh() {
+        taskStatistics.onTaskChanged(TaskChangedEvent.deleted(2));
+        assertEquals(6, taskStatistics.getStats().getTotal());
+
+        when(taskRepository.countByStatus()).thenReturn(List.of(
+                new TaskStatusCount(TaskStatus.TODO, 4), new TaskStatusCount(TaskStatus.COMPLETED, 1)));
+        taskStatistics.refresh();
+        assertEquals(1L, taskStatistics.getStats().getCountsByStatus().get(TaskStatus.COMPLETED));
+        assertEquals(5, taskStatistics.getStats().getTotal());
+
+        // Only once: the interval has not elapsed
+        taskStatistics.refresh();
+        verify(taskRepository, times(2)).countByStatus();
+    }
+
+    @Test
+    void testStatusKeptDoesNotMoveCounters() {
+        taskStatistics.onTaskChanged(TaskChangedEvent.statusChanged(task(1, TaskStatus.TODO), TaskStatus.TODO));
+        taskStatistics.onTaskChanged(TaskChangedEvent.updated(task(1, TaskStatus.TODO), TaskStatus.TODO));
+
+        assertEquals(4L, taskStatistics.getStats().getCountsByStatus().get(TaskStatus.TODO));
+        assertEquals(6, taskStatistics.getStats().getTotal());
+    }
+
+    @Test
+    void testReconcileCorrectsDriftAndKeepsLaterChanges() {
+        TaskStatistics reconciling = new TaskStatistics(taskRepository, TaskShards.unsharded(), Duration.ZERO);
+        reconciling.refresh();
+        reconciling.onTaskChanged(TaskChangedEvent.created(task(10, TaskStatus.TODO)));
+        when(taskRepository.countByStatus()).thenAnswer(invocation -> {
+            // Applied while the recount runs, after the counts it corrects were read
+            reconciling.onTaskChanged(TaskChangedEvent.created(task(11, TaskStatus.COMPLETED)));
+            return List.of(new TaskStatusCount(TaskStatus.TODO, 2), new TaskStatusCount(TaskStatus.COMPLETED, 3));
+        });
+
+        reconciling.refresh();
+
+        TaskStatsDto stats = reconciling.getStats();
+        assertEquals(2L, stats.getCountsByStatus().get(TaskStatus.TODO));
+        assertEquals(4L, stats.getCountsByStatus().get(TaskStatus.COMPLETED));
+        assertEquals(6, stats.getTotal());
+    }
+}
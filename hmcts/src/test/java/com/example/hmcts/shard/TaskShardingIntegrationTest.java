@@ -0,0 +1,127 @@
+package com.example.hmcts.shard;
+
+import com.example.hmcts.dto.TaskRequestDto;
+import com.example.hmcts.model.Task;
+import com.example.hmcts.model.TaskStatus;
+import com.example.hmcts.repository.TaskRepository;
+import com.example.hmcts.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "hmcts.sharding.enabled=true",
+        "hmcts.sharding.shards[0].url=jdbc:h2:mem:taskshard1;DB_CLOSE_DELAY=-1",
+        "hmcts.sharding.shards[1].url=jdbc:h2:mem:taskshard2;DB_CLOSE_DELAY=-1",
+        "hmcts.sharding.buckets=6",
+        "hmcts.task-ids.block-size=10",
+        "spring.jpa.open-in-view=false"
+})
+@AutoConfigureMockMvc
+public class TaskShardingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskShards taskShards;
+
+    @Autowired
+    private TaskShardsEndpoint taskShardsEndpoint;
+
+    private Task create(String title, LocalDateTime due) {
+        TaskRequestDto taskRequest = new TaskRequestDto();
+        taskRequest.setTaskTitle(title);
+        taskRequest.setTaskStatus(TaskStatus.TODO);
+        taskRequest.setDueDateTime(due);
+        return taskService.createTask(taskRequest);
+    }
+
+    private List<Integer> taskIdsOn(int shard) {
+        return taskShards.fanOut(target -> taskRepository.findAll().stream().map(Task::getTaskId).toList()).get(shard);
+    }
+
+    @Test
+    void testTasksAreSpreadOverShardsAndMerged() throws Exception {
+        LocalDateTime due = LocalDateTime.now().plusDays(1);
+        List<Integer> taskIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            // Created in reverse due order, so the merged list has to interleave the shards
+            taskIds.add(create("Spread " + i, due.minusMinutes(i)).getTaskId());
+        }
+
+        // Six consecutive ids fall in six buckets, two per shard
+        for (int taskId : taskIds) {
+            assertTrue(taskIdsOn(taskShards.shardOf(taskId)).contains(taskId));
+        }
+        assertEquals(3, taskIds.stream().map(taskShards::shardOf).distinct().count());
+
+        mockMvc.perform(get("/task/" + taskIds.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskTitle", is("Spread 0")));
+        String page = mockMvc.perform(get("/task")
+                        .param("dueFrom", due.minusHours(1).toString()).param("dueTo", due.plusHours(1).toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        // Tasks from other tests, or an earlier run of this one, may fall in the same window
+        List<Integer> listed = new ArrayList<>();
+        objectMapper.readTree(page).get("tasks").forEach(task -> listed.add(task.get("taskId").asInt()));
+        listed.retainAll(taskIds);
+        assertEquals(taskIds.reversed(), listed);
+        mockMvc.perform(get("/task/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", greaterThanOrEqualTo(6)));
+    }
+
+    @Test
+    void testMovedBucketKeepsServingTasks() throws Exception {
+        Task task = create("Moving", LocalDateTime.now().plusDays(2));
+        int taskId = task.getTaskId();
+        int source = taskShards.shardOf(taskId);
+        int target = (source + 1) % taskShards.count();
+
+        TaskShardsEndpoint.MoveDescriptor move = taskShardsEndpoint.moveBucket(Math.floorMod(taskId, 6), target);
+
+        assertTrue(move.tasksMoved() >= 1);
+        assertEquals(target, taskShards.shardOf(taskId));
+        assertTrue(taskIdsOn(target).contains(taskId));
+        assertFalse(taskIdsOn(source).contains(taskId));
+        mockMvc.perform(patch("/task/" + taskId + "/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(TaskStatus.COMPLETED)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskStatus", is("COMPLETED")));
+        mockMvc.perform(get("/task/" + taskId + "/history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transitions[*].toStatus", contains("TODO", "COMPLETED")));
+
+        // Moving one bucket left the shards two apart; rebalancing evens them out again
+        assertEquals(1, taskShardsEndpoint.rebalance().bucketsMoved());
+        assertEquals(List.of(2, 2, 2), taskShardsEndpoint.shards().bucketsByShard());
+        mockMvc.perform(get("/task/" + taskId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskStatus", is("COMPLETED")));
+    }
+}